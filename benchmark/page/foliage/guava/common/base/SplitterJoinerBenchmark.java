@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures {@link Splitter} and {@link Joiner} on lines of comma separated fields. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitterJoinerBenchmark {
+  static final Splitter CHAR_SPLITTER = Splitter.on(',');
+  static final Splitter STRING_SPLITTER = Splitter.on(", ");
+  static final Splitter TRIMMING_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+  static final Joiner JOINER = Joiner.on(',');
+
+  @Param({"4", "64"})
+  int fields;
+
+  @Param({"8"})
+  int fieldLength;
+
+  String line;
+  String spacedLine;
+  List<String> parts;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    parts = new ArrayList<>();
+    for (int i = 0; i < fields; i++) {
+      StringBuilder field = new StringBuilder();
+      for (int j = 0; j < fieldLength; j++) {
+        field.append((char) ('a' + random.nextInt(26)));
+      }
+      parts.add(field.toString());
+    }
+    line = JOINER.join(parts);
+    spacedLine = Joiner.on(", ").join(parts);
+  }
+
+  @Benchmark
+  public void splitOnChar(Blackhole blackhole) {
+    for (String field : CHAR_SPLITTER.split(line)) {
+      blackhole.consume(field);
+    }
+  }
+
+  @Benchmark
+  public void splitOnString(Blackhole blackhole) {
+    for (String field : STRING_SPLITTER.split(spacedLine)) {
+      blackhole.consume(field);
+    }
+  }
+
+  @Benchmark
+  public void splitTrimmed(Blackhole blackhole) {
+    for (String field : TRIMMING_SPLITTER.split(spacedLine)) {
+      blackhole.consume(field);
+    }
+  }
+
+  @Benchmark
+  public List<String> splitToList() {
+    return CHAR_SPLITTER.splitToList(line);
+  }
+
+  @Benchmark
+  public String join() {
+    return JOINER.join(parts);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of reads and writes of a bounded {@link LocalCache} whose keys follow a
+ * Zipfian distribution, which is typical of caches in front of real workloads. Run with {@code
+ * -t} to vary the number of threads, as contention is what the read buffer and the segment locks
+ * are designed for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LocalCacheBenchmark {
+  /** The number of precomputed keys, which must be a power of two. */
+  static final int SAMPLES = 1 << 20;
+
+  static final int SAMPLE_MASK = SAMPLES - 1;
+
+  @Param({"LEAST_RECENTLY_USED", "WINDOW_TINY_LFU"})
+  EvictionPolicy evictionPolicy;
+
+  @Param({"10000"})
+  int maximumSize;
+
+  /** The number of distinct keys, as a multiple of the maximum size. */
+  @Param({"10"})
+  int keySpace;
+
+  /** The skew of the key distribution; larger values concentrate accesses on fewer keys. */
+  @Param({"0.99"})
+  double exponent;
+
+  LoadingCache<Integer, Integer> cache;
+  Integer[] keys;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .evictionPolicy(evictionPolicy)
+            .build(
+                new CacheLoader<Integer, Integer>() {
+                  @Override
+                  public Integer load(Integer key) {
+                    return key;
+                  }
+                });
+    keys = zipfian(maximumSize * keySpace, exponent, SAMPLES, new Random(0));
+    for (Integer key : keys) {
+      cache.getUnchecked(key);
+    }
+  }
+
+  /** The position of a thread in the precomputed keys, so that threads do not share a sequence. */
+  @State(Scope.Thread)
+  public static class ThreadState {
+    int index = new Random().nextInt();
+  }
+
+  @Benchmark
+  public Integer get(ThreadState state) {
+    return cache.getUnchecked(keys[state.index++ & SAMPLE_MASK]);
+  }
+
+  @Benchmark
+  public Integer getIfPresent(ThreadState state) {
+    return cache.getIfPresent(keys[state.index++ & SAMPLE_MASK]);
+  }
+
+  @Benchmark
+  public void put(ThreadState state) {
+    Integer key = keys[state.index++ & SAMPLE_MASK];
+    cache.put(key, key);
+  }
+
+  /**
+   * Returns {@code samples} keys drawn from {@code [0, items)}, where the key of rank {@code k} is
+   * drawn with a probability proportional to {@code 1 / k^exponent}.
+   */
+  static Integer[] zipfian(int items, double exponent, int samples, Random random) {
+    double[] cumulative = new double[items];
+    double sum = 0;
+    for (int i = 0; i < items; i++) {
+      sum += 1.0 / Math.pow(i + 1, exponent);
+      cumulative[i] = sum;
+    }
+    Integer[] keys = new Integer[samples];
+    for (int i = 0; i < samples; i++) {
+      int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+      // scatter the ranks, so that popular keys do not all hash to the same segment
+      keys[i] = ((rank < 0) ? -rank - 1 : rank) * 0x9E3779B9;
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookups in {@link ImmutableMap} and {@link CompactHashMap}, with {@link HashMap} as a
+ * baseline. Half of the looked up keys are present, in a random order, so that neither the branch
+ * predictor nor the prefetcher can learn the access pattern.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapLookupBenchmark {
+  /** The number of looked up keys, which must be a power of two. */
+  static final int LOOKUPS = 1 << 12;
+
+  static final int LOOKUP_MASK = LOOKUPS - 1;
+
+  enum Impl {
+    IMMUTABLE {
+      @Override
+      Map<Object, Object> create(Map<Object, Object> contents) {
+        return ImmutableMap.copyOf(contents);
+      }
+    },
+    COMPACT {
+      @Override
+      Map<Object, Object> create(Map<Object, Object> contents) {
+        Map<Object, Object> map = CompactHashMap.createWithExpectedSize(contents.size());
+        map.putAll(contents);
+        return map;
+      }
+    },
+    HASH {
+      @Override
+      Map<Object, Object> create(Map<Object, Object> contents) {
+        return new HashMap<>(contents);
+      }
+    };
+
+    abstract Map<Object, Object> create(Map<Object, Object> contents);
+  }
+
+  @Param({"IMMUTABLE", "COMPACT", "HASH"})
+  Impl impl;
+
+  @Param({"16", "1024", "65536"})
+  int size;
+
+  Map<Object, Object> map;
+  Object[] lookups;
+  int index;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    Map<Object, Object> contents = new HashMap<>();
+    Object[] absent = new Object[size];
+    while (contents.size() < size) {
+      String key = Long.toHexString(random.nextLong());
+      contents.put(key, key);
+    }
+    for (int i = 0; i < size; i++) {
+      String key = Long.toHexString(random.nextLong());
+      absent[i] = contents.containsKey(key) ? key + "-" : key;
+    }
+    map = impl.create(contents);
+
+    Object[] present = contents.keySet().toArray();
+    lookups = new Object[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      // copy the keys, so that lookups cannot short-circuit on reference equality
+      Object[] source = random.nextBoolean() ? present : absent;
+      lookups[i] = new String((String) source[random.nextInt(size)]);
+    }
+  }
+
+  @Benchmark
+  public Object get() {
+    return map.get(lookups[index++ & LOOKUP_MASK]);
+  }
+
+  @Benchmark
+  public boolean containsKey() {
+    return map.containsKey(lookups[index++ & LOOKUP_MASK]);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link BloomFilter#mightContain} for present and absent elements, and {@link
+ * BloomFilter#put}, on a standard and a {@linkplain BloomFilter#createBlocked blocked} filter that
+ * are large enough not to fit in the processor caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BloomFilterBenchmark {
+  /** The number of looked up elements, which must be a power of two. */
+  static final int LOOKUPS = 1 << 16;
+
+  static final int LOOKUP_MASK = LOOKUPS - 1;
+
+  @Param({"10000000"})
+  int expectedInsertions;
+
+  @Param({"0.01"})
+  double fpp;
+
+  @Param({"false", "true"})
+  boolean blocked;
+
+  BloomFilter<Long> filter;
+  Long[] present;
+  Long[] absent;
+  int index;
+
+  @Setup
+  public void setUp() {
+    filter =
+        blocked
+            ? BloomFilter.createBlocked(Funnels.longFunnel(), expectedInsertions, fpp)
+            : BloomFilter.create(Funnels.longFunnel(), expectedInsertions, fpp);
+    Random random = new Random(0);
+    for (int i = 0; i < expectedInsertions; i++) {
+      filter.put(random.nextLong());
+    }
+    // replay the inserted sequence for present elements, and continue it for absent ones
+    random = new Random(0);
+    present = new Long[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      present[i] = random.nextLong();
+    }
+    random = new Random(1);
+    absent = new Long[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      absent[i] = random.nextLong();
+    }
+  }
+
+  @Benchmark
+  public boolean mightContainPresent() {
+    return filter.mightContain(present[index++ & LOOKUP_MASK]);
+  }
+
+  @Benchmark
+  public boolean mightContainAbsent() {
+    return filter.mightContain(absent[index++ & LOOKUP_MASK]);
+  }
+
+  @Benchmark
+  public boolean put() {
+    return filter.put(absent[index++ & LOOKUP_MASK]);
+  }
+}
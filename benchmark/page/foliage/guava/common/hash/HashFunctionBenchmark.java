@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of hashing byte arrays, both in one call and through a {@link Hasher}
+ * that is fed a {@code long} at a time. Divide the input size by the reported time to compare
+ * functions in bytes per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashFunctionBenchmark {
+  enum Algorithm {
+    MURMUR3_128(Hashing.murmur3_128()),
+    MURMUR3_32(Hashing.murmur3_32_fixed()),
+    FARM_HASH_FINGERPRINT_64(Hashing.farmHashFingerprint64()),
+    SIP_HASH_24(Hashing.sipHash24()),
+    CRC_32C(Hashing.crc32c()),
+    XXH3_64(Hashing.xxh3_64()),
+    XXH3_128(Hashing.xxh3_128()),
+    WYHASH(Hashing.wyhash());
+
+    final HashFunction function;
+
+    Algorithm(HashFunction function) {
+      this.function = function;
+    }
+  }
+
+  @Param({"MURMUR3_128", "FARM_HASH_FINGERPRINT_64", "XXH3_64", "XXH3_128", "WYHASH"})
+  Algorithm algorithm;
+
+  @Param({"16", "1024", "65536"})
+  int size;
+
+  HashFunction function;
+  byte[] input;
+  long[] longs;
+
+  @Setup
+  public void setUp() {
+    function = algorithm.function;
+    Random random = new Random(0);
+    input = new byte[size];
+    random.nextBytes(input);
+    longs = new long[Math.max(1, size / Long.BYTES)];
+    for (int i = 0; i < longs.length; i++) {
+      longs[i] = random.nextLong();
+    }
+  }
+
+  @Benchmark
+  public HashCode hashBytes() {
+    return function.hashBytes(input);
+  }
+
+  @Benchmark
+  public HashCode hasherPutLong() {
+    Hasher hasher = function.newHasher();
+    for (long value : longs) {
+      hasher.putLong(value);
+    }
+    return hasher.hash();
+  }
+}
@@ -188,6 +188,54 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
      */
     void recordEviction();
 
+    /**
+     * Records the rejection of an entry by the cache's admission policy. This should only be called
+     * when an entry is discarded because it was judged less valuable than the entry it would have
+     * displaced, as done by {@link EvictionPolicy#WINDOW_TINY_LFU}. The rejected entry is also
+     * recorded as an {@linkplain #recordEviction eviction}.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @since 32.1.3
+     */
+    default void recordAdmissionRejection() {}
+
+    /**
+     * Records that a value of the given weight was stored in the cache, either as a new entry or as
+     * the replacement of an existing entry's value. Together with {@link #recordRemoval}, this
+     * tracks the cache's total weight.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param weight the weight of the stored value, which is 1 unless a {@link Weigher} is used
+     * @since 32.1.3
+     */
+    default void recordWrite(int weight) {}
+
+    /**
+     * Records the removal of an entry from the cache, for any reason including the replacement of
+     * its value. Unlike {@link #recordEviction}, this is also called for explicit removals.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param cause the reason for which the entry was removed
+     * @param weight the weight of the removed value
+     * @since 32.1.3
+     */
+    default void recordRemoval(RemovalCause cause, int weight) {}
+
+    /**
+     * Records that a thread had to wait to acquire one of the cache's internal locks because it was
+     * held by another thread. Uncontended acquisitions are not recorded.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param waitTime the number of nanoseconds the thread spent waiting for the lock
+     * @since 32.1.3
+     */
+    @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+    default void recordLockWait(long waitTime) {}
+
     /**
      * Returns a snapshot of this counter's values. Note that this may be an inconsistent view, as
      * it may be interleaved with update operations.
@@ -207,6 +255,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     private final LongAddable loadExceptionCount = LongAddables.create();
     private final LongAddable totalLoadTime = LongAddables.create();
     private final LongAddable evictionCount = LongAddables.create();
+    private final LongAddable admissionRejectionCount = LongAddables.create();
 
     /** Constructs an instance with all counts initialized to zero. */
     public SimpleStatsCounter() {}
@@ -242,6 +291,12 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
       evictionCount.increment();
     }
 
+    /** @since 32.1.3 */
+    @Override
+    public void recordAdmissionRejection() {
+      admissionRejectionCount.increment();
+    }
+
     @Override
     public CacheStats snapshot() {
       return new CacheStats(
@@ -250,7 +305,8 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
           negativeToMaxValue(loadSuccessCount.sum()),
           negativeToMaxValue(loadExceptionCount.sum()),
           negativeToMaxValue(totalLoadTime.sum()),
-          negativeToMaxValue(evictionCount.sum()));
+          negativeToMaxValue(evictionCount.sum()),
+          negativeToMaxValue(admissionRejectionCount.sum()));
     }
 
     /** Returns {@code value}, if non-negative. Otherwise, returns {@link Long#MAX_VALUE}. */
@@ -267,6 +323,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
       loadExceptionCount.add(otherStats.loadExceptionCount());
       totalLoadTime.add(otherStats.totalLoadTime());
       evictionCount.add(otherStats.evictionCount());
+      admissionRejectionCount.add(otherStats.admissionRejectionCount());
     }
   }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.CheckForNull;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.collect.ImmutableMap;
+import page.foliage.guava.common.util.concurrent.AsyncFunction;
+import page.foliage.guava.common.util.concurrent.ListenableFuture;
+
+/**
+ * A semi-persistent mapping from keys to future values. Values are loaded asynchronously by the
+ * cache, and their futures are stored in the cache until either evicted or manually invalidated.
+ * Instances are built using {@link CacheBuilder#buildAsync}.
+ *
+ * <p>Unlike {@link LoadingCache}, no method of this interface blocks while a value is being
+ * loaded: a cache miss starts the load and immediately returns its future. Concurrent requests for
+ * the same key share a single load. A future that fails or is cancelled is removed from the cache,
+ * so that the next request for its key starts a new load.
+ *
+ * <p>Implementations of this interface are expected to be thread-safe, and can be safely accessed
+ * by multiple concurrent threads.
+ *
+ * @param <K> the type of the cache's keys, which are not permitted to be null
+ * @param <V> the type of the cache's values, which are not permitted to be null
+ * @since 32.1.3
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public interface AsyncLoadingCache<K, V> {
+
+  /**
+   * Returns the future associated with {@code key} in this cache, or {@code null} if there is no
+   * cached future for {@code key}. The returned future may still be loading.
+   */
+  @CheckForNull
+  ListenableFuture<V> getIfPresent(Object key);
+
+  /**
+   * Returns the future associated with {@code key} in this cache, first starting to load that
+   * value if necessary by invoking the cache's {@link AsyncFunction}. If a load of {@code key} is
+   * already in progress, its future is returned instead of starting another.
+   *
+   * <p>This method never throws because of a failed load; instead, the returned future fails with
+   * the exception thrown or returned by the loader.
+   */
+  ListenableFuture<V> get(K key);
+
+  /**
+   * Returns a future of the map of the values associated with {@code keys}, starting loads for any
+   * keys that are not already cached or loading. The returned map contains entries in the same
+   * order as {@code keys}, and the future fails if any of the individual loads fails.
+   */
+  ListenableFuture<ImmutableMap<K, V>> getAll(Iterable<? extends K> keys);
+
+  /**
+   * Associates {@code valueFuture} with {@code key} in this cache. If the cache previously
+   * contained a future associated with {@code key}, it is replaced. If {@code valueFuture} fails,
+   * it is removed from the cache.
+   */
+  void put(K key, ListenableFuture<V> valueFuture);
+
+  /** Discards any cached future for key {@code key}. Loads in progress are not cancelled. */
+  void invalidate(Object key);
+
+  /** Discards all entries in the cache. Loads in progress are not cancelled. */
+  void invalidateAll();
+
+  /** Returns the approximate number of entries in this cache, including those still loading. */
+  long size();
+
+  /**
+   * Returns a current snapshot of this cache's cumulative statistics, or a set of default values if
+   * the cache is not recording statistics. Loads are counted, and timed, up to the point where the
+   * loader returns its future; a future that later fails is not counted as a load exception.
+   */
+  CacheStats stats();
+
+  /**
+   * Returns a view of the entries stored in this cache as a thread-safe map. Modifications made to
+   * the map directly affect the cache.
+   */
+  ConcurrentMap<K, ListenableFuture<V>> asMap();
+
+  /** Performs any pending maintenance operations needed by the cache. */
+  void cleanUp();
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+import static page.foliage.guava.common.util.concurrent.Uninterruptibles.getUninterruptibly;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.collect.ImmutableList;
+import page.foliage.guava.common.collect.ImmutableMap;
+import page.foliage.guava.common.util.concurrent.SettableFuture;
+
+/**
+ * A {@code CacheLoader} that coalesces the keys requested by concurrent {@link #load} and {@link
+ * #loadAll} calls into shared batches, each of which is loaded by a single call to the delegate's
+ * {@link CacheLoader#loadAll}.
+ *
+ * <p>The thread that opens a batch waits until either the batch window has elapsed or the batch has
+ * reached its maximum size, and then loads it on behalf of every thread that joined it. Other
+ * threads block until the batches holding their keys have been loaded. If the delegate does not
+ * implement {@code loadAll}, the keys of a batch are loaded individually instead.
+ *
+ * @see CacheBuilder#batchLoads
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class BatchingCacheLoader<K, V> extends CacheLoader<K, V> {
+  final CacheLoader<? super K, V> delegate;
+  final long windowNanos;
+  final int maximumBatchSize;
+
+  /** The batch that is accepting keys, if any. */
+  @GuardedBy("this")
+  @CheckForNull
+  Batch<K, V> current;
+
+  BatchingCacheLoader(CacheLoader<? super K, V> delegate, long windowNanos, int maximumBatchSize) {
+    this.delegate = checkNotNull(delegate);
+    this.windowNanos = windowNanos;
+    this.maximumBatchSize = maximumBatchSize;
+  }
+
+  /** A set of keys that will be loaded together. */
+  static final class Batch<K, V> {
+    final long deadline;
+    final Set<K> keys = new LinkedHashSet<>();
+    final SettableFuture<Map<K, V>> result = SettableFuture.create();
+
+    Batch(long deadline) {
+      this.deadline = deadline;
+    }
+  }
+
+  @Override
+  public V load(K key) throws Exception {
+    V value = loadAll(ImmutableList.of(key)).get(key);
+    if (value == null) {
+      throw new InvalidCacheLoadException("loadAll failed to return a value for " + key);
+    }
+    return value;
+  }
+
+  @Override
+  public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+    Map<K, Batch<K, V>> joined = new LinkedHashMap<>();
+    Set<Batch<K, V>> opened = new LinkedHashSet<>();
+    synchronized (this) {
+      for (K key : keys) {
+        if (joined.containsKey(key)) {
+          continue;
+        }
+        Batch<K, V> batch = current;
+        if (batch == null) {
+          batch = new Batch<>(System.nanoTime() + windowNanos);
+          current = batch;
+          opened.add(batch);
+        }
+        batch.keys.add(key);
+        joined.put(key, batch);
+        if (batch.keys.size() >= maximumBatchSize) {
+          // close the full batch, and wake its owner if it is waiting for the window to elapse
+          current = null;
+          notifyAll();
+        }
+      }
+    }
+
+    for (Batch<K, V> batch : opened) {
+      awaitWindow(batch);
+      loadBatch(batch);
+    }
+
+    Map<K, V> result = new LinkedHashMap<>();
+    for (Entry<K, Batch<K, V>> entry : joined.entrySet()) {
+      Map<K, V> loaded;
+      try {
+        loaded = getUninterruptibly(entry.getValue().result);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        throw (Error) cause;
+      }
+      V value = loaded.get(entry.getKey());
+      if (value != null) {
+        result.put(entry.getKey(), value);
+      }
+    }
+    return result;
+  }
+
+  /** Waits until {@code batch} is closed, or until its window has elapsed and then closes it. */
+  void awaitWindow(Batch<K, V> batch) {
+    boolean interrupted = false;
+    try {
+      synchronized (this) {
+        long remainingNanos;
+        while (current == batch && (remainingNanos = batch.deadline - System.nanoTime()) > 0) {
+          try {
+            NANOSECONDS.timedWait(this, remainingNanos);
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+        if (current == batch) {
+          current = null;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** Loads the keys of a closed batch and publishes the result to every thread that joined it. */
+  void loadBatch(Batch<K, V> batch) {
+    try {
+      Map<K, V> loaded;
+      try {
+        @SuppressWarnings("unchecked") // the delegate returns values for keys of type K
+        Map<K, V> result = (Map<K, V>) delegate.loadAll(batch.keys);
+        loaded = result;
+      } catch (UnsupportedLoadingOperationException e) {
+        ImmutableMap.Builder<K, V> builder = ImmutableMap.builderWithExpectedSize(batch.keys.size());
+        for (K key : batch.keys) {
+          V value = delegate.load(key);
+          if (value == null) {
+            throw new InvalidCacheLoadException("CacheLoader returned null for key " + key + ".");
+          }
+          builder.put(key, value);
+        }
+        loaded = builder.buildOrThrow();
+      }
+      if (loaded == null) {
+        throw new InvalidCacheLoadException(delegate + " returned null map from loadAll");
+      }
+      batch.result.set(loaded);
+    } catch (Throwable t) {
+      batch.result.setException(t);
+    }
+  }
+}
@@ -24,6 +24,8 @@ import java.time.Duration;
 import java.util.ConcurrentModificationException;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -44,9 +46,12 @@ import page.foliage.guava.common.base.Ticker;
 import page.foliage.guava.common.cache.AbstractCache.SimpleStatsCounter;
 import page.foliage.guava.common.cache.AbstractCache.StatsCounter;
 import page.foliage.guava.common.cache.LocalCache.Strength;
+import page.foliage.guava.common.util.concurrent.AsyncFunction;
+import page.foliage.guava.common.util.concurrent.ListenableFuture;
+import page.foliage.guava.common.util.concurrent.MoreExecutors;
 
 /**
- * A builder of {@link LoadingCache} and {@link Cache} instances.
+ * A builder of {@link LoadingCache}, {@link AsyncLoadingCache} and {@link Cache} instances.
  *
  * <h2>Prefer <a href="https://github.com/ben-manes/caffeine/wiki">Caffeine</a> over Guava's caching
  * API</h2>
@@ -92,11 +97,13 @@ import page.foliage.guava.common.cache.LocalCache.Strength;
  *
  * <ul>
  *   <li>automatic loading of entries into the cache
- *   <li>least-recently-used eviction when a maximum size is exceeded (note that the cache is
- *       divided into segments, each of which does LRU internally)
- *   <li>time-based expiration of entries, measured since last access or last write
+ *   <li>least-recently-used or frequency-aware eviction when a maximum size is exceeded (note that
+ *       the cache is divided into segments, each of which evicts internally)
+ *   <li>time-based expiration of entries, measured since last access or last write, or computed
+ *       for each entry by an {@link Expiry}
  *   <li>keys automatically wrapped in {@code WeakReference}
  *   <li>values automatically wrapped in {@code WeakReference} or {@code SoftReference}
+ *   <li>serialized storage of entries evicted from the heap in an off-heap tier
  *   <li>notification of evicted (or otherwise removed) entries
  *   <li>accumulation of cache access statistics
  * </ul>
@@ -173,7 +180,9 @@ import page.foliage.guava.common.cache.LocalCache.Strength;
  * calling it should not be necessary with a high throughput cache. Only caches built with {@link
  * #removalListener removalListener}, {@link #expireAfterWrite expireAfterWrite}, {@link
  * #expireAfterAccess expireAfterAccess}, {@link #weakKeys weakKeys}, {@link #weakValues
- * weakValues}, or {@link #softValues softValues} perform periodic maintenance.
+ * weakValues}, or {@link #softValues softValues} perform periodic maintenance. An {@link #executor
+ * executor} may be specified to move this work off the calling threads, and a {@link #scheduler
+ * scheduler} to perform it even while the cache is idle.
  *
  * <p>The caches produced by {@code CacheBuilder} are serializable, and the deserialized caches
  * retain all the configuration properties of the original cache. Note that the serialized form does
@@ -290,6 +299,7 @@ public final class CacheBuilder<K, V> {
   long maximumSize = UNSET_INT;
   long maximumWeight = UNSET_INT;
   @CheckForNull Weigher<? super K, ? super V> weigher;
+  @CheckForNull EvictionPolicy evictionPolicy;
 
   @CheckForNull Strength keyStrength;
   @CheckForNull Strength valueStrength;
@@ -303,11 +313,23 @@ public final class CacheBuilder<K, V> {
   @SuppressWarnings("GoodTime") // should be a java.time.Duration
   long refreshNanos = UNSET_INT;
 
+  @CheckForNull Expiry<? super K, ? super V> expiry;
+
+  long offHeapMaximumBytes = UNSET_INT;
+  @CheckForNull ValueCodec<?> offHeapCodec;
+
+  @SuppressWarnings("GoodTime") // should be a java.time.Duration
+  long batchWindowNanos = UNSET_INT;
+
+  int maximumBatchSize = UNSET_INT;
+
   @CheckForNull Equivalence<Object> keyEquivalence;
   @CheckForNull Equivalence<Object> valueEquivalence;
 
   @CheckForNull RemovalListener<? super K, ? super V> removalListener;
   @CheckForNull Ticker ticker;
+  @CheckForNull Executor executor;
+  @CheckForNull ScheduledExecutorService scheduler;
 
   Supplier<? extends StatsCounter> statsCounterSupplier = NULL_STATS_COUNTER;
 
@@ -609,6 +631,38 @@ public final class CacheBuilder<K, V> {
     return (Weigher<K1, V1>) MoreObjects.firstNonNull(weigher, OneWeigher.INSTANCE);
   }
 
+  /**
+   * Specifies the algorithm used to select which entry to evict when the {@linkplain
+   * #maximumSize(long) maximum size} or {@linkplain #maximumWeight(long) maximum weight} of the
+   * cache is exceeded. By default, {@link EvictionPolicy#LEAST_RECENTLY_USED} is used.
+   *
+   * <p>{@link EvictionPolicy#WINDOW_TINY_LFU} typically achieves a noticeably higher hit rate than
+   * LRU for workloads that mix frequently used keys with scans or one-off lookups, at the cost of a
+   * small frequency sketch maintained per segment. When combined with {@link #recordStats}, the
+   * number of entries it declines to admit is reported by {@link
+   * CacheStats#admissionRejectionCount}.
+   *
+   * <p>The policy has no effect unless a maximum size or weight is also specified.
+   *
+   * @param evictionPolicy the page replacement algorithm to use for size-based eviction
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if an eviction policy was already set
+   * @since 32.1.3
+   */
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> evictionPolicy(EvictionPolicy evictionPolicy) {
+    checkState(
+        this.evictionPolicy == null,
+        "eviction policy was already set to %s",
+        this.evictionPolicy);
+    this.evictionPolicy = checkNotNull(evictionPolicy);
+    return this;
+  }
+
+  EvictionPolicy getEvictionPolicy() {
+    return MoreObjects.firstNonNull(evictionPolicy, EvictionPolicy.LEAST_RECENTLY_USED);
+  }
+
   /**
    * Specifies that each key (not value) stored in the cache should be wrapped in a {@link
    * WeakReference} (by default, strong references are used).
@@ -759,6 +813,7 @@ public final class CacheBuilder<K, V> {
         expireAfterWriteNanos == UNSET_INT,
         "expireAfterWrite was already set to %s ns",
         expireAfterWriteNanos);
+    checkState(expiry == null, "expireAfterWrite may not be used with expireAfter");
     checkArgument(duration >= 0, "duration cannot be negative: %s %s", duration, unit);
     this.expireAfterWriteNanos = unit.toNanos(duration);
     return this;
@@ -836,6 +891,7 @@ public final class CacheBuilder<K, V> {
         expireAfterAccessNanos == UNSET_INT,
         "expireAfterAccess was already set to %s ns",
         expireAfterAccessNanos);
+    checkState(expiry == null, "expireAfterAccess may not be used with expireAfter");
     checkArgument(duration >= 0, "duration cannot be negative: %s %s", duration, unit);
     this.expireAfterAccessNanos = unit.toNanos(duration);
     return this;
@@ -848,6 +904,115 @@ public final class CacheBuilder<K, V> {
         : expireAfterAccessNanos;
   }
 
+  /**
+   * Specifies that each entry should be automatically removed from the cache once a duration
+   * computed by {@code expiry} has elapsed after the entry's creation, the most recent replacement
+   * of its value, or its last access. This allows entries to have individual lifetimes, for example
+   * to honor the time-to-live of a token or of a DNS record.
+   *
+   * <p>Expired entries are tracked in a hierarchical timer wheel per segment, so that the cost of
+   * scheduling and expiring an entry does not depend on the number of entries or on the spread of
+   * their lifetimes. Expired entries may be counted in {@link Cache#size}, but will never be
+   * visible to read or write operations, and are cleaned up as part of the routine maintenance
+   * described in the class javadoc.
+   *
+   * <p>Variable expiration may not be combined with {@link #expireAfterWrite} or {@link
+   * #expireAfterAccess}, which are equivalent to an {@code Expiry} returning a fixed duration.
+   *
+   * <p><b>Warning:</b> after invoking this method, do not continue to use <i>this</i> cache builder
+   * reference; instead use the reference this method <i>returns</i>. At runtime, these point to the
+   * same instance, but only the returned reference has the correct generic type information to
+   * ensure type safety.
+   *
+   * @param expiry the expiry to use in calculating the expiration time of cache entries
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if an expiry was already set, or if {@link #expireAfterWrite} or
+   *     {@link #expireAfterAccess} was set
+   * @since 32.1.3
+   */
+  @GwtIncompatible // Expiry
+  public <K1 extends K, V1 extends V> CacheBuilder<K1, V1> expireAfter(
+      Expiry<? super K1, ? super V1> expiry) {
+    checkState(this.expiry == null, "expiry was already set to %s", this.expiry);
+    checkState(
+        expireAfterWriteNanos == UNSET_INT, "expireAfter may not be used with expireAfterWrite");
+    checkState(
+        expireAfterAccessNanos == UNSET_INT, "expireAfter may not be used with expireAfterAccess");
+
+    // safely limiting the kinds of caches this can produce
+    @SuppressWarnings("unchecked")
+    CacheBuilder<K1, V1> me = (CacheBuilder<K1, V1>) this;
+    me.expiry = checkNotNull(expiry);
+    return me;
+  }
+
+  // Make a safe contravariant cast now so we don't have to do it over and over.
+  @CheckForNull
+  @SuppressWarnings("unchecked")
+  <K1 extends K, V1 extends V> Expiry<K1, V1> getExpiry() {
+    return (Expiry<K1, V1>) expiry;
+  }
+
+  /**
+   * Specifies that entries evicted from the heap because of the {@linkplain #maximumSize maximum
+   * size} or {@linkplain #maximumWeight maximum weight} should be serialized by {@code codec} into
+   * an off-heap tier of at most {@code maximumBytes}, instead of being discarded. The heap remains
+   * sized as before, so that the on-heap values may be limited to the most frequently used ones
+   * while the bulk of the payload is kept outside of the garbage collected heap.
+   *
+   * <p>When a lookup by {@link Cache#getIfPresent}, {@link LoadingCache#get} or their bulk
+   * equivalents misses the heap, the value is taken from the off-heap tier, decoded and moved back
+   * to the heap, and the lookup is counted as a hit. The entry keeps its original write time, so
+   * that expiration and refresh are not postponed by a round trip through the off-heap tier. Other
+   * operations, such as those of the {@link Cache#asMap} view and {@link Cache#size}, only reflect
+   * the entries on the heap; writes and invalidations of a key discard its off-heap value.
+   *
+   * <p>The off-heap tier is a circular log of direct buffers that discards its oldest values to
+   * make room for new ones. The {@linkplain #removalListener removal listener} is notified with
+   * {@link RemovalCause#SIZE} when an entry is evicted from the heap, but not when its value is
+   * later discarded from the off-heap tier. Values whose serialized form is larger than either
+   * {@code maximumBytes} or 64 MiB are not stored.
+   *
+   * <p>This feature may only be used with strong keys and values, and with size-based eviction. It
+   * may not be combined with {@link #expireAfter}.
+   *
+   * <p><b>Warning:</b> after invoking this method, do not continue to use <i>this</i> cache builder
+   * reference; instead use the reference this method <i>returns</i>. At runtime, these point to the
+   * same instance, but only the returned reference has the correct generic type information to
+   * ensure type safety.
+   *
+   * @param maximumBytes the maximum number of bytes of serialized values held off-heap
+   * @param codec the codec used to serialize and deserialize values
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalArgumentException if {@code maximumBytes} is not positive
+   * @throws IllegalStateException if an off-heap tier was already specified
+   * @since 32.1.3
+   */
+  @GwtIncompatible // ByteBuffer
+  public <K1 extends K, V1 extends V> CacheBuilder<K1, V1> offHeapTier(
+      long maximumBytes, ValueCodec<V1> codec) {
+    checkState(
+        this.offHeapCodec == null, "offHeapTier was already set to %s", this.offHeapCodec);
+    checkArgument(maximumBytes > 0, "maximumBytes must be positive");
+
+    // safely limiting the kinds of caches this can produce
+    @SuppressWarnings("unchecked")
+    CacheBuilder<K1, V1> me = (CacheBuilder<K1, V1>) this;
+    me.offHeapMaximumBytes = maximumBytes;
+    me.offHeapCodec = checkNotNull(codec);
+    return me;
+  }
+
+  long getOffHeapMaximumBytes() {
+    return offHeapMaximumBytes;
+  }
+
+  @CheckForNull
+  @SuppressWarnings("unchecked") // the codec was specified for values of type V1
+  <V1 extends V> ValueCodec<V1> getOffHeapCodec() {
+    return (ValueCodec<V1>) offHeapCodec;
+  }
+
   /**
    * Specifies that active entries are eligible for automatic refresh once a fixed duration has
    * elapsed after the entry's creation, or the most recent replacement of its value. The semantics
@@ -929,6 +1094,63 @@ public final class CacheBuilder<K, V> {
     return (refreshNanos == UNSET_INT) ? DEFAULT_REFRESH_NANOS : refreshNanos;
   }
 
+  /**
+   * Specifies that loads should be coalesced across threads into batches of keys, each of which is
+   * loaded with a single call to {@link CacheLoader#loadAll}. Keys requested by concurrent calls to
+   * {@link LoadingCache#get} and {@link LoadingCache#getAll} that miss the cache are collected for
+   * up to {@code window} after the first of them, or until {@code maximumBatchSize} keys have been
+   * collected, and are then loaded together.
+   *
+   * <p>This trades a bounded amount of added latency on cache misses for fewer round trips to the
+   * underlying data source. It is only effective if the cache loader implements {@link
+   * CacheLoader#loadAll} efficiently; otherwise, the keys of each batch are loaded individually.
+   * Refreshes performed by the default {@link CacheLoader#reload} are batched as well.
+   *
+   * @param window how long to wait for more keys after a batch is started
+   * @param maximumBatchSize the maximum number of keys loaded by a single call to {@code loadAll}
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalArgumentException if {@code window} is negative or {@code maximumBatchSize} is
+   *     not positive
+   * @throws IllegalStateException if batching was already configured
+   * @throws ArithmeticException for durations greater than +/- approximately 292 years
+   * @since 32.1.3
+   */
+  @J2ObjCIncompatible
+  @GwtIncompatible // java.time.Duration
+  @SuppressWarnings("GoodTime") // java.time.Duration decomposition
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> batchLoads(java.time.Duration window, int maximumBatchSize) {
+    return batchLoads(toNanosSaturated(window), TimeUnit.NANOSECONDS, maximumBatchSize);
+  }
+
+  /**
+   * Specifies that loads should be coalesced across threads into batches of keys, each of which is
+   * loaded with a single call to {@link CacheLoader#loadAll}. See {@link
+   * #batchLoads(java.time.Duration, int)} for details.
+   *
+   * @param window how long to wait for more keys after a batch is started
+   * @param unit the unit that {@code window} is expressed in
+   * @param maximumBatchSize the maximum number of keys loaded by a single call to {@code loadAll}
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalArgumentException if {@code window} is negative or {@code maximumBatchSize} is
+   *     not positive
+   * @throws IllegalStateException if batching was already configured
+   * @since 32.1.3
+   */
+  @GwtIncompatible // BatchingCacheLoader
+  @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> batchLoads(long window, TimeUnit unit, int maximumBatchSize) {
+    checkNotNull(unit);
+    checkState(
+        batchWindowNanos == UNSET_INT, "batch window was already set to %s ns", batchWindowNanos);
+    checkArgument(window >= 0, "window must not be negative: %s %s", window, unit);
+    checkArgument(maximumBatchSize > 0, "maximumBatchSize must be positive: %s", maximumBatchSize);
+    this.batchWindowNanos = unit.toNanos(window);
+    this.maximumBatchSize = maximumBatchSize;
+    return this;
+  }
+
   /**
    * Specifies a nanosecond-precision time source for this cache. By default, {@link
    * System#nanoTime} is used.
@@ -992,6 +1214,66 @@ public final class CacheBuilder<K, V> {
         MoreObjects.firstNonNull(removalListener, NullListener.INSTANCE);
   }
 
+  /**
+   * Specifies the executor used to deliver removal notifications and to perform the maintenance
+   * that is otherwise triggered from occasional read operations. By default, this work is
+   * performed by the threads using the cache, which adds latency to their operations.
+   *
+   * <p>Maintenance that a write requires before it may proceed, such as evicting entries to make
+   * room for the new value, is still performed by the writing thread. If {@code executor} rejects a
+   * task, the task is run on the calling thread instead. Calls to {@link Cache#cleanUp} perform
+   * maintenance on the calling thread.
+   *
+   * <p>The executor should not be {@linkplain MoreExecutors#directExecutor direct}, and its tasks
+   * should not block on the cache.
+   *
+   * @param executor the executor to run maintenance tasks and removal listeners on
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if an executor was already set
+   * @since 32.1.3
+   */
+  @GwtIncompatible // Executor
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> executor(Executor executor) {
+    checkState(this.executor == null, "executor was already set to %s", this.executor);
+    this.executor = checkNotNull(executor);
+    return this;
+  }
+
+  @CheckForNull
+  Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Specifies a scheduler used to perform cache maintenance periodically, so that expired entries
+   * and entries whose keys or values have been reclaimed are removed, and their removal listeners
+   * notified, even when the cache is not being used. Maintenance is scheduled about once per
+   * second, and only for caches that {@linkplain #expireAfterWrite expire} entries or use {@link
+   * #weakKeys weakKeys}, {@link #weakValues weakValues} or {@link #softValues softValues}.
+   *
+   * <p>The scheduled task does not prevent the cache from being garbage collected, and is cancelled
+   * once it has been. The maintenance itself runs on {@code scheduler}, while removal notifications
+   * are delivered on the {@link #executor executor} if one was specified.
+   *
+   * @param scheduler the scheduler to run periodic maintenance on
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @throws IllegalStateException if a scheduler was already set
+   * @since 32.1.3
+   */
+  @GwtIncompatible // ScheduledExecutorService
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> scheduler(ScheduledExecutorService scheduler) {
+    checkState(this.scheduler == null, "scheduler was already set to %s", this.scheduler);
+    this.scheduler = checkNotNull(scheduler);
+    return this;
+  }
+
+  @CheckForNull
+  ScheduledExecutorService getScheduler() {
+    return scheduler;
+  }
+
   /**
    * Enable the accumulation of {@link CacheStats} during the operation of the cache. Without this
    * {@link Cache#stats} will return zero for all statistics. Note that recording stats requires
@@ -1007,8 +1289,30 @@ public final class CacheBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Enable the accumulation of statistics during the operation of the cache, using counters
+   * obtained from {@code statsCounterSupplier}. The cache obtains a separate counter for each of
+   * its segments, and {@link Cache#stats} combines their {@linkplain StatsCounter#snapshot
+   * snapshots}.
+   *
+   * <p>Besides the events reflected in {@link CacheStats}, counters are notified of every write and
+   * removal, by {@link RemovalCause}, and of the time threads spend waiting for the cache's
+   * internal locks. A {@link CacheMetricsRecorder} records these events in lock-free counters, and
+   * can export them as {@link CacheMetrics} snapshots; other suppliers may forward them to an
+   * existing metrics library.
+   *
+   * @param statsCounterSupplier the supplier of the counters used to record the cache's statistics
+   * @return this {@code CacheBuilder} instance (for chaining)
+   * @since 32.1.3
+   */
+  @CanIgnoreReturnValue
+  public CacheBuilder<K, V> recordStats(Supplier<? extends StatsCounter> statsCounterSupplier) {
+    this.statsCounterSupplier = checkNotNull(statsCounterSupplier);
+    return this;
+  }
+
   boolean isRecordingStats() {
-    return statsCounterSupplier == CACHE_STATS_COUNTER;
+    return statsCounterSupplier != NULL_STATS_COUNTER;
   }
 
   Supplier<? extends StatsCounter> getStatsCounterSupplier() {
@@ -1030,6 +1334,11 @@ public final class CacheBuilder<K, V> {
   public <K1 extends K, V1 extends V> LoadingCache<K1, V1> build(
       CacheLoader<? super K1, V1> loader) {
     checkWeightWithWeigher();
+    checkOffHeapTier();
+    if (batchWindowNanos != UNSET_INT) {
+      return new LocalCache.LocalLoadingCache<>(
+          this, new BatchingCacheLoader<>(loader, batchWindowNanos, maximumBatchSize));
+    }
     return new LocalCache.LocalLoadingCache<>(this, loader);
   }
 
@@ -1048,11 +1357,90 @@ public final class CacheBuilder<K, V> {
   public <K1 extends K, V1 extends V> Cache<K1, V1> build() {
     checkWeightWithWeigher();
     checkNonLoadingCache();
+    checkOffHeapTier();
     return new LocalCache.LocalManualCache<>(this);
   }
 
+  /**
+   * Builds a cache which loads values asynchronously using the supplied {@code AsyncFunction}, and
+   * stores the resulting futures. A request for a key that is absent from the cache starts a load
+   * and returns its future without waiting for it; concurrent requests for a key that is already
+   * loading share the same future.
+   *
+   * <p>The {@linkplain #removalListener removal listener} is only notified of entries whose future
+   * completed successfully, and receives the value of that future.
+   *
+   * <p>This method does not alter the state of this {@code CacheBuilder} instance, so it can be
+   * invoked again to create multiple independent caches.
+   *
+   * @param loader the function used to start loading new values
+   * @return a cache having the requested features
+   * @throws IllegalStateException if {@link #weigher}, {@link #weakValues}, {@link
+   *     #refreshAfterWrite}, {@link #batchLoads}, {@link #expireAfter} or {@link #offHeapTier} was
+   *     specified, as these do not apply to values that may not be loaded yet
+   * @since 32.1.3
+   */
+  @GwtIncompatible // AsyncLoadingCache
+  public <K1 extends K, V1 extends V> AsyncLoadingCache<K1, V1> buildAsync(
+      AsyncFunction<? super K1, V1> loader) {
+    checkWeightWithWeigher();
+    checkState(weigher == null, "weigher is not supported by buildAsync");
+    checkState(valueStrength != Strength.WEAK, "weakValues is not supported by buildAsync");
+    checkState(refreshNanos == UNSET_INT, "refreshAfterWrite is not supported by buildAsync");
+    checkState(batchWindowNanos == UNSET_INT, "batchLoads is not supported by buildAsync");
+    checkState(expiry == null, "expireAfter is not supported by buildAsync");
+    checkState(offHeapCodec == null, "offHeapTier is not supported by buildAsync");
+    checkNotNull(loader);
+    return new LocalCache.LocalAsyncLoadingCache<>(this.<K1, V1>forFutureValues(), loader);
+  }
+
+  /**
+   * Returns a copy of this builder's configuration for a cache whose values are futures of this
+   * builder's values. The removal listener is adapted to receive the futures' values.
+   */
+  @GwtIncompatible // ListenableFuture
+  <K1 extends K, V1 extends V> CacheBuilder<K1, ListenableFuture<V1>> forFutureValues() {
+    CacheBuilder<K1, ListenableFuture<V1>> copy = new CacheBuilder<>();
+    copy.strictParsing = strictParsing;
+    copy.initialCapacity = initialCapacity;
+    copy.concurrencyLevel = concurrencyLevel;
+    copy.maximumSize = maximumSize;
+    copy.evictionPolicy = evictionPolicy;
+    copy.keyStrength = keyStrength;
+    copy.valueStrength = valueStrength;
+    copy.expireAfterWriteNanos = expireAfterWriteNanos;
+    copy.expireAfterAccessNanos = expireAfterAccessNanos;
+    copy.keyEquivalence = keyEquivalence;
+    copy.valueEquivalence = valueEquivalence;
+    copy.ticker = ticker;
+    copy.executor = executor;
+    copy.scheduler = scheduler;
+    copy.statsCounterSupplier = statsCounterSupplier;
+    if (removalListener != null) {
+      copy.removalListener =
+          new LocalCache.FutureRemovalListener<>(this.<K1, V1>getRemovalListener());
+    }
+    return copy;
+  }
+
   private void checkNonLoadingCache() {
     checkState(refreshNanos == UNSET_INT, "refreshAfterWrite requires a LoadingCache");
+    checkState(batchWindowNanos == UNSET_INT, "batchLoads requires a LoadingCache");
+  }
+
+  private void checkOffHeapTier() {
+    if (offHeapCodec != null) {
+      checkState(
+          maximumSize != UNSET_INT || maximumWeight != UNSET_INT,
+          "offHeapTier requires maximumSize or maximumWeight");
+      checkState(
+          keyStrength == null || keyStrength == Strength.STRONG,
+          "offHeapTier may not be used with weakKeys");
+      checkState(
+          valueStrength == null || valueStrength == Strength.STRONG,
+          "offHeapTier may not be used with weakValues or softValues");
+      checkState(expiry == null, "offHeapTier may not be used with expireAfter");
+    }
   }
 
   private void checkWeightWithWeigher() {
@@ -1089,12 +1477,25 @@ public final class CacheBuilder<K, V> {
     if (maximumWeight != UNSET_INT) {
       s.add("maximumWeight", maximumWeight);
     }
+    if (evictionPolicy != null) {
+      s.add("evictionPolicy", evictionPolicy);
+    }
     if (expireAfterWriteNanos != UNSET_INT) {
       s.add("expireAfterWrite", expireAfterWriteNanos + "ns");
     }
     if (expireAfterAccessNanos != UNSET_INT) {
       s.add("expireAfterAccess", expireAfterAccessNanos + "ns");
     }
+    if (expiry != null) {
+      s.add("expiry", expiry);
+    }
+    if (offHeapCodec != null) {
+      s.add("offHeapMaximumBytes", offHeapMaximumBytes);
+    }
+    if (batchWindowNanos != UNSET_INT) {
+      s.add("batchWindow", batchWindowNanos + "ns");
+      s.add("maximumBatchSize", maximumBatchSize);
+    }
     if (keyStrength != null) {
       s.add("keyStrength", Ascii.toLowerCase(keyStrength.toString()));
     }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.base.MoreObjects;
+import page.foliage.guava.common.primitives.ImmutableLongArray;
+
+/**
+ * A snapshot of the metrics recorded by a {@link CacheMetricsRecorder}. Instances of this class are
+ * immutable.
+ *
+ * <p>In addition to the {@linkplain #stats statistics} of {@link Cache#stats}, a snapshot holds the
+ * number of removals by {@link RemovalCause}, the total weight of the cache's entries, a histogram
+ * of load latencies and the time spent waiting for the cache's internal locks. As the recorder's
+ * counters are read without locking the cache, a snapshot may be an inconsistent view if it is
+ * taken concurrently with cache operations.
+ *
+ * @since 32.1.3
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class CacheMetrics {
+  /** The number of bits of a latency that are distinguished within each power of two. */
+  static final int SUB_BUCKET_BITS = 3;
+
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** The number of buckets needed to cover every non-negative latency. */
+  static final int LATENCY_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final CacheStats stats;
+  private final ImmutableLongArray removalCounts;
+  private final long weightedSize;
+  private final ImmutableLongArray loadLatencies;
+  private final long lockWaitCount;
+  private final ImmutableLongArray segmentLockWaitTimes;
+
+  CacheMetrics(
+      CacheStats stats,
+      ImmutableLongArray removalCounts,
+      long weightedSize,
+      ImmutableLongArray loadLatencies,
+      long lockWaitCount,
+      ImmutableLongArray segmentLockWaitTimes) {
+    this.stats = checkNotNull(stats);
+    this.removalCounts = checkNotNull(removalCounts);
+    this.weightedSize = weightedSize;
+    this.loadLatencies = checkNotNull(loadLatencies);
+    this.lockWaitCount = lockWaitCount;
+    this.segmentLockWaitTimes = checkNotNull(segmentLockWaitTimes);
+  }
+
+  /** Returns the statistics that {@link Cache#stats} reports for the cache. */
+  public CacheStats stats() {
+    return stats;
+  }
+
+  /**
+   * Returns the number of entries that were removed from the cache for the given {@code cause}.
+   * Unlike {@link CacheStats#evictionCount}, this also counts explicit removals and replacements.
+   */
+  public long removalCount(RemovalCause cause) {
+    return removalCounts.get(cause.ordinal());
+  }
+
+  /**
+   * Returns the total weight of the entries in the cache, which is the number of entries unless a
+   * {@link Weigher} is used. Entries that have been collected or have expired, but have not yet
+   * been cleaned up, are included.
+   */
+  public long weightedSize() {
+    return weightedSize;
+  }
+
+  /**
+   * Returns an approximation of the given quantile of the durations of successful and failed loads,
+   * in nanoseconds, or zero if no loads have been recorded. Load durations are recorded in a
+   * histogram whose buckets divide each power of two into eight, so the returned value exceeds the
+   * exact quantile by at most an eighth of its magnitude.
+   *
+   * @param quantile the quantile to return, such as {@code 0.5} for the median or {@code 0.99} for
+   *     the 99th percentile
+   * @throws IllegalArgumentException if {@code quantile} is not between 0 and 1, inclusive
+   */
+  @SuppressWarnings("GoodTime") // should return a java.time.Duration
+  public long loadLatencyQuantile(double quantile) {
+    checkArgument(quantile >= 0.0 && quantile <= 1.0, "quantile must be in [0, 1]: %s", quantile);
+    long total = 0;
+    for (int i = 0; i < loadLatencies.length(); i++) {
+      total += loadLatencies.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < loadLatencies.length(); i++) {
+      seen += loadLatencies.get(i);
+      if (seen >= rank) {
+        return bucketUpperBound(i);
+      }
+    }
+    return bucketUpperBound(loadLatencies.length() - 1);
+  }
+
+  /** Returns the number of times a thread had to wait to acquire one of the cache's locks. */
+  public long lockWaitCount() {
+    return lockWaitCount;
+  }
+
+  /** Returns the total number of nanoseconds that threads spent waiting for the cache's locks. */
+  @SuppressWarnings("GoodTime") // should return a java.time.Duration
+  public long totalLockWaitTime() {
+    long total = 0;
+    for (int i = 0; i < segmentLockWaitTimes.length(); i++) {
+      total += segmentLockWaitTimes.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * Returns the total lock wait time recorded by each of the counters supplied by the recorder, in
+   * nanoseconds and in the order the counters were supplied. A cache built by {@link CacheBuilder}
+   * obtains one counter for each of its segments, preceded by a counter for operations that are not
+   * attributed to a segment. Contention that is concentrated on a few segments suggests that the
+   * keys hash poorly, or that a few keys are very hot.
+   */
+  public ImmutableLongArray segmentLockWaitTimes() {
+    return segmentLockWaitTimes;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("stats", stats)
+        .add("weightedSize", weightedSize)
+        .add("loadLatencyMedian", loadLatencyQuantile(0.5))
+        .add("loadLatencyP99", loadLatencyQuantile(0.99))
+        .add("lockWaitCount", lockWaitCount)
+        .add("totalLockWaitTime", totalLockWaitTime())
+        .toString();
+  }
+
+  /** Returns the index of the histogram bucket that holds {@code nanos}. */
+  static int bucketIndex(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) Math.max(nanos, 0);
+    }
+    int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(nanos);
+    int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /** Returns the largest latency held by the histogram bucket at {@code index}. */
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+}
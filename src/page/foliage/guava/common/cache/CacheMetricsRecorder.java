@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.base.Supplier;
+import page.foliage.guava.common.cache.AbstractCache.SimpleStatsCounter;
+import page.foliage.guava.common.cache.AbstractCache.StatsCounter;
+import page.foliage.guava.common.primitives.ImmutableLongArray;
+
+/**
+ * Records detailed metrics of a cache, beyond those of {@link CacheStats}. A recorder is installed
+ * by passing it to {@link CacheBuilder#recordStats(Supplier)}, after which {@link #snapshot} may be
+ * called at any time, for example by a periodic metrics exporter:
+ *
+ * <pre>{@code
+ * CacheMetricsRecorder recorder = new CacheMetricsRecorder();
+ * LoadingCache<Key, Graph> graphs = CacheBuilder.newBuilder()
+ *     .maximumSize(10000)
+ *     .recordStats(recorder)
+ *     .build(loader);
+ * ...
+ * CacheMetrics metrics = recorder.snapshot();
+ * report(metrics.loadLatencyQuantile(0.99), metrics.removalCount(RemovalCause.SIZE));
+ * }</pre>
+ *
+ * <p>The cache obtains a separate counter for each of its segments, so that threads operating on
+ * different segments do not contend on the same counters. Taking a snapshot reads these counters
+ * without locking the cache. A recorder should be used by a single cache, as the snapshot otherwise
+ * combines the metrics of every cache it was installed in.
+ *
+ * @since 32.1.3
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class CacheMetricsRecorder implements Supplier<StatsCounter> {
+  private final List<MetricsCounter> counters = new CopyOnWriteArrayList<>();
+
+  /** Constructs a recorder which has not yet supplied any counters. */
+  public CacheMetricsRecorder() {}
+
+  /** Returns a new counter, whose metrics are included in subsequent snapshots. */
+  @Override
+  public StatsCounter get() {
+    MetricsCounter counter = new MetricsCounter();
+    counters.add(counter);
+    return counter;
+  }
+
+  /** Returns a snapshot of the metrics recorded by every counter supplied by this recorder. */
+  public CacheMetrics snapshot() {
+    SimpleStatsCounter stats = new SimpleStatsCounter();
+    long[] removalCounts = new long[RemovalCause.values().length];
+    long weightedSize = 0;
+    long[] loadLatencies = new long[CacheMetrics.LATENCY_BUCKETS];
+    long lockWaitCount = 0;
+    ImmutableLongArray.Builder segmentLockWaitTimes =
+        ImmutableLongArray.builder(counters.size());
+    for (MetricsCounter counter : counters) {
+      stats.incrementBy(counter.stats);
+      for (int i = 0; i < removalCounts.length; i++) {
+        removalCounts[i] += counter.removalCounts[i].sum();
+      }
+      weightedSize += counter.weightedSize.sum();
+      for (int i = 0; i < loadLatencies.length; i++) {
+        loadLatencies[i] += counter.loadLatencies.get(i);
+      }
+      lockWaitCount += counter.lockWaitCount.sum();
+      segmentLockWaitTimes.add(counter.totalLockWaitTime.sum());
+    }
+    return new CacheMetrics(
+        stats.snapshot(),
+        ImmutableLongArray.copyOf(removalCounts),
+        weightedSize,
+        ImmutableLongArray.copyOf(loadLatencies),
+        lockWaitCount,
+        segmentLockWaitTimes.build());
+  }
+
+  private static final class MetricsCounter implements StatsCounter {
+    final SimpleStatsCounter stats = new SimpleStatsCounter();
+    final LongAddable[] removalCounts = new LongAddable[RemovalCause.values().length];
+    final LongAddable weightedSize = LongAddables.create();
+    final AtomicLongArray loadLatencies = new AtomicLongArray(CacheMetrics.LATENCY_BUCKETS);
+    final LongAddable lockWaitCount = LongAddables.create();
+    final LongAddable totalLockWaitTime = LongAddables.create();
+
+    MetricsCounter() {
+      for (int i = 0; i < removalCounts.length; i++) {
+        removalCounts[i] = LongAddables.create();
+      }
+    }
+
+    @Override
+    public void recordHits(int count) {
+      stats.recordHits(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+      stats.recordMisses(count);
+    }
+
+    @SuppressWarnings("GoodTime") // b/122668874
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+      stats.recordLoadSuccess(loadTime);
+      loadLatencies.incrementAndGet(CacheMetrics.bucketIndex(loadTime));
+    }
+
+    @SuppressWarnings("GoodTime") // b/122668874
+    @Override
+    public void recordLoadException(long loadTime) {
+      stats.recordLoadException(loadTime);
+      loadLatencies.incrementAndGet(CacheMetrics.bucketIndex(loadTime));
+    }
+
+    @Override
+    public void recordEviction() {
+      stats.recordEviction();
+    }
+
+    @Override
+    public void recordAdmissionRejection() {
+      stats.recordAdmissionRejection();
+    }
+
+    @Override
+    public void recordWrite(int weight) {
+      weightedSize.add(weight);
+    }
+
+    @Override
+    public void recordRemoval(RemovalCause cause, int weight) {
+      removalCounts[cause.ordinal()].increment();
+      weightedSize.add(-weight);
+    }
+
+    @SuppressWarnings("GoodTime") // b/122668874
+    @Override
+    public void recordLockWait(long waitTime) {
+      lockWaitCount.increment();
+      totalLockWaitTime.add(waitTime);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+      return stats.snapshot();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * Writes the keys and values of a cache's entries to a {@linkplain CacheSnapshots snapshot}, and
+ * reads them back. Each read method must consume exactly the bytes written by the corresponding
+ * write method.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @see CacheSnapshots
+ * @since 32.1.3
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public interface CacheSerializer<K, V> {
+
+  /** Writes {@code key} to {@code out}. */
+  void writeKey(K key, DataOutput out) throws IOException;
+
+  /** Writes {@code value} to {@code out}. */
+  void writeValue(V value, DataOutput out) throws IOException;
+
+  /** Reads a key written by {@link #writeKey} from {@code in}. */
+  K readKey(DataInput in) throws IOException;
+
+  /** Reads a value written by {@link #writeValue} from {@code in}. */
+  V readValue(DataInput in) throws IOException;
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+import static page.foliage.guava.common.math.LongMath.saturatedAdd;
+import static page.foliage.guava.common.math.LongMath.saturatedSubtract;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.cache.LocalCache.LocalManualCache;
+import page.foliage.guava.common.cache.LocalCache.Segment;
+
+/**
+ * Static methods that save the entries of a cache to a stream, and restore them into another cache,
+ * typically so that a restarted process does not begin with a cold cache.
+ *
+ * <p>A snapshot holds the key and value of each live entry, serialized by a {@link
+ * CacheSerializer}, along with the age of its last write and last access and the time remaining
+ * before it expires. Since the ticker of a cache is only meaningful within a process, these times
+ * are recorded relative to the wall-clock time at which the snapshot was taken. When a snapshot is
+ * read, the time that has elapsed since it was written is added to the age of each entry, so that
+ * entries expire when they would have in the original cache, and entries that have expired in the
+ * meantime are skipped. Within each segment of the cache, entries are written from the least to
+ * the most recently accessed, and so keep their relative recency once restored.
+ *
+ * <p>Taking a snapshot does not block the cache for longer than it takes to list the entries of a
+ * segment; keys and values are serialized without holding any lock. As a consequence, a snapshot
+ * of a cache that is concurrently modified may include some modifications but not others.
+ *
+ * @since 32.1.3
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class CacheSnapshots {
+  private CacheSnapshots() {}
+
+  /** The first bytes of every snapshot. */
+  static final int MAGIC = 0x47435331; // "GCS1"
+
+  static final int VERSION = 1;
+
+  /** Marks a time that was not recorded by the cache from which the snapshot was taken. */
+  static final long UNKNOWN = Long.MAX_VALUE;
+
+  /**
+   * Writes a snapshot of the entries of {@code cache} to {@code out}, which is flushed but not
+   * closed.
+   *
+   * @throws IllegalArgumentException if {@code cache} was not built by {@link CacheBuilder}
+   * @throws IOException if an I/O error occurs, or if {@code serializer} throws
+   */
+  public static <K, V> void write(
+      Cache<K, V> cache, OutputStream out, CacheSerializer<? super K, ? super V> serializer)
+      throws IOException {
+    LocalCache<K, V> map = localCache(cache);
+    checkNotNull(serializer);
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    data.writeLong(System.currentTimeMillis());
+
+    for (Segment<K, V> segment : map.segments) {
+      for (ReferenceEntry<K, V> entry : segment.entriesInAccessOrder()) {
+        // read the times first, so that a value replaced concurrently is recorded as older than it
+        // is, and never as younger
+        long now = map.ticker.read();
+        long writeAge = map.recordsWrite() ? now - entry.getWriteTime() : UNKNOWN;
+        long accessAge = map.recordsAccess() ? now - entry.getAccessTime() : UNKNOWN;
+        long remaining = map.expiresVariably() ? entry.getExpirationTime() - now : UNKNOWN;
+        K key = entry.getKey();
+        V value = map.getLiveValue(entry, now);
+        if (key == null || value == null) {
+          continue;
+        }
+
+        data.writeBoolean(true);
+        serializer.writeKey(key, data);
+        serializer.writeValue(value, data);
+        data.writeLong(writeAge);
+        data.writeLong(accessAge);
+        data.writeLong(remaining);
+      }
+    }
+    data.writeBoolean(false);
+    data.flush();
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write} from {@code in}, and adds its entries to {@code
+   * cache}. Entries that have expired since the snapshot was written, and entries whose keys are
+   * already present in {@code cache}, are skipped. The stream is not closed, but may have been read
+   * beyond the end of the snapshot.
+   *
+   * <p>The entries are added as if they had been written to {@code cache} at the times recorded in
+   * the snapshot. Times that the original cache did not record, for example because it did not
+   * expire entries after access, are taken to be the time of this call. Restored entries count
+   * towards the maximum size of {@code cache}, and so may be evicted if the snapshot holds more
+   * entries than {@code cache} can.
+   *
+   * @return the number of entries that were added to {@code cache}
+   * @throws IllegalArgumentException if {@code cache} was not built by {@link CacheBuilder}
+   * @throws IOException if an I/O error occurs, if the stream does not hold a snapshot, or if
+   *     {@code serializer} throws
+   */
+  @CanIgnoreReturnValue
+  public static <K, V> int read(
+      Cache<K, V> cache, InputStream in, CacheSerializer<? extends K, ? extends V> serializer)
+      throws IOException {
+    LocalCache<K, V> map = localCache(cache);
+    checkNotNull(serializer);
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Stream does not hold a cache snapshot");
+    }
+    int version = data.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported cache snapshot version: " + version);
+    }
+    long elapsed = MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - data.readLong()));
+
+    int restored = 0;
+    while (data.readBoolean()) {
+      K key = checkNotNull(serializer.readKey(data));
+      V value = checkNotNull(serializer.readValue(data));
+      long writeAge = data.readLong();
+      long accessAge = data.readLong();
+      long remaining = data.readLong();
+
+      long now = map.ticker.read();
+      long writeTime = now;
+      if (writeAge != UNKNOWN) {
+        writeAge = saturatedAdd(writeAge, elapsed);
+        if (map.expiresAfterWrite() && writeAge >= map.expireAfterWriteNanos) {
+          continue;
+        }
+        writeTime = now - Math.min(writeAge, LocalCache.MAXIMUM_EXPIRY_NANOS);
+      }
+      long accessTime = now;
+      if (accessAge != UNKNOWN) {
+        accessAge = saturatedAdd(accessAge, elapsed);
+        if (map.expiresAfterAccess() && accessAge >= map.expireAfterAccessNanos) {
+          continue;
+        }
+        accessTime = now - Math.min(accessAge, LocalCache.MAXIMUM_EXPIRY_NANOS);
+      }
+      long expirationTime = UNKNOWN;
+      if (remaining != UNKNOWN) {
+        remaining = saturatedSubtract(remaining, elapsed);
+        if (map.expiresVariably() && remaining <= 0) {
+          continue;
+        }
+        expirationTime = LocalCache.expirationTime(now, remaining);
+      }
+
+      int hash = map.hash(key);
+      if (map.segmentFor(hash).restore(key, hash, value, writeTime, accessTime, expirationTime)) {
+        restored++;
+      }
+    }
+    return restored;
+  }
+
+  private static <K, V> LocalCache<K, V> localCache(Cache<K, V> cache) {
+    checkArgument(
+        cache instanceof LocalManualCache,
+        "Snapshots are only supported for caches built by CacheBuilder: %s",
+        cache);
+    return ((LocalManualCache<K, V>) cache).localCache;
+  }
+}
@@ -46,6 +46,8 @@ import page.foliage.guava.common.base.Objects;
  *             missCount}.
  *       </ul>
  *   <li>When an entry is evicted from the cache, {@code evictionCount} is incremented.
+ *   <li>When a newly written entry is rejected by the cache's admission policy, both {@code
+ *       evictionCount} and {@code admissionRejectionCount} are incremented.
  *   <li>No stats are modified when a cache entry is invalidated or manually removed.
  *   <li>No stats are modified by operations invoked on the {@linkplain Cache#asMap asMap} view of
  *       the cache.
@@ -70,6 +72,7 @@ public final class CacheStats {
   private final long totalLoadTime;
 
   private final long evictionCount;
+  private final long admissionRejectionCount;
 
   /**
    * Constructs a new {@code CacheStats} instance.
@@ -85,12 +88,38 @@ public final class CacheStats {
       long loadExceptionCount,
       long totalLoadTime,
       long evictionCount) {
+    this(
+        hitCount,
+        missCount,
+        loadSuccessCount,
+        loadExceptionCount,
+        totalLoadTime,
+        evictionCount,
+        0);
+  }
+
+  /**
+   * Constructs a new {@code CacheStats} instance that also reports the number of entries rejected
+   * by the cache's admission policy.
+   *
+   * @since 32.1.3
+   */
+  @SuppressWarnings("GoodTime") // should accept a java.time.Duration
+  public CacheStats(
+      long hitCount,
+      long missCount,
+      long loadSuccessCount,
+      long loadExceptionCount,
+      long totalLoadTime,
+      long evictionCount,
+      long admissionRejectionCount) {
     checkArgument(hitCount >= 0);
     checkArgument(missCount >= 0);
     checkArgument(loadSuccessCount >= 0);
     checkArgument(loadExceptionCount >= 0);
     checkArgument(totalLoadTime >= 0);
     checkArgument(evictionCount >= 0);
+    checkArgument(admissionRejectionCount >= 0);
 
     this.hitCount = hitCount;
     this.missCount = missCount;
@@ -98,6 +127,7 @@ public final class CacheStats {
     this.loadExceptionCount = loadExceptionCount;
     this.totalLoadTime = totalLoadTime;
     this.evictionCount = evictionCount;
+    this.admissionRejectionCount = admissionRejectionCount;
   }
 
   /**
@@ -237,6 +267,18 @@ public final class CacheStats {
     return evictionCount;
   }
 
+  /**
+   * Returns the number of times a newly written entry was discarded by the cache's admission
+   * policy, because it was estimated to be less frequently used than the entry it would have
+   * replaced. Each rejection is also counted by {@link #evictionCount}. This is always zero unless
+   * the cache was built with {@link EvictionPolicy#WINDOW_TINY_LFU}.
+   *
+   * @since 32.1.3
+   */
+  public long admissionRejectionCount() {
+    return admissionRejectionCount;
+  }
+
   /**
    * Returns a new {@code CacheStats} representing the difference between this {@code CacheStats}
    * and {@code other}. Negative values, which aren't supported by {@code CacheStats} will be
@@ -249,7 +291,8 @@ public final class CacheStats {
         Math.max(0, saturatedSubtract(loadSuccessCount, other.loadSuccessCount)),
         Math.max(0, saturatedSubtract(loadExceptionCount, other.loadExceptionCount)),
         Math.max(0, saturatedSubtract(totalLoadTime, other.totalLoadTime)),
-        Math.max(0, saturatedSubtract(evictionCount, other.evictionCount)));
+        Math.max(0, saturatedSubtract(evictionCount, other.evictionCount)),
+        Math.max(0, saturatedSubtract(admissionRejectionCount, other.admissionRejectionCount)));
   }
 
   /**
@@ -269,13 +312,20 @@ public final class CacheStats {
         saturatedAdd(loadSuccessCount, other.loadSuccessCount),
         saturatedAdd(loadExceptionCount, other.loadExceptionCount),
         saturatedAdd(totalLoadTime, other.totalLoadTime),
-        saturatedAdd(evictionCount, other.evictionCount));
+        saturatedAdd(evictionCount, other.evictionCount),
+        saturatedAdd(admissionRejectionCount, other.admissionRejectionCount));
   }
 
   @Override
   public int hashCode() {
     return Objects.hashCode(
-        hitCount, missCount, loadSuccessCount, loadExceptionCount, totalLoadTime, evictionCount);
+        hitCount,
+        missCount,
+        loadSuccessCount,
+        loadExceptionCount,
+        totalLoadTime,
+        evictionCount,
+        admissionRejectionCount);
   }
 
   @Override
@@ -287,7 +337,8 @@ public final class CacheStats {
           && loadSuccessCount == other.loadSuccessCount
           && loadExceptionCount == other.loadExceptionCount
           && totalLoadTime == other.totalLoadTime
-          && evictionCount == other.evictionCount;
+          && evictionCount == other.evictionCount
+          && admissionRejectionCount == other.admissionRejectionCount;
     }
     return false;
   }
@@ -301,6 +352,7 @@ public final class CacheStats {
         .add("loadExceptionCount", loadExceptionCount)
         .add("totalLoadTime", totalLoadTime)
         .add("evictionCount", evictionCount)
+        .add("admissionRejectionCount", admissionRejectionCount)
         .toString();
   }
 }
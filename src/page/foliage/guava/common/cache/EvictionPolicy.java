@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import page.foliage.guava.common.annotations.GwtCompatible;
+
+/**
+ * The page replacement algorithm a cache uses to choose which entry to evict once its {@linkplain
+ * CacheBuilder#maximumSize(long) maximum size} or {@linkplain CacheBuilder#maximumWeight(long)
+ * maximum weight} has been exceeded. Eviction is performed independently within each segment of the
+ * cache, as described in {@link CacheBuilder#concurrencyLevel}.
+ *
+ * @since 32.1.3
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+public enum EvictionPolicy {
+  /**
+   * Evicts the entry that was least recently read or written. This is the default policy. It
+   * performs well for workloads with strong temporal locality, but a single scan over more keys than
+   * the cache can hold will flush every frequently used entry.
+   */
+  LEAST_RECENTLY_USED,
+
+  /**
+   * Evicts according to the Window TinyLFU policy. New entries are written into a small admission
+   * window ordered by recency; an entry leaving the window is only admitted into the main region of
+   * the cache if its estimated access frequency is higher than that of the entry it would displace.
+   * Access frequencies are estimated by a compact, periodically aged count-min sketch, so that
+   * popular entries survive scans and one-hit wonders are discarded cheaply.
+   *
+   * <p>Entries that lose the admission contest are counted by {@link
+   * CacheStats#admissionRejectionCount}, in addition to being counted as evictions.
+   */
+  WINDOW_TINY_LFU,
+}
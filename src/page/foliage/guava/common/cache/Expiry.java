@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * Calculates when cache entries expire. A single expiration time is retained for each entry, so
+ * that the lifetime of an entry may be extended or shortened by any of these methods. Durations are
+ * expressed in nanoseconds, and times are read from the cache's {@linkplain CacheBuilder#ticker
+ * ticker}.
+ *
+ * <p>A returned duration of zero expires the entry immediately. Negative durations are treated as
+ * zero, and durations longer than approximately 146 years are treated as never expiring.
+ *
+ * <p>Implementations are invoked while holding locks of the cache and on the hot path of cache
+ * reads, so they should be fast and must not access the cache.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @see CacheBuilder#expireAfter
+ * @since 32.1.3
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public interface Expiry<K, V> {
+
+  /**
+   * Returns the duration after which the entry should be automatically removed once it has been
+   * created, either by an explicit write or by a load.
+   *
+   * @param key the key of the entry
+   * @param value the value of the entry
+   * @param currentTime the current time, in nanoseconds
+   * @return the length of time before the entry expires, in nanoseconds
+   */
+  @SuppressWarnings("GoodTime") // should return a java.time.Duration
+  long expireAfterCreate(K key, V value, long currentTime);
+
+  /**
+   * Returns the duration after which the entry should be automatically removed once its value has
+   * been replaced, either by an explicit write or by a refresh. The default implementation returns
+   * {@code currentDuration}, leaving the expiration time unchanged.
+   *
+   * @param key the key of the entry
+   * @param value the new value of the entry
+   * @param currentTime the current time, in nanoseconds
+   * @param currentDuration the remaining time before the entry would have expired, in nanoseconds
+   * @return the length of time before the entry expires, in nanoseconds
+   */
+  @SuppressWarnings("GoodTime") // should return a java.time.Duration
+  default long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+
+  /**
+   * Returns the duration after which the entry should be automatically removed once it has been
+   * read. The default implementation returns {@code currentDuration}, leaving the expiration time
+   * unchanged.
+   *
+   * @param key the key of the entry
+   * @param value the value of the entry
+   * @param currentTime the current time, in nanoseconds
+   * @param currentDuration the remaining time before the entry would have expired, in nanoseconds
+   * @return the length of time before the entry expires, in nanoseconds
+   */
+  @SuppressWarnings("GoodTime") // should return a java.time.Duration
+  default long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+    return currentDuration;
+  }
+}
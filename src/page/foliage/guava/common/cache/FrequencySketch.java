@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+
+import page.foliage.guava.common.annotations.GwtCompatible;
+import page.foliage.guava.common.math.IntMath;
+
+/**
+ * A probabilistic multiset for estimating the popularity of an element within a time window. The
+ * maximum frequency of an element is limited to 15 (4-bits) and an aging process periodically
+ * halves the popularity of all elements.
+ *
+ * <p>This is a count-min sketch in which each element is hashed to four counters, one in each of
+ * four (pseudo-randomly chosen) {@code long} words of the table. Each word holds sixteen 4-bit
+ * counters; the counter used within a word is selected from the element's hash so that the four
+ * counters of an element fall into distinct positions. The estimated frequency is the minimum of
+ * the four counters, which bounds the error introduced by hash collisions.
+ *
+ * <p>Once the number of increments reaches a sample size proportional to the table's capacity,
+ * every counter is halved. This lets the sketch track changes in the access pattern instead of
+ * accumulating an all-time history.
+ *
+ * <p>This class is not thread-safe; callers must provide their own synchronization.
+ */
+@GwtCompatible
+@ElementTypesAreNonnullByDefault
+final class FrequencySketch {
+  static final long[] SEED = { // A mixture of seeds from FNV-1a, CityHash, and Murmur3
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  static final long RESET_MASK = 0x7777777777777777L;
+  static final long ONE_MASK = 0x1111111111111111L;
+
+  /** The largest table that will be allocated, in words. */
+  static final int MAXIMUM_TABLE_LENGTH = 1 << 26;
+
+  int sampleSize;
+  int tableMask;
+  long[] table;
+  int size;
+
+  /** Creates a sketch able to estimate the frequency of {@code expectedSize} elements. */
+  FrequencySketch(int expectedSize) {
+    table = new long[0];
+    ensureCapacity(expectedSize);
+  }
+
+  /**
+   * Increases the capacity of this sketch so that it can accurately estimate the popularity of
+   * {@code expectedSize} elements. Growing the table discards all previously recorded frequencies.
+   */
+  void ensureCapacity(int expectedSize) {
+    checkArgument(expectedSize >= 0);
+    int maximum = Math.min(Math.max(expectedSize, 1), MAXIMUM_TABLE_LENGTH);
+    if (table.length >= maximum) {
+      return;
+    }
+
+    table = new long[IntMath.ceilingPowerOfTwo(maximum)];
+    tableMask = table.length - 1;
+    sampleSize = 10 * table.length;
+    size = 0;
+  }
+
+  /** Returns the estimated number of occurrences of an element with the given hash, up to 15. */
+  int frequency(int hash) {
+    int spread = spread(hash);
+    int start = (spread & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(spread, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Increments the popularity of an element with the given hash if it does not exceed the maximum
+   * (15). The popularity of all elements is periodically down sampled when the observed events
+   * exceed a threshold.
+   */
+  void increment(int hash) {
+    int spread = spread(hash);
+    int start = (spread & 3) << 2;
+
+    int index0 = indexOf(spread, 0);
+    int index1 = indexOf(spread, 1);
+    int index2 = indexOf(spread, 2);
+    int index3 = indexOf(spread, 3);
+
+    boolean added = incrementAt(index0, start);
+    added |= incrementAt(index1, start + 1);
+    added |= incrementAt(index2, start + 2);
+    added |= incrementAt(index3, start + 3);
+
+    if (added && (++size == sampleSize)) {
+      reset();
+    }
+  }
+
+  /**
+   * Increments the specified counter by 1 if it is not already at the maximum value (15).
+   *
+   * @param i the table index (16 counters)
+   * @param j the counter to increment
+   * @return if incremented
+   */
+  boolean incrementAt(int i, int j) {
+    int offset = j << 2;
+    long mask = (0xfL << offset);
+    if ((table[i] & mask) != mask) {
+      table[i] += (1L << offset);
+      return true;
+    }
+    return false;
+  }
+
+  /** Reduces every counter by half of its original value. */
+  void reset() {
+    int count = 0;
+    for (int i = 0; i < table.length; i++) {
+      count += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (count >>> 2);
+  }
+
+  /**
+   * Returns the table index for the counter at the specified depth.
+   *
+   * @param item the element's hash
+   * @param i the counter depth
+   * @return the table index
+   */
+  int indexOf(int item, int i) {
+    long hash = (item + SEED[i]) * SEED[i];
+    hash += (hash >>> 32);
+    return ((int) hash) & tableMask;
+  }
+
+  /**
+   * Applies a supplemental hash function to a given hash code. The cache's own hash has already
+   * been used to select a segment, so its upper bits are shared by every entry in a segment and
+   * must be remixed before indexing the sketch.
+   */
+  static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
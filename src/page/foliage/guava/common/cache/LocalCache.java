@@ -39,6 +39,7 @@ import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
@@ -47,12 +48,17 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Level;
@@ -81,6 +87,7 @@ import page.foliage.guava.common.cache.CacheBuilder.OneWeigher;
 import page.foliage.guava.common.cache.CacheLoader.InvalidCacheLoadException;
 import page.foliage.guava.common.cache.CacheLoader.UnsupportedLoadingOperationException;
 import page.foliage.guava.common.cache.LocalCache.LoadingValueReference;
+import page.foliage.guava.common.cache.OffHeapStore.Spilled;
 import page.foliage.guava.common.collect.AbstractSequentialIterator;
 import page.foliage.guava.common.collect.ImmutableMap;
 import page.foliage.guava.common.collect.ImmutableSet;
@@ -88,6 +95,7 @@ import page.foliage.guava.common.collect.Iterators;
 import page.foliage.guava.common.collect.Maps;
 import page.foliage.guava.common.collect.Sets;
 import page.foliage.guava.common.primitives.Ints;
+import page.foliage.guava.common.util.concurrent.AsyncFunction;
 import page.foliage.guava.common.util.concurrent.ExecutionError;
 import page.foliage.guava.common.util.concurrent.Futures;
 import page.foliage.guava.common.util.concurrent.ListenableFuture;
@@ -148,6 +156,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
    */
   static final int MAXIMUM_CAPACITY = 1 << 30;
 
+  /** The longest duration an {@link Expiry} may specify, approximately 146 years. */
+  static final long MAXIMUM_EXPIRY_NANOS = Long.MAX_VALUE >>> 1;
+
   /** The maximum number of segments to allow; used to bound constructor arguments. */
   static final int MAX_SEGMENTS = 1 << 16; // slightly conservative
 
@@ -155,9 +166,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   static final int CONTAINS_VALUE_RETRIES = 3;
 
   /**
-   * Number of cache access operations that can be buffered per segment before the cache's recency
-   * ordering information is updated. This is used to avoid lock contention by recording a memento
-   * of reads and delaying a lock acquisition until the threshold is crossed or a mutation occurs.
+   * Number of cache access operations per segment after which a read attempts routine cleanup,
+   * including draining the read buffer. This is used to avoid lock contention by recording a
+   * memento of reads and delaying a lock acquisition until the threshold is crossed, a stripe of the
+   * read buffer fills up or a mutation occurs.
    *
    * <p>This must be a (2^n)-1 as it is used as a mask.
    */
@@ -210,6 +222,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   /** Weigher to weigh cache entries. */
   final Weigher<K, V> weigher;
 
+  /** The page replacement algorithm used to select entries for size-based eviction. */
+  final EvictionPolicy evictionPolicy;
+
   /** How long after the last access to an entry the map will retain that entry. */
   final long expireAfterAccessNanos;
 
@@ -219,6 +234,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   /** How long after the last write an entry becomes a candidate for refresh. */
   final long refreshNanos;
 
+  /** Computes the expiration time of each entry, or null if expiration is not variable. */
+  @CheckForNull final Expiry<K, V> expiry;
+
   /** Entries waiting to be consumed by the removal listener. */
   // TODO(fry): define a new type which creates event objects and automates the clear logic
   final Queue<RemovalNotification<K, V>> removalNotificationQueue;
@@ -244,6 +262,18 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   /** The default cache loader to use on loading operations. */
   @CheckForNull final CacheLoader<? super K, V> defaultLoader;
 
+  /**
+   * Runs maintenance triggered by reads and delivers removal notifications, or null if these are
+   * performed by the calling thread.
+   */
+  @CheckForNull final Executor executor;
+
+  /** Holds the serialized values of entries evicted for size, or null if they are discarded. */
+  @CheckForNull final OffHeapStore<K, V> offHeap;
+
+  /** Whether a task delivering removal notifications has been submitted to the executor. */
+  final AtomicBoolean notificationDeliveryScheduled = new AtomicBoolean();
+
   /**
    * Creates a new, empty map with the specified strategy, initial capacity and concurrency level.
    */
@@ -259,9 +289,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
     maxWeight = builder.getMaximumWeight();
     weigher = builder.getWeigher();
+    evictionPolicy = builder.getEvictionPolicy();
     expireAfterAccessNanos = builder.getExpireAfterAccessNanos();
     expireAfterWriteNanos = builder.getExpireAfterWriteNanos();
     refreshNanos = builder.getRefreshNanos();
+    expiry = builder.getExpiry();
 
     removalListener = builder.getRemovalListener();
     removalNotificationQueue =
@@ -273,6 +305,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     entryFactory = EntryFactory.getFactory(keyStrength, usesAccessEntries(), usesWriteEntries());
     globalStatsCounter = builder.getStatsCounterSupplier().get();
     defaultLoader = loader;
+    executor = builder.getExecutor();
+    ValueCodec<V> offHeapCodec = builder.getOffHeapCodec();
+    offHeap =
+        (offHeapCodec == null)
+            ? null
+            : new OffHeapStore<>(builder.getOffHeapMaximumBytes(), offHeapCodec);
 
     int initialCapacity = Math.min(builder.getInitialCapacity(), MAXIMUM_CAPACITY);
     if (evictsBySize() && !customWeigher()) {
@@ -323,6 +361,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
             createSegment(segmentSize, UNSET_INT, builder.getStatsCounterSupplier().get());
       }
     }
+
+    ScheduledExecutorService scheduler = builder.getScheduler();
+    if (scheduler != null && (expires() || usesKeyReferences() || usesValueReferences())) {
+      PeriodicCleanUp.schedule(this, scheduler);
+    }
   }
 
   boolean evictsBySize() {
@@ -333,8 +376,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     return weigher != OneWeigher.INSTANCE;
   }
 
+  boolean usesFrequencySketch() {
+    return evictsBySize() && evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU;
+  }
+
   boolean expires() {
-    return expiresAfterWrite() || expiresAfterAccess();
+    return expiresAfterWrite() || expiresAfterAccess() || expiresVariably();
   }
 
   boolean expiresAfterWrite() {
@@ -345,6 +392,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     return expireAfterAccessNanos > 0;
   }
 
+  boolean expiresVariably() {
+    return expiry != null;
+  }
+
   boolean refreshes() {
     return refreshNanos > 0;
   }
@@ -354,7 +405,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   }
 
   boolean usesWriteQueue() {
-    return expiresAfterWrite();
+    return expiresAfterWrite() || expiresVariably();
   }
 
   boolean recordsWrite() {
@@ -366,7 +417,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
   }
 
   boolean recordsTime() {
-    return recordsWrite() || recordsAccess();
+    return recordsWrite() || recordsAccess() || expiresVariably();
   }
 
   boolean usesWriteEntries() {
@@ -635,6 +686,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       // TODO(fry): when we link values instead of entries this method can go
       // away, as can connectAccessOrder, nullifyAccessOrder.
       newEntry.setAccessTime(original.getAccessTime());
+      newEntry.setAccessRegion(original.getAccessRegion());
 
       connectAccessOrder(original.getPreviousInAccessQueue(), newEntry);
       connectAccessOrder(newEntry, original.getNextInAccessQueue());
@@ -647,6 +699,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       // TODO(fry): when we link values instead of entries this method can go
       // away, as can connectWriteOrder, nullifyWriteOrder.
       newEntry.setWriteTime(original.getWriteTime());
+      newEntry.setExpirationTime(original.getExpirationTime());
 
       connectWriteOrder(original.getPreviousInWriteQueue(), newEntry);
       connectWriteOrder(newEntry, original.getNextInWriteQueue());
@@ -818,6 +871,14 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     @Override
     public void setPreviousInAccessQueue(ReferenceEntry<Object, Object> previous) {}
 
+    @Override
+    public int getAccessRegion() {
+      return 0;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {}
+
     @Override
     public long getWriteTime() {
       return 0;
@@ -826,6 +887,14 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     @Override
     public void setWriteTime(long time) {}
 
+    @Override
+    public long getExpirationTime() {
+      return 0;
+    }
+
+    @Override
+    public void setExpirationTime(long time) {}
+
     @Override
     public ReferenceEntry<Object, Object> getNextInWriteQueue() {
       return this;
@@ -899,6 +968,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public int getAccessRegion() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public long getWriteTime() {
       throw new UnsupportedOperationException();
@@ -909,6 +988,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public long getExpirationTime() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setExpirationTime(long time) {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public ReferenceEntry<K, V> getNextInWriteQueue() {
       throw new UnsupportedOperationException();
@@ -1065,6 +1154,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     public void setPreviousInAccessQueue(ReferenceEntry<K, V> previous) {
       this.previousAccess = previous;
     }
+
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
   }
 
   static final class StrongWriteEntry<K, V> extends StrongEntry<K, V> {
@@ -1086,6 +1188,18 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.writeTime = time;
     }
 
+    volatile long expirationTime = Long.MAX_VALUE;
+
+    @Override
+    public long getExpirationTime() {
+      return expirationTime;
+    }
+
+    @Override
+    public void setExpirationTime(long time) {
+      this.expirationTime = time;
+    }
+
     // Guarded By Segment.this
     @Weak ReferenceEntry<K, V> nextWrite = nullEntry();
 
@@ -1158,6 +1272,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.previousAccess = previous;
     }
 
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
+
     // The code below is exactly the same for each write entry type.
 
     volatile long writeTime = Long.MAX_VALUE;
@@ -1172,6 +1299,18 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.writeTime = time;
     }
 
+    volatile long expirationTime = Long.MAX_VALUE;
+
+    @Override
+    public long getExpirationTime() {
+      return expirationTime;
+    }
+
+    @Override
+    public void setExpirationTime(long time) {
+      this.expirationTime = time;
+    }
+
     // Guarded By Segment.this
     @Weak ReferenceEntry<K, V> nextWrite = nullEntry();
 
@@ -1249,6 +1388,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public int getAccessRegion() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      throw new UnsupportedOperationException();
+    }
+
     // null write
 
     @Override
@@ -1261,6 +1410,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public long getExpirationTime() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setExpirationTime(long time) {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public ReferenceEntry<K, V> getNextInWriteQueue() {
       throw new UnsupportedOperationException();
@@ -1353,6 +1512,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     public void setPreviousInAccessQueue(ReferenceEntry<K, V> previous) {
       this.previousAccess = previous;
     }
+
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
   }
 
   static final class WeakWriteEntry<K, V> extends WeakEntry<K, V> {
@@ -1375,6 +1547,18 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.writeTime = time;
     }
 
+    volatile long expirationTime = Long.MAX_VALUE;
+
+    @Override
+    public long getExpirationTime() {
+      return expirationTime;
+    }
+
+    @Override
+    public void setExpirationTime(long time) {
+      this.expirationTime = time;
+    }
+
     // Guarded By Segment.this
     @Weak ReferenceEntry<K, V> nextWrite = nullEntry();
 
@@ -1448,6 +1632,19 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.previousAccess = previous;
     }
 
+    // Guarded By Segment.this
+    int accessRegion;
+
+    @Override
+    public int getAccessRegion() {
+      return accessRegion;
+    }
+
+    @Override
+    public void setAccessRegion(int region) {
+      this.accessRegion = region;
+    }
+
     // The code below is exactly the same for each write entry type.
 
     volatile long writeTime = Long.MAX_VALUE;
@@ -1462,6 +1659,18 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.writeTime = time;
     }
 
+    volatile long expirationTime = Long.MAX_VALUE;
+
+    @Override
+    public long getExpirationTime() {
+      return expirationTime;
+    }
+
+    @Override
+    public void setExpirationTime(long time) {
+      this.expirationTime = time;
+    }
+
     // Guarded By Segment.this
     @Weak ReferenceEntry<K, V> nextWrite = nullEntry();
 
@@ -1813,9 +2022,20 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     if (expiresAfterWrite() && (now - entry.getWriteTime() >= expireAfterWriteNanos)) {
       return true;
     }
+    if (expiresVariably() && (now - entry.getExpirationTime() >= 0)) {
+      return true;
+    }
     return false;
   }
 
+  /**
+   * Returns the expiration time for a duration computed by the cache's {@link Expiry}, bounding
+   * the duration so that expiration times can be compared without overflow.
+   */
+  static long expirationTime(long now, long duration) {
+    return now + Math.max(0, Math.min(duration, MAXIMUM_EXPIRY_NANOS));
+  }
+
   // queues
 
   // Guarded By Segment.this
@@ -1850,6 +2070,26 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
    * evictEntry is called (once the lock is released).
    */
   void processPendingNotifications() {
+    if (executor == null) {
+      deliverPendingNotifications();
+    } else if (!removalNotificationQueue.isEmpty()
+        && notificationDeliveryScheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(
+            () -> {
+              // reset first, so that notifications queued while delivering schedule another task
+              notificationDeliveryScheduled.set(false);
+              deliverPendingNotifications();
+            });
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Exception thrown when submitting removal notifications", e);
+        notificationDeliveryScheduled.set(false);
+        deliverPendingNotifications();
+      }
+    }
+  }
+
+  void deliverPendingNotifications() {
     RemovalNotification<K, V> notification;
     while ((notification = removalNotificationQueue.poll()) != null) {
       try {
@@ -1860,6 +2100,46 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
   }
 
+  /**
+   * Periodically cleans up a cache on a scheduler. The task only weakly references the cache, and
+   * cancels itself once the cache has been garbage collected.
+   */
+  static final class PeriodicCleanUp implements Runnable {
+    /** The delay between scheduled cleanups. */
+    static final long PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    final WeakReference<LocalCache<?, ?>> cacheReference;
+    @CheckForNull volatile Future<?> future;
+
+    PeriodicCleanUp(LocalCache<?, ?> cache) {
+      this.cacheReference = new WeakReference<>(cache);
+    }
+
+    static void schedule(LocalCache<?, ?> cache, ScheduledExecutorService scheduler) {
+      PeriodicCleanUp task = new PeriodicCleanUp(cache);
+      task.future =
+          scheduler.scheduleWithFixedDelay(task, PERIOD_NANOS, PERIOD_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+      LocalCache<?, ?> cache = cacheReference.get();
+      if (cache == null) {
+        Future<?> future = this.future;
+        if (future != null) {
+          future.cancel(false);
+        }
+        return;
+      }
+      try {
+        cache.cleanUp();
+      } catch (RuntimeException e) {
+        // an exception would suppress all subsequent executions
+        logger.log(Level.WARNING, "Exception thrown during scheduled cache maintenance", e);
+      }
+    }
+  }
+
   @SuppressWarnings("unchecked")
   final Segment<K, V>[] newSegmentArray(int ssize) {
     return new Segment[ssize];
@@ -1949,11 +2229,15 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     @CheckForNull final ReferenceQueue<V> valueReferenceQueue;
 
     /**
-     * The recency queue is used to record which entries were accessed for updating the access
-     * list's ordering. It is drained as a batch operation when either the DRAIN_THRESHOLD is
-     * crossed or a write occurs on the segment.
+     * The read buffer is used to record which entries were accessed for updating the access list's
+     * ordering. It is drained as a batch operation when one of its stripes fills up, when the
+     * DRAIN_THRESHOLD is crossed, or when a write occurs on the segment. Reads are dropped rather
+     * than block when the buffer is contended.
      */
-    final Queue<ReferenceEntry<K, V>> recencyQueue;
+    @CheckForNull final StripedReadBuffer<ReferenceEntry<K, V>> readBuffer;
+
+    /** Applies the reads recorded in the read buffer to the access queue. */
+    final Consumer<ReferenceEntry<K, V>> readBufferDrainer = this::reorderRead;
 
     /**
      * A counter of the number of reads since the last write, used to drain queues on a small
@@ -1961,6 +2245,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
      */
     final AtomicInteger readCount = new AtomicInteger();
 
+    /** Whether a cleanup of this segment has been submitted to the cache's executor. */
+    final AtomicBoolean cleanUpScheduled = new AtomicBoolean();
+
     /**
      * A queue of elements currently in the map, ordered by write time. Elements are added to the
      * tail of the queue on write.
@@ -1992,18 +2279,39 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
       valueReferenceQueue = map.usesValueReferences() ? new ReferenceQueue<>() : null;
 
-      recencyQueue =
-          map.usesAccessQueue() ? new ConcurrentLinkedQueue<>() : LocalCache.discardingQueue();
+      readBuffer =
+          (map.usesAccessQueue() || map.expiresVariably()) ? new StripedReadBuffer<>() : null;
 
-      writeQueue = map.usesWriteQueue() ? new WriteQueue<>() : LocalCache.discardingQueue();
+      if (map.expiresVariably()) {
+        writeQueue = new TimerWheel<>(map.ticker.read());
+      } else {
+        writeQueue = map.usesWriteQueue() ? new WriteQueue<>() : LocalCache.discardingQueue();
+      }
 
-      accessQueue = map.usesAccessQueue() ? new AccessQueue<>() : LocalCache.discardingQueue();
+      if (map.usesFrequencySketch()) {
+        accessQueue = new WindowTinyLfuQueue<>(initialCapacity);
+      } else {
+        accessQueue = map.usesAccessQueue() ? new AccessQueue<>() : LocalCache.discardingQueue();
+      }
     }
 
     AtomicReferenceArray<ReferenceEntry<K, V>> newEntryArray(int size) {
       return new AtomicReferenceArray<>(size);
     }
 
+    /**
+     * Acquires the segment lock. If the lock is held by another thread, the time spent waiting for
+     * it is recorded as contention; uncontended acquisitions do not read the clock.
+     */
+    @Override
+    public void lock() {
+      if (!tryLock()) {
+        long start = System.nanoTime();
+        super.lock();
+        statsCounter.recordLockWait(System.nanoTime() - start);
+      }
+    }
+
     void initTable(AtomicReferenceArray<ReferenceEntry<K, V>> newTable) {
       this.threshold = newTable.length() * 3 / 4; // 0.75
       if (!map.customWeigher() && this.threshold == maxSegmentWeight) {
@@ -2050,6 +2358,13 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       int weight = map.weigher.weigh(key, value);
       checkState(weight >= 0, "Weights must be non-negative");
 
+      if (map.expiresVariably()) {
+        // set before publishing the value, so that readers never see a stale expiration time
+        setExpirationAfterWrite(entry, key, value, now);
+      }
+      if (map.offHeap != null) {
+        map.offHeap.discard(key);
+      }
       ValueReference<K, V> valueReference =
           map.valueStrength.referenceValue(this, entry, value, weight);
       entry.setValueReference(valueReference);
@@ -2083,6 +2398,13 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         }
 
         // at this point e is either null or expired;
+        if (map.offHeap != null) {
+          V value = promote(key, hash);
+          if (value != null) {
+            statsCounter.recordHits(1);
+            return value;
+          }
+        }
         return lockedGetOrLoad(key, hash, loader);
       } catch (ExecutionException ee) {
         Throwable cause = ee.getCause();
@@ -2104,7 +2426,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
           long now = map.ticker.read();
           ReferenceEntry<K, V> e = getLiveEntry(key, hash, now);
           if (e == null) {
-            return null;
+            return (map.offHeap == null) ? null : promote(key, hash);
           }
 
           V value = e.getValueReference().get();
@@ -2114,12 +2436,57 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
           }
           tryDrainReferenceQueues();
         }
-        return null;
+        return (map.offHeap == null) ? null : promote(key, hash);
       } finally {
         postReadCleanup();
       }
     }
 
+    /**
+     * Moves the value of {@code key} from the off-heap tier back into this segment, unless the
+     * segment already holds an entry for the key or the off-heap value has expired. Returns the
+     * promoted value, or null if there is none.
+     */
+    @CheckForNull
+    V promote(Object key, int hash) {
+      OffHeapStore<K, V> offHeap = checkNotNull(map.offHeap);
+      lock();
+      try {
+        long now = map.ticker.read();
+        preWriteCleanup(now);
+        if (getEntry(key, hash) != null) {
+          // any value written or loaded since the key was evicted supersedes the off-heap value
+          return null;
+        }
+
+        Spilled<K, V> spilled;
+        try {
+          spilled = offHeap.take(key);
+        } catch (RuntimeException e) {
+          logger.log(Level.WARNING, "Exception thrown by ValueCodec; value discarded", e);
+          return null;
+        }
+        if (spilled == null
+            || (map.expiresAfterAccess() && now - spilled.accessTime >= map.expireAfterAccessNanos)
+            || (map.expiresAfterWrite() && now - spilled.writeTime >= map.expireAfterWriteNanos)) {
+          return null;
+        }
+
+        put(spilled.key, hash, spilled.value, true);
+        if (map.recordsWrite()) {
+          // the entry was not written by this lookup, so its lifetime continues where it left off
+          ReferenceEntry<K, V> e = getEntry(key, hash);
+          if (e != null) {
+            e.setWriteTime(spilled.writeTime);
+          }
+        }
+        return spilled.value;
+      } finally {
+        unlock();
+        postWriteCleanup();
+      }
+    }
+
     V lockedGetOrLoad(K key, int hash, CacheLoader<? super K, V> loader) throws ExecutionException {
       ReferenceEntry<K, V> e;
       ValueReference<K, V> valueReference = null;
@@ -2289,6 +2656,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         if (newValue != null) {
           if (valueReference != null && newValue == valueReference.get()) {
             computingValueReference.set(newValue);
+            if (map.expiresVariably()) {
+              setExpirationAfterWrite(e, key, newValue, now);
+            }
             e.setValueReference(valueReference);
             recordWrite(e, 0, now); // no change in weight
             return newValue;
@@ -2540,12 +2910,12 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       while (valueReferenceQueue.poll() != null) {}
     }
 
-    // recency queue, shared by expiration and eviction
+    // read buffer, shared by expiration and eviction
 
     /**
      * Records the relative order in which this read was performed by adding {@code entry} to the
-     * recency queue. At write-time, or when the queue is full past the threshold, the queue will be
-     * drained and the entries therein processed.
+     * read buffer. At write-time, or when the buffer is full, the buffer will be drained and the
+     * entries therein processed.
      *
      * <p>Note: locked reads should use {@link #recordLockedRead}.
      */
@@ -2553,7 +2923,16 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       if (map.recordsAccess()) {
         entry.setAccessTime(now);
       }
-      recencyQueue.add(entry);
+      if (map.expiresVariably()) {
+        setExpirationAfterRead(entry, now);
+      }
+      if (readBuffer != null && readBuffer.offer(entry) == StripedReadBuffer.FULL) {
+        if (map.executor == null) {
+          tryDrainReadBuffer();
+        } else {
+          scheduleCleanUp(map.executor);
+        }
+      }
     }
 
     /**
@@ -2569,6 +2948,40 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         entry.setAccessTime(now);
       }
       accessQueue.add(entry);
+      if (map.expiresVariably()) {
+        setExpirationAfterRead(entry, now);
+        writeQueue.add(entry);
+      }
+    }
+
+    /**
+     * Sets the expiration time of {@code entry}, whose value is being created or replaced, as
+     * computed by the cache's {@link Expiry}. The timer wheel is updated by {@link #recordWrite}.
+     */
+    @GuardedBy("this")
+    void setExpirationAfterWrite(ReferenceEntry<K, V> entry, K key, V value, long now) {
+      Expiry<K, V> expiry = checkNotNull(map.expiry);
+      long duration =
+          writeQueue.contains(entry)
+              ? expiry.expireAfterUpdate(key, value, now, entry.getExpirationTime() - now)
+              : expiry.expireAfterCreate(key, value, now);
+      entry.setExpirationTime(expirationTime(now, duration));
+    }
+
+    /**
+     * Sets the expiration time of {@code entry}, which was just read, as computed by the cache's
+     * {@link Expiry}. This may be called without holding the lock; the entry's position in the
+     * timer wheel is corrected when the read buffer is drained.
+     */
+    void setExpirationAfterRead(ReferenceEntry<K, V> entry, long now) {
+      K key = entry.getKey();
+      V value = entry.getValueReference().get();
+      if (key != null && value != null) {
+        long duration =
+            checkNotNull(map.expiry)
+                .expireAfterRead(key, value, now, entry.getExpirationTime() - now);
+        entry.setExpirationTime(expirationTime(now, duration));
+      }
     }
 
     /**
@@ -2577,9 +2990,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
      */
     @GuardedBy("this")
     void recordWrite(ReferenceEntry<K, V> entry, int weight, long now) {
-      // we are already under lock, so drain the recency queue immediately
-      drainRecencyQueue();
+      // we are already under lock, so drain the read buffer immediately
+      drainReadBuffer();
       totalWeight += weight;
+      statsCounter.recordWrite(weight);
 
       if (map.recordsAccess()) {
         entry.setAccessTime(now);
@@ -2592,21 +3006,40 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
 
     /**
-     * Drains the recency queue, updating eviction metadata that the entries therein were read in
-     * the specified relative order. This currently amounts to adding them to relevant eviction
-     * lists (accounting for the fact that they could have been removed from the map since being
-     * added to the recency queue).
+     * Drains the read buffer, updating eviction metadata that the entries therein were read in the
+     * specified relative order. This currently amounts to adding them to relevant eviction lists
+     * (accounting for the fact that they could have been removed from the map since being added to
+     * the read buffer).
      */
     @GuardedBy("this")
-    void drainRecencyQueue() {
-      ReferenceEntry<K, V> e;
-      while ((e = recencyQueue.poll()) != null) {
-        // An entry may be in the recency queue despite it being removed from
-        // the map . This can occur when the entry was concurrently read while a
-        // writer is removing it from the segment or after a clear has removed
-        // all the segment's entries.
-        if (accessQueue.contains(e)) {
-          accessQueue.add(e);
+    void drainReadBuffer() {
+      if (readBuffer != null) {
+        readBuffer.drainTo(readBufferDrainer);
+      }
+    }
+
+    @GuardedBy("this")
+    void reorderRead(ReferenceEntry<K, V> e) {
+      // An entry may be in the read buffer despite it being removed from
+      // the map . This can occur when the entry was concurrently read while a
+      // writer is removing it from the segment or after a clear has removed
+      // all the segment's entries.
+      if (accessQueue.contains(e)) {
+        accessQueue.add(e);
+      }
+      // the read may have changed the entry's expiration time
+      if (map.expiresVariably() && writeQueue.contains(e)) {
+        writeQueue.add(e);
+      }
+    }
+
+    /** Drains the read buffer when the lock is available. */
+    void tryDrainReadBuffer() {
+      if (tryLock()) {
+        try {
+          drainReadBuffer();
+        } finally {
+          unlock();
         }
       }
     }
@@ -2627,7 +3060,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
     @GuardedBy("this")
     void expireEntries(long now) {
-      drainRecencyQueue();
+      drainReadBuffer();
+      if (map.expiresVariably()) {
+        ((TimerWheel<K, V>) writeQueue).advance(now);
+      }
 
       ReferenceEntry<K, V> e;
       while ((e = writeQueue.peek()) != null && map.isExpired(e, now)) {
@@ -2648,6 +3084,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     void enqueueNotification(
         @CheckForNull K key, int hash, @CheckForNull V value, int weight, RemovalCause cause) {
       totalWeight -= weight;
+      statsCounter.recordRemoval(cause, weight);
       if (cause.wasEvicted()) {
         statsCounter.recordEviction();
       }
@@ -2669,11 +3106,14 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         return;
       }
 
-      drainRecencyQueue();
+      drainReadBuffer();
 
       // If the newest entry by itself is too heavy for the segment, don't bother evicting
       // anything else, just that
       if (newest.getValueReference().getWeight() > maxSegmentWeight) {
+        if (map.offHeap != null) {
+          spill(newest);
+        }
         if (!removeEntry(newest, newest.getHash(), RemovalCause.SIZE)) {
           throw new AssertionError();
         }
@@ -2681,34 +3121,128 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
 
       while (totalWeight > maxSegmentWeight) {
         ReferenceEntry<K, V> e = getNextEvictable();
+        if (map.offHeap != null) {
+          spill(e);
+        }
         if (!removeEntry(e, e.getHash(), RemovalCause.SIZE)) {
           throw new AssertionError();
         }
       }
-    }
 
-    // TODO(fry): instead implement this with an eviction head
-    @GuardedBy("this")
-    ReferenceEntry<K, V> getNextEvictable() {
-      for (ReferenceEntry<K, V> e : accessQueue) {
-        int weight = e.getValueReference().getWeight();
-        if (weight > 0) {
-          return e;
-        }
+      if (map.usesFrequencySketch()) {
+        // there is room to spare, so entries leaving the admission window enter the main space
+        // without having to compete for it
+        ((WindowTinyLfuQueue<K, V>) accessQueue).admitWindowOverflow();
       }
-      throw new AssertionError();
     }
 
-    /** Returns first entry of bin for given hash. */
-    ReferenceEntry<K, V> getFirst(int hash) {
-      // read this volatile field only once
-      AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
-      return table.get(hash & (table.length() - 1));
+    /**
+     * Returns the entries of this segment, from the least to the most recently accessed if the
+     * segment tracks access order. The entries may be stale, and must be checked for liveness.
+     */
+    List<ReferenceEntry<K, V>> entriesInAccessOrder() {
+      List<ReferenceEntry<K, V>> entries = new ArrayList<>();
+      lock();
+      try {
+        if (map.usesAccessQueue()) {
+          drainReadBuffer();
+          entries.addAll(accessQueue);
+        } else {
+          AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
+          for (int i = 0; i < table.length(); ++i) {
+            for (ReferenceEntry<K, V> e = table.get(i); e != null; e = e.getNext()) {
+              entries.add(e);
+            }
+          }
+        }
+      } finally {
+        unlock();
+      }
+      return entries;
     }
 
-    // Specialized implementations of map methods
-
-    @CheckForNull
+    /**
+     * Adds an entry restored from a snapshot, unless this segment already holds an entry for its
+     * key. The entry is given the write and access times it had when the snapshot was taken, and
+     * its recorded expiration time unless that is {@link CacheSnapshots#UNKNOWN}. Returns whether
+     * the entry was added.
+     */
+    boolean restore(
+        K key, int hash, V value, long writeTime, long accessTime, long expirationTime) {
+      lock();
+      try {
+        long now = map.ticker.read();
+        preWriteCleanup(now);
+        if (getEntry(key, hash) != null) {
+          return false;
+        }
+
+        put(key, hash, value, true);
+        ReferenceEntry<K, V> e = getEntry(key, hash);
+        if (e == null) {
+          // evicted immediately, as it is heavier than the segment
+          return false;
+        }
+        if (map.recordsWrite()) {
+          e.setWriteTime(writeTime);
+        }
+        if (map.recordsAccess()) {
+          e.setAccessTime(accessTime);
+        }
+        if (map.expiresVariably() && expirationTime != CacheSnapshots.UNKNOWN) {
+          e.setExpirationTime(expirationTime);
+          // reschedule the entry in the timer wheel
+          writeQueue.add(e);
+        }
+        return true;
+      } finally {
+        unlock();
+        postWriteCleanup();
+      }
+    }
+
+    /** Copies the value of an entry that is being evicted for size to the off-heap tier. */
+    @GuardedBy("this")
+    void spill(ReferenceEntry<K, V> entry) {
+      K key = entry.getKey();
+      V value = entry.getValueReference().get();
+      if (key == null || value == null) {
+        return;
+      }
+      long writeTime = map.recordsWrite() ? entry.getWriteTime() : 0;
+      long accessTime = map.recordsAccess() ? entry.getAccessTime() : 0;
+      try {
+        checkNotNull(map.offHeap).put(key, value, writeTime, accessTime);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Exception thrown by ValueCodec; value discarded", e);
+      }
+    }
+
+    // TODO(fry): instead implement this with an eviction head
+    @GuardedBy("this")
+    ReferenceEntry<K, V> getNextEvictable() {
+      if (map.usesFrequencySketch()) {
+        return ((WindowTinyLfuQueue<K, V>) accessQueue).getNextEvictable(statsCounter);
+      }
+      for (ReferenceEntry<K, V> e : accessQueue) {
+        int weight = e.getValueReference().getWeight();
+        if (weight > 0) {
+          return e;
+        }
+      }
+      throw new AssertionError();
+    }
+
+    /** Returns first entry of bin for given hash. */
+    ReferenceEntry<K, V> getFirst(int hash) {
+      // read this volatile field only once
+      AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
+      return table.get(hash & (table.length() - 1));
+    }
+
+    // Specialized implementations of map methods
+
+    @CheckForNull
     ReferenceEntry<K, V> getEntry(Object key, int hash) {
       for (ReferenceEntry<K, V> e = getFirst(hash); e != null; e = e.getNext()) {
         if (e.getHash() != hash) {
@@ -3078,6 +3612,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       try {
         long now = map.ticker.read();
         preWriteCleanup(now);
+        if (map.offHeap != null) {
+          map.offHeap.discard(key);
+        }
 
         int newCount = this.count - 1;
         AtomicReferenceArray<ReferenceEntry<K, V>> table = this.table;
@@ -3469,6 +4006,28 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
      */
     void postReadCleanup() {
       if ((readCount.incrementAndGet() & DRAIN_THRESHOLD) == 0) {
+        if (map.executor == null) {
+          cleanUp();
+        } else {
+          scheduleCleanUp(map.executor);
+        }
+      }
+    }
+
+    /** Submits a cleanup of this segment to {@code executor}, unless one is already pending. */
+    void scheduleCleanUp(Executor executor) {
+      if (!cleanUpScheduled.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        executor.execute(
+            () -> {
+              cleanUpScheduled.set(false);
+              cleanUp();
+            });
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Exception thrown when submitting cache maintenance", e);
+        cleanUpScheduled.set(false);
         cleanUp();
       }
     }
@@ -3499,7 +4058,7 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       if (tryLock()) {
         try {
           drainReferenceQueues();
-          expireEntries(now); // calls drainRecencyQueue
+          expireEntries(now); // calls drainReadBuffer
           readCount.set(0);
         } finally {
           unlock();
@@ -3810,6 +4369,193 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
   }
 
+  /**
+   * A hierarchical timer wheel that orders entries by their {@linkplain
+   * ReferenceEntry#getExpirationTime expiration time}, for caches with a variable {@link Expiry}.
+   * Like {@link WriteQueue}, it links entries through their write queue links, which are unused by
+   * such caches otherwise.
+   *
+   * <p>Each level of the wheel is an array of buckets spanning a power-of-two number of
+   * nanoseconds, from about a second per bucket at the lowest level to about a day and a half at
+   * the highest. An entry is placed in the bucket of the lowest level whose range covers its
+   * remaining lifetime, so that scheduling and descheduling are O(1). When the wheel is {@linkplain
+   * #advance advanced}, the buckets whose time has passed are emptied: expired entries are moved to
+   * a queue from which {@link #peek} and {@link #poll} take them, and the others are rescheduled
+   * into a more precise level. Every entry is thus moved at most once per level.
+   */
+  static final class TimerWheel<K, V> extends AbstractQueue<ReferenceEntry<K, V>> {
+    static final int[] BUCKETS = {64, 64, 32, 4, 1};
+
+    /** The time spanned by a bucket of each level, and the time covered by the whole wheel. */
+    static final long[] SPANS = {
+      1L << 30, // 1.07s
+      1L << 36, // 1.14m
+      1L << 42, // 1.22h
+      1L << 47, // 1.63d
+      1L << 49, // 6.5d
+      1L << 49, // 6.5d
+    };
+
+    static final int[] SHIFT = {30, 36, 42, 47, 49};
+
+    final WriteQueue<K, V>[][] wheel;
+
+    /** Entries which expired as of the last time the wheel was advanced. */
+    final WriteQueue<K, V> expired = new WriteQueue<>();
+
+    /** The time at which the wheel was last advanced. */
+    long nanos;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long nanos) {
+      this.nanos = nanos;
+      wheel = (WriteQueue<K, V>[][]) new WriteQueue<?, ?>[BUCKETS.length][];
+      for (int i = 0; i < BUCKETS.length; i++) {
+        wheel[i] = (WriteQueue<K, V>[]) new WriteQueue<?, ?>[BUCKETS[i]];
+        for (int j = 0; j < BUCKETS[i]; j++) {
+          wheel[i][j] = new WriteQueue<>();
+        }
+      }
+    }
+
+    /**
+     * Advances the wheel to {@code currentTime}, moving every entry whose expiration time has
+     * passed to the queue of expired entries.
+     */
+    void advance(long currentTime) {
+      // entries whose expiration time was extended since they expired are rescheduled
+      reschedule(expired);
+
+      long previousTime = nanos;
+      nanos = currentTime;
+      for (int i = 0; i < SHIFT.length; i++) {
+        long previousTicks = previousTime >>> SHIFT[i];
+        long currentTicks = currentTime >>> SHIFT[i];
+        long delta = currentTicks - previousTicks;
+        if (delta <= 0L) {
+          break;
+        }
+        WriteQueue<K, V>[] buckets = wheel[i];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(1 + delta, buckets.length);
+        int start = (int) (previousTicks & mask);
+        for (int j = start; j < start + steps; j++) {
+          reschedule(buckets[j & mask]);
+        }
+      }
+    }
+
+    /** Reschedules each of the entries currently in {@code queue}. */
+    void reschedule(WriteQueue<K, V> queue) {
+      ReferenceEntry<K, V> last = queue.head.getPreviousInWriteQueue();
+      if (last == queue.head) {
+        return;
+      }
+      // an entry may be rescheduled into the same queue, behind the last one to process
+      ReferenceEntry<K, V> e;
+      do {
+        e = queue.head.getNextInWriteQueue();
+        offer(e);
+      } while (e != last);
+    }
+
+    WriteQueue<K, V> findQueue(long time) {
+      long duration = time - nanos;
+      if (duration <= 0) {
+        return expired;
+      }
+      for (int i = 0; i < BUCKETS.length - 1; i++) {
+        if (duration < SPANS[i + 1]) {
+          long ticks = time >>> SHIFT[i];
+          return wheel[i][(int) (ticks & (BUCKETS[i] - 1))];
+        }
+      }
+      return wheel[BUCKETS.length - 1][0];
+    }
+
+    // implements Queue
+
+    /** Schedules {@code entry}, or reschedules it if its expiration time has changed. */
+    @Override
+    public boolean offer(ReferenceEntry<K, V> entry) {
+      // each bucket's offer unlinks the entry from wherever it is linked
+      return findQueue(entry.getExpirationTime()).offer(entry);
+    }
+
+    /** Returns an entry which had expired when the wheel was last advanced, if any. */
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> peek() {
+      return expired.peek();
+    }
+
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> poll() {
+      return expired.poll();
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public boolean remove(Object o) {
+      // unlinking only touches the entry's neighbors, whichever bucket they belong to
+      return expired.remove(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return expired.contains(o);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      if (!expired.isEmpty()) {
+        return false;
+      }
+      for (WriteQueue<K, V>[] buckets : wheel) {
+        for (WriteQueue<K, V> bucket : buckets) {
+          if (!bucket.isEmpty()) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int size() {
+      int size = expired.size();
+      for (WriteQueue<K, V>[] buckets : wheel) {
+        for (WriteQueue<K, V> bucket : buckets) {
+          size += bucket.size();
+        }
+      }
+      return size;
+    }
+
+    @Override
+    public void clear() {
+      expired.clear();
+      for (WriteQueue<K, V>[] buckets : wheel) {
+        for (WriteQueue<K, V> bucket : buckets) {
+          bucket.clear();
+        }
+      }
+    }
+
+    @Override
+    public Iterator<ReferenceEntry<K, V>> iterator() {
+      List<Iterator<ReferenceEntry<K, V>>> iterators = new ArrayList<>();
+      iterators.add(expired.iterator());
+      for (WriteQueue<K, V>[] buckets : wheel) {
+        for (WriteQueue<K, V> bucket : buckets) {
+          iterators.add(bucket.iterator());
+        }
+      }
+      return Iterators.concat(iterators.iterator());
+    }
+  }
+
   /**
    * A custom queue for managing access order. Note that this is tightly integrated with {@code
    * ReferenceEntry}, upon which it relies to perform its linking.
@@ -3953,6 +4699,258 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     }
   }
 
+  /**
+   * An access queue that orders entries for the {@linkplain EvictionPolicy#WINDOW_TINY_LFU Window
+   * TinyLFU} eviction policy. It is composed of three {@link AccessQueue}s, which share the access
+   * order links of {@code ReferenceEntry}:
+   *
+   * <ul>
+   *   <li>the <i>window</i>, a small LRU queue into which every new entry is written;
+   *   <li>the <i>probation</i> region, holding entries of the main space that have not been accessed
+   *       since they were admitted (or demoted);
+   *   <li>the <i>protected</i> region, holding entries of the main space that were accessed while on
+   *       probation.
+   * </ul>
+   *
+   * <p>When the segment is over capacity, the least recently used entry of an oversized window (the
+   * candidate) competes with the least recently used entry of the main space (the victim), and
+   * whichever has the lower estimated access frequency is evicted. Otherwise, entries leaving the
+   * window are admitted to probation unconditionally.
+   *
+   * <p>Each entry records the region it is linked into, so that an access can move it to the tail of
+   * its own region or promote it from probation to protected. The window is kept at about 1% of the
+   * segment's entries and the protected region at about 80% of the main space. Regions are sized in
+   * entries rather than by weight, as the weight of a linked entry may change when it is replaced.
+   */
+  static final class WindowTinyLfuQueue<K, V> extends AbstractQueue<ReferenceEntry<K, V>> {
+    static final int WINDOW = 0;
+    static final int PROBATION = 1;
+    static final int PROTECTED = 2;
+
+    final AccessQueue<K, V> window = new AccessQueue<>();
+    final AccessQueue<K, V> probation = new AccessQueue<>();
+    final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+
+    /** Estimates the access frequency of entries, including recently evicted ones. */
+    final FrequencySketch sketch;
+
+    int windowSize;
+    int probationSize;
+    int protectedSize;
+
+    WindowTinyLfuQueue(int initialCapacity) {
+      this.sketch = new FrequencySketch(initialCapacity);
+    }
+
+    int windowMaximum() {
+      return Math.max(1, size() / 100);
+    }
+
+    int protectedMaximum() {
+      int mainSize = probationSize + protectedSize;
+      return mainSize - mainSize / 5;
+    }
+
+    /**
+     * Moves entries from the head of an oversized window to the tail of the probation region. This
+     * should only be called when the segment is within its capacity.
+     */
+    void admitWindowOverflow() {
+      int maximum = windowMaximum();
+      while (windowSize > maximum) {
+        transfer(window.peek(), PROBATION);
+      }
+    }
+
+    /**
+     * Returns the next entry to evict. If the window is oversized, its least recently used entry is
+     * admitted into probation only if it is estimated to be used more frequently than the entry it
+     * would displace, which is returned instead; a rejected candidate is itself returned.
+     */
+    ReferenceEntry<K, V> getNextEvictable(StatsCounter statsCounter) {
+      int maximum = windowMaximum();
+      while (windowSize > maximum) {
+        ReferenceEntry<K, V> candidate = window.peek();
+        ReferenceEntry<K, V> victim = firstWeighted(probation);
+        if (victim == null) {
+          victim = firstWeighted(protectedQueue);
+        }
+        if (victim == null || candidate.getValueReference().getWeight() == 0) {
+          // either there is nothing to compete against, or evicting the candidate frees no space
+          transfer(candidate, PROBATION);
+          continue;
+        }
+
+        if (sketch.frequency(candidate.getHash()) > sketch.frequency(victim.getHash())) {
+          transfer(candidate, PROBATION);
+          return victim;
+        }
+        statsCounter.recordAdmissionRejection();
+        return candidate;
+      }
+
+      ReferenceEntry<K, V> e = firstWeighted(probation);
+      if (e == null) {
+        e = firstWeighted(protectedQueue);
+      }
+      if (e == null) {
+        e = firstWeighted(window);
+      }
+      if (e == null) {
+        throw new AssertionError();
+      }
+      return e;
+    }
+
+    @CheckForNull
+    static <K, V> ReferenceEntry<K, V> firstWeighted(AccessQueue<K, V> queue) {
+      for (ReferenceEntry<K, V> e : queue) {
+        if (e.getValueReference().getWeight() > 0) {
+          return e;
+        }
+      }
+      return null;
+    }
+
+    /** Moves a linked entry to the tail of the given region. */
+    void transfer(ReferenceEntry<K, V> entry, int region) {
+      decrementSize(entry.getAccessRegion());
+      entry.setAccessRegion(region);
+      switch (region) {
+        case WINDOW:
+          windowSize++;
+          window.offer(entry);
+          break;
+        case PROBATION:
+          probationSize++;
+          probation.offer(entry);
+          break;
+        default:
+          protectedSize++;
+          protectedQueue.offer(entry);
+      }
+    }
+
+    void decrementSize(int region) {
+      switch (region) {
+        case WINDOW:
+          windowSize--;
+          break;
+        case PROBATION:
+          probationSize--;
+          break;
+        default:
+          protectedSize--;
+      }
+    }
+
+    // implements Queue
+
+    /**
+     * Records a read or write of {@code entry}. New entries are added to the tail of the window, and
+     * entries that are accessed while on probation are promoted to the protected region.
+     */
+    @Override
+    public boolean offer(ReferenceEntry<K, V> entry) {
+      if (!contains(entry)) {
+        entry.setAccessRegion(WINDOW);
+        windowSize++;
+        window.offer(entry);
+        sketch.ensureCapacity(size());
+      } else {
+        switch (entry.getAccessRegion()) {
+          case WINDOW:
+            window.offer(entry);
+            break;
+          case PROBATION:
+            transfer(entry, PROTECTED);
+            int maximum = protectedMaximum();
+            while (protectedSize > maximum) {
+              transfer(protectedQueue.peek(), PROBATION);
+            }
+            break;
+          default:
+            protectedQueue.offer(entry);
+        }
+      }
+      sketch.increment(entry.getHash());
+      return true;
+    }
+
+    /** Returns the least recently accessed entry among the heads of all regions. */
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> peek() {
+      return olderOf(olderOf(window.peek(), probation.peek()), protectedQueue.peek());
+    }
+
+    @CheckForNull
+    static <K, V> ReferenceEntry<K, V> olderOf(
+        @CheckForNull ReferenceEntry<K, V> a, @CheckForNull ReferenceEntry<K, V> b) {
+      if (a == null) {
+        return b;
+      }
+      return (b == null || a.getAccessTime() <= b.getAccessTime()) ? a : b;
+    }
+
+    @CheckForNull
+    @Override
+    public ReferenceEntry<K, V> poll() {
+      ReferenceEntry<K, V> next = peek();
+      if (next == null) {
+        return null;
+      }
+
+      remove(next);
+      return next;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @CanIgnoreReturnValue
+    public boolean remove(Object o) {
+      ReferenceEntry<K, V> e = (ReferenceEntry<K, V>) o;
+      if (!contains(e)) {
+        return false;
+      }
+      decrementSize(e.getAccessRegion());
+      // unlinking only touches the entry's neighbors, whichever region they belong to
+      return window.remove(e);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      ReferenceEntry<K, V> e = (ReferenceEntry<K, V>) o;
+      return e.getNextInAccessQueue() != NullEntry.INSTANCE;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size() == 0;
+    }
+
+    @Override
+    public int size() {
+      return windowSize + probationSize + protectedSize;
+    }
+
+    @Override
+    public void clear() {
+      window.clear();
+      probation.clear();
+      protectedQueue.clear();
+      windowSize = 0;
+      probationSize = 0;
+      protectedSize = 0;
+    }
+
+    @Override
+    public Iterator<ReferenceEntry<K, V>> iterator() {
+      return Iterators.concat(window.iterator(), probation.iterator(), protectedQueue.iterator());
+    }
+  }
+
   // Cache support
 
   public void cleanUp() {
@@ -4358,6 +5356,9 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     for (Segment<K, V> segment : segments) {
       segment.clear();
     }
+    if (offHeap != null) {
+      offHeap.clear();
+    }
   }
 
   void invalidateAll(Iterable<?> keys) {
@@ -4765,6 +5766,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
     final RemovalListener<? super K, ? super V> removalListener;
     @CheckForNull final Ticker ticker;
     final CacheLoader<? super K, V> loader;
+    // null when deserialized from a form that predates eviction policies
+    @CheckForNull final EvictionPolicy evictionPolicy;
+    @CheckForNull final Expiry<K, V> expiry;
+    final long offHeapMaximumBytes;
+    @CheckForNull final ValueCodec<V> offHeapCodec;
 
     @CheckForNull transient Cache<K, V> delegate;
 
@@ -4781,7 +5787,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
           cache.concurrencyLevel,
           cache.removalListener,
           cache.ticker,
-          cache.defaultLoader);
+          cache.defaultLoader,
+          cache.evictionPolicy,
+          cache.expiry,
+          (cache.offHeap == null) ? UNSET_INT : cache.offHeap.capacity,
+          (cache.offHeap == null) ? null : cache.offHeap.codec);
     }
 
     private ManualSerializationProxy(
@@ -4796,7 +5806,11 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
         int concurrencyLevel,
         RemovalListener<? super K, ? super V> removalListener,
         Ticker ticker,
-        CacheLoader<? super K, V> loader) {
+        CacheLoader<? super K, V> loader,
+        EvictionPolicy evictionPolicy,
+        @CheckForNull Expiry<K, V> expiry,
+        long offHeapMaximumBytes,
+        @CheckForNull ValueCodec<V> offHeapCodec) {
       this.keyStrength = keyStrength;
       this.valueStrength = valueStrength;
       this.keyEquivalence = keyEquivalence;
@@ -4809,6 +5823,10 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       this.removalListener = removalListener;
       this.ticker = (ticker == Ticker.systemTicker() || ticker == NULL_TICKER) ? null : ticker;
       this.loader = loader;
+      this.evictionPolicy = evictionPolicy;
+      this.expiry = expiry;
+      this.offHeapMaximumBytes = offHeapMaximumBytes;
+      this.offHeapCodec = offHeapCodec;
     }
 
     CacheBuilder<K, V> recreateCacheBuilder() {
@@ -4837,6 +5855,15 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
           builder.maximumSize(maxWeight);
         }
       }
+      if (evictionPolicy != null && evictionPolicy != EvictionPolicy.LEAST_RECENTLY_USED) {
+        builder.evictionPolicy(evictionPolicy);
+      }
+      if (expiry != null) {
+        Object unused = builder.expireAfter(expiry);
+      }
+      if (offHeapCodec != null) {
+        Object unused = builder.offHeapTier(offHeapMaximumBytes, offHeapCodec);
+      }
       if (ticker != null) {
         builder.ticker(ticker);
       }
@@ -5067,4 +6094,162 @@ class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
       throw new InvalidObjectException("Use LoadingSerializationProxy");
     }
   }
+
+  static class LocalAsyncLoadingCache<K, V> implements AsyncLoadingCache<K, V> {
+    final LocalCache<K, ListenableFuture<V>> localCache;
+
+    LocalAsyncLoadingCache(
+        CacheBuilder<? super K, ? super ListenableFuture<V>> builder,
+        final AsyncFunction<? super K, V> loader) {
+      this.localCache =
+          new LocalCache<>(
+              builder,
+              new CacheLoader<K, ListenableFuture<V>>() {
+                @Override
+                public ListenableFuture<V> load(K key) throws Exception {
+                  ListenableFuture<V> future = loader.apply(key);
+                  if (future != null) {
+                    removeOnFailure(key, future);
+                  }
+                  return future;
+                }
+              });
+    }
+
+    /**
+     * Removes the entry for {@code future} once it fails, so that the next request for its key
+     * starts a new load.
+     */
+    void removeOnFailure(final K key, final ListenableFuture<V> future) {
+      future.addListener(() -> removeIfFailed(key, future), directExecutor());
+    }
+
+    void removeIfFailed(K key, ListenableFuture<V> future) {
+      if (!succeeded(future)) {
+        localCache.remove(key, future);
+      }
+    }
+
+    /** Returns whether {@code future} is done and completed with a value. */
+    static boolean succeeded(ListenableFuture<?> future) {
+      if (!future.isDone() || future.isCancelled()) {
+        return false;
+      }
+      try {
+        Object unused = Futures.getDone(future);
+        return true;
+      } catch (ExecutionException e) {
+        return false;
+      }
+    }
+
+    // AsyncLoadingCache methods
+
+    @Override
+    @CheckForNull
+    public ListenableFuture<V> getIfPresent(Object key) {
+      return localCache.getIfPresent(key);
+    }
+
+    @Override
+    public ListenableFuture<V> get(K key) {
+      ListenableFuture<V> future;
+      try {
+        future = localCache.getOrLoad(key);
+      } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+        return Futures.immediateFailedFuture(e.getCause());
+      }
+      if (future.isDone()) {
+        // a future that failed before it was stored could not be removed by its listener
+        removeIfFailed(key, future);
+      }
+      return future;
+    }
+
+    @Override
+    public ListenableFuture<ImmutableMap<K, V>> getAll(Iterable<? extends K> keys) {
+      Map<K, ListenableFuture<V>> futures = Maps.newLinkedHashMap();
+      for (K key : keys) {
+        if (!futures.containsKey(key)) {
+          futures.put(key, get(key));
+        }
+      }
+      return Futures.whenAllSucceed(futures.values())
+          .call(
+              () -> {
+                ImmutableMap.Builder<K, V> result =
+                    ImmutableMap.builderWithExpectedSize(futures.size());
+                for (Entry<K, ListenableFuture<V>> entry : futures.entrySet()) {
+                  result.put(entry.getKey(), Futures.getDone(entry.getValue()));
+                }
+                return result.buildOrThrow();
+              },
+              directExecutor());
+    }
+
+    @Override
+    public void put(K key, ListenableFuture<V> valueFuture) {
+      localCache.put(key, valueFuture);
+      removeOnFailure(key, valueFuture);
+    }
+
+    @Override
+    public void invalidate(Object key) {
+      checkNotNull(key);
+      localCache.remove(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+      localCache.clear();
+    }
+
+    @Override
+    public long size() {
+      return localCache.longSize();
+    }
+
+    @Override
+    public CacheStats stats() {
+      SimpleStatsCounter aggregator = new SimpleStatsCounter();
+      aggregator.incrementBy(localCache.globalStatsCounter);
+      for (Segment<K, ListenableFuture<V>> segment : localCache.segments) {
+        aggregator.incrementBy(segment.statsCounter);
+      }
+      return aggregator.snapshot();
+    }
+
+    @Override
+    public ConcurrentMap<K, ListenableFuture<V>> asMap() {
+      return localCache;
+    }
+
+    @Override
+    public void cleanUp() {
+      localCache.cleanUp();
+    }
+  }
+
+  /**
+   * Adapts a removal listener of values to a cache of futures. Only entries whose future completed
+   * successfully are reported, as other entries never had a value.
+   */
+  static final class FutureRemovalListener<K, V>
+      implements RemovalListener<K, ListenableFuture<V>> {
+    final RemovalListener<K, V> delegate;
+
+    FutureRemovalListener(RemovalListener<K, V> delegate) {
+      this.delegate = checkNotNull(delegate);
+    }
+
+    @Override
+    public void onRemoval(RemovalNotification<K, ListenableFuture<V>> notification) {
+      ListenableFuture<V> future = notification.getValue();
+      if (future != null && LocalAsyncLoadingCache.succeeded(future)) {
+        delegate.onRemoval(
+            RemovalNotification.create(
+                notification.getKey(), Futures.getUnchecked(future), notification.getCause()));
+      }
+    }
+  }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.primitives.Ints;
+
+/**
+ * Holds the serialized values of entries evicted from a cache's heap, in direct {@link ByteBuffer}
+ * slabs that are not scanned by the garbage collector.
+ *
+ * <p>The slabs form a single circular log. Each value is appended at the tail of the log, skipping
+ * to the next slab if it does not fit in the remainder of the current one, and room is made by
+ * discarding the oldest values at the head. Values that are taken or discarded leave holes that are
+ * reclaimed once the head passes them, so that no allocator bookkeeping is needed beyond the order
+ * in which values were appended.
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class OffHeapStore<K, V> {
+  /** The largest slab that is allocated, which also bounds the size of a stored value. */
+  static final int MAXIMUM_SLAB_SIZE = 1 << 26;
+
+  final ValueCodec<V> codec;
+  final int slabSize;
+  final long capacity;
+
+  /** The slabs of the log, which are allocated when the log first reaches them. */
+  @GuardedBy("this")
+  final ByteBuffer[] slabs;
+
+  /** The live values, by key. */
+  @GuardedBy("this")
+  final Map<Object, Slot<K>> index = new HashMap<>();
+
+  /** Every value that has not yet been reclaimed, live or not, from oldest to newest. */
+  @GuardedBy("this")
+  final ArrayDeque<Slot<K>> log = new ArrayDeque<>();
+
+  /** The position in the log at which the next value will be appended. */
+  @GuardedBy("this")
+  long tail;
+
+  OffHeapStore(long maximumBytes, ValueCodec<V> codec) {
+    checkArgument(maximumBytes > 0, "maximumBytes must be positive: %s", maximumBytes);
+    this.codec = checkNotNull(codec);
+    this.slabSize = Ints.saturatedCast(Math.min(maximumBytes, MAXIMUM_SLAB_SIZE));
+    int slabCount = Ints.checkedCast(maximumBytes / slabSize);
+    this.capacity = (long) slabCount * slabSize;
+    this.slabs = new ByteBuffer[slabCount];
+  }
+
+  /** The location of a value in the log. */
+  static final class Slot<K> {
+    final K key;
+    final long position;
+    final int length;
+    final long writeTime;
+    final long accessTime;
+
+    /** Whether this slot holds the current value of its key. */
+    boolean live = true;
+
+    Slot(K key, long position, int length, long writeTime, long accessTime) {
+      this.key = key;
+      this.position = position;
+      this.length = length;
+      this.writeTime = writeTime;
+      this.accessTime = accessTime;
+    }
+  }
+
+  /** A value that has been taken from the store, along with the key and times of its entry. */
+  static final class Spilled<K, V> {
+    final K key;
+    final V value;
+    final long writeTime;
+    final long accessTime;
+
+    Spilled(K key, V value, long writeTime, long accessTime) {
+      this.key = key;
+      this.value = value;
+      this.writeTime = writeTime;
+      this.accessTime = accessTime;
+    }
+  }
+
+  /**
+   * Stores {@code value}, replacing any value stored for {@code key}. Values whose serialized form
+   * is larger than a slab are not stored.
+   */
+  void put(K key, V value, long writeTime, long accessTime) {
+    byte[] bytes = codec.encode(value);
+    synchronized (this) {
+      discard(key);
+      if (bytes.length > slabSize) {
+        return;
+      }
+
+      long position = tail;
+      int remaining = slabSize - (int) (position % slabSize);
+      if (remaining < bytes.length) {
+        position += remaining;
+      }
+      long end = position + bytes.length;
+      while (!log.isEmpty() && end - log.peekFirst().position > capacity) {
+        Slot<K> oldest = log.removeFirst();
+        if (oldest.live) {
+          index.remove(oldest.key);
+        }
+      }
+
+      ByteBuffer buffer = slab(position).duplicate();
+      buffer.position((int) (position % slabSize));
+      buffer.put(bytes);
+
+      Slot<K> slot = new Slot<>(key, position, bytes.length, writeTime, accessTime);
+      log.addLast(slot);
+      index.put(key, slot);
+      tail = end;
+    }
+  }
+
+  /** Removes and returns the value stored for {@code key}, or returns null if there is none. */
+  @CheckForNull
+  Spilled<K, V> take(Object key) {
+    Slot<K> slot;
+    byte[] bytes;
+    synchronized (this) {
+      slot = index.remove(key);
+      if (slot == null) {
+        return null;
+      }
+      slot.live = false;
+      bytes = new byte[slot.length];
+      ByteBuffer buffer = slab(slot.position).duplicate();
+      buffer.position((int) (slot.position % slabSize));
+      buffer.get(bytes);
+    }
+    return new Spilled<>(slot.key, codec.decode(bytes), slot.writeTime, slot.accessTime);
+  }
+
+  /** Removes the value stored for {@code key}, if any. */
+  synchronized void discard(Object key) {
+    Slot<K> slot = index.remove(key);
+    if (slot != null) {
+      slot.live = false;
+    }
+  }
+
+  /** Removes every stored value. The slabs are kept for reuse. */
+  synchronized void clear() {
+    index.clear();
+    log.clear();
+  }
+
+  @GuardedBy("this")
+  ByteBuffer slab(long position) {
+    int i = (int) ((position % capacity) / slabSize);
+    ByteBuffer slab = slabs[i];
+    if (slab == null) {
+      slab = ByteBuffer.allocateDirect(slabSize);
+      slabs[i] = slab;
+    }
+    return slab;
+  }
+}
@@ -86,6 +86,15 @@ interface ReferenceEntry<K, V> {
   /** Sets the previous entry in the access queue. */
   void setPreviousInAccessQueue(ReferenceEntry<K, V> previous);
 
+  /**
+   * Returns the region of a segmented access queue that this entry is linked into. Only meaningful
+   * while the entry is in such a queue.
+   */
+  int getAccessRegion();
+
+  /** Sets the region of a segmented access queue that this entry is linked into. */
+  void setAccessRegion(int region);
+
   /*
    * Implemented by entries that use write order. Write entries are maintained in a doubly-linked
    * list. New entries are added at the tail of the list at write time and stale entries are
@@ -100,6 +109,17 @@ interface ReferenceEntry<K, V> {
   @SuppressWarnings("GoodTime") // b/122668874
   void setWriteTime(long time);
 
+  /**
+   * Returns the time at which this entry expires, in ns. Only used by entries of caches with a
+   * variable {@link Expiry}, which are kept in a timer wheel through their write queue links.
+   */
+  @SuppressWarnings("GoodTime")
+  long getExpirationTime();
+
+  /** Sets the entry expiration time in ns. */
+  @SuppressWarnings("GoodTime") // b/122668874
+  void setExpirationTime(long time);
+
   /** Returns the next entry in the write queue. */
   ReferenceEntry<K, V> getNextInWriteQueue();
 
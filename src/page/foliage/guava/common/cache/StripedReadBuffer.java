@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.math.IntMath;
+
+/**
+ * A lossy, multiple-producer / single-consumer buffer used to record reads. Producers never block
+ * and never allocate: an element is dropped if its stripe is full or if another producer wins the
+ * race for the same slot. This is acceptable because the buffered elements are only hints used to
+ * reorder the cache's eviction queues, which are approximations to begin with.
+ *
+ * <p>The buffer is striped by thread, and stripes are created lazily, so that an idle or lightly
+ * used segment only pays for the stripes that are actually contended. Each stripe is a bounded ring
+ * buffer whose slots are claimed by a compare-and-set of its write counter.
+ *
+ * <p>Draining must be performed by one thread at a time, typically while holding the segment lock.
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class StripedReadBuffer<E> {
+  /** Returned by {@link #offer} when the element was added. */
+  static final int SUCCESS = 0;
+
+  /** Returned by {@link #offer} when the element was dropped due to contention. */
+  static final int FAILED = 1;
+
+  /** Returned by {@link #offer} when the stripe is full and should be drained. */
+  static final int FULL = 2;
+
+  /** The number of elements each stripe can hold. This must be a power of two. */
+  static final int BUFFER_SIZE = 16;
+
+  static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+  /** The number of stripes, which is bounded by the number of processors. */
+  static final int STRIPES =
+      IntMath.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+  final AtomicReferenceArray<RingBuffer<E>> stripes = new AtomicReferenceArray<>(STRIPES);
+
+  /**
+   * Inserts {@code e} into the current thread's stripe if space is available, returning one of
+   * {@link #SUCCESS}, {@link #FAILED} or {@link #FULL}.
+   */
+  int offer(E e) {
+    int index = stripeIndex();
+    RingBuffer<E> stripe = stripes.get(index);
+    if (stripe == null) {
+      stripes.compareAndSet(index, null, new RingBuffer<E>());
+      stripe = stripes.get(index);
+    }
+    return stripe.offer(e);
+  }
+
+  /**
+   * Removes all buffered elements, passing each to {@code consumer}. This method must not be called
+   * concurrently with itself.
+   */
+  void drainTo(Consumer<? super E> consumer) {
+    for (int i = 0; i < stripes.length(); i++) {
+      RingBuffer<E> stripe = stripes.get(i);
+      if (stripe != null) {
+        stripe.drainTo(consumer);
+      }
+    }
+  }
+
+  static int stripeIndex() {
+    @SuppressWarnings("deprecation") // Thread.threadId() is not available before Java 19
+    long id = Thread.currentThread().getId();
+    int h = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+    return (h ^ (h >>> 16)) & (STRIPES - 1);
+  }
+
+  /** A bounded ring buffer that permits a single consumer. */
+  static final class RingBuffer<E> {
+    final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+    final AtomicLong writeCounter = new AtomicLong();
+
+    /** Only advanced by the draining thread. */
+    volatile long readCounter;
+
+    int offer(E e) {
+      long head = readCounter;
+      long tail = writeCounter.get();
+      long size = tail - head;
+      if (size >= BUFFER_SIZE) {
+        return FULL;
+      }
+      if (!writeCounter.compareAndSet(tail, tail + 1)) {
+        return FAILED;
+      }
+      buffer.lazySet((int) tail & BUFFER_MASK, e);
+      return (size + 1 == BUFFER_SIZE) ? FULL : SUCCESS;
+    }
+
+    void drainTo(Consumer<? super E> consumer) {
+      long head = readCounter;
+      long tail = writeCounter.get();
+      for (; head != tail; head++) {
+        int index = (int) head & BUFFER_MASK;
+        E e = buffer.get(index);
+        if (e == null) {
+          // the producer claimed the slot but has not yet published its element
+          break;
+        }
+        buffer.lazySet(index, null);
+        consumer.accept(e);
+      }
+      readCounter = head;
+    }
+  }
+}
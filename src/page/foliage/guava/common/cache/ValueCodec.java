@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.cache;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * Converts cache values to and from the bytes stored in a cache's off-heap tier.
+ *
+ * <p>Implementations are invoked while holding locks of the cache, so they should be fast and must
+ * not access the cache. For any value {@code v}, {@code decode(encode(v))} must return a value that
+ * is equivalent to {@code v} for the purposes of the cache's users.
+ *
+ * @param <V> the type of values
+ * @see CacheBuilder#offHeapTier
+ * @since 32.1.3
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public interface ValueCodec<V> {
+
+  /**
+   * Returns the serialized form of {@code value}. The cache neither retains nor modifies the
+   * returned array, so it may be owned by the value, or be the value itself.
+   */
+  byte[] encode(V value);
+
+  /**
+   * Returns the value serialized in {@code bytes}. The cache does not use the array afterwards, so
+   * the returned value may retain it.
+   */
+  V decode(byte[] bytes);
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static java.util.Objects.requireNonNull;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+import static page.foliage.guava.common.base.Preconditions.checkPositionIndex;
+import static page.foliage.guava.common.collect.CollectPreconditions.checkEntryNotNull;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import javax.annotation.CheckForNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import page.foliage.guava.common.annotations.GwtCompatible;
+import page.foliage.guava.common.annotations.J2ktIncompatible;
+import page.foliage.guava.common.annotations.VisibleForTesting;
+import page.foliage.guava.common.math.IntMath;
+
+/**
+ * Implementation of {@link ImmutableMap} with two or more entries, which stores its keys and values
+ * without entry objects. Keys and values alternate in a single array, in insertion order, and an
+ * open-addressed hash table with linear probing maps the smeared hash of each key to the index of
+ * its entry. The table is a {@code byte[]}, {@code short[]} or {@code int[]}, whichever is the
+ * smallest that can hold the indexes, so a mapping costs about 10 to 14 bytes rather than the 32
+ * or more of {@link RegularImmutableMap}, and a lookup reads no entry object.
+ *
+ * <p>{@link Entry} objects are only created on demand, by the entry set.
+ */
+@GwtCompatible(serializable = true)
+@ElementTypesAreNonnullByDefault
+final class CompactImmutableMap<K, V> extends ImmutableMap<K, V> {
+  /** Tables of at most this size are {@code byte[]}s. */
+  private static final int BYTE_MAX_SIZE = 1 << Byte.SIZE;
+
+  /** Tables of at most this size, and larger than {@link #BYTE_MAX_SIZE}, are {@code short[]}s. */
+  private static final int SHORT_MAX_SIZE = 1 << Short.SIZE;
+
+  /** The mask of an unsigned entry index in a {@code byte[]} table, also marking empty slots. */
+  private static final int BYTE_MASK = (1 << Byte.SIZE) - 1;
+
+  /** The mask of an unsigned entry index in a {@code short[]} table, also marking empty slots. */
+  private static final int SHORT_MASK = (1 << Short.SIZE) - 1;
+
+  /** The value of an empty slot in an {@code int[]} table. */
+  private static final int ABSENT = -1;
+
+  /**
+   * If a run of more than this many times the log of the table size consecutive slots is filled,
+   * we report probable hash flooding and fall back to {@link JdkBackedImmutableMap}, as {@link
+   * ImmutableSet} does for its own hash tables.
+   */
+  @VisibleForTesting static final int MAX_RUN_MULTIPLIER = 13;
+
+  // keys and values of the entries in insertion order: key0, value0, key1, value1, ...
+  @VisibleForTesting final transient Object[] alternatingKeysAndValues;
+  // byte[], short[] or int[] of the entry index of each slot of the hash table
+  private final transient Object hashTable;
+  // 'and' with an int to get a table index
+  private final transient int mask;
+  private final transient int size;
+
+  /**
+   * Creates an ImmutableMap from the first n entries in entryArray, or throws an exception if any
+   * key appears more than once. Falls back to a {@link JdkBackedImmutableMap} if the hash codes of
+   * the keys look like a hash flooding attack.
+   *
+   * @throws IllegalArgumentException if a key appears more than once
+   */
+  static <K, V> ImmutableMap<K, V> fromEntryArray(int n, @Nullable Entry<K, V>[] entryArray) {
+    checkPositionIndex(n, entryArray.length);
+    if (n == 0) {
+      return ImmutableMap.of();
+    }
+    Object[] alternatingKeysAndValues = new Object[2 * n];
+    for (int i = 0; i < n; i++) {
+      // requireNonNull is safe because the first `n` elements have been filled in.
+      Entry<K, V> entry = requireNonNull(entryArray[i]);
+      K key = entry.getKey();
+      V value = entry.getValue();
+      checkEntryNotNull(key, value);
+      alternatingKeysAndValues[2 * i] = key;
+      alternatingKeysAndValues[2 * i + 1] = value;
+    }
+    int tableSize = ImmutableSet.chooseTableSize(n);
+    if (2 * tableSize <= BYTE_MAX_SIZE) {
+      // Halving the load factor of a byte[] table costs at most 128 bytes, and shortens the probe
+      // sequences enough for lookups to be as fast as in RegularImmutableMap.
+      tableSize *= 2;
+    }
+    int maxRunBeforeFallback =
+        MAX_RUN_MULTIPLIER * IntMath.log2(tableSize, RoundingMode.UNNECESSARY);
+    Object hashTable =
+        createHashTable(alternatingKeysAndValues, n, tableSize, maxRunBeforeFallback);
+    if (hashTable == null || hashFloodingDetected(hashTable, tableSize, maxRunBeforeFallback)) {
+      return JdkBackedImmutableMap.create(n, entryArray, /* throwIfDuplicateKeys= */ true);
+    }
+    return new CompactImmutableMap<>(alternatingKeysAndValues, hashTable, tableSize - 1, n);
+  }
+
+  /**
+   * Returns a hash table of the given size for the first {@code n} keys of {@code
+   * alternatingKeysAndValues}, or null if inserting a key takes more than {@code
+   * maxRunBeforeFallback} probes, which detects many equal hash codes before building the table
+   * takes quadratic time.
+   *
+   * @throws IllegalArgumentException if a key appears more than once
+   */
+  @CheckForNull
+  private static Object createHashTable(
+      Object[] alternatingKeysAndValues, int n, int tableSize, int maxRunBeforeFallback) {
+    int mask = tableSize - 1;
+    if (tableSize <= BYTE_MAX_SIZE) {
+      byte[] table = new byte[tableSize];
+      Arrays.fill(table, (byte) BYTE_MASK);
+      for (int i = 0; i < n; i++) {
+        Object key = alternatingKeysAndValues[2 * i];
+        for (int h = Hashing.smear(key.hashCode()), probes = 0; ; h++, probes++) {
+          h &= mask;
+          int existing = table[h] & BYTE_MASK;
+          if (existing == BYTE_MASK) {
+            table[h] = (byte) i;
+            break;
+          }
+          checkNoDuplicate(alternatingKeysAndValues, existing, i);
+          if (probes >= maxRunBeforeFallback) {
+            return null;
+          }
+        }
+      }
+      return table;
+    } else if (tableSize <= SHORT_MAX_SIZE) {
+      short[] table = new short[tableSize];
+      Arrays.fill(table, (short) SHORT_MASK);
+      for (int i = 0; i < n; i++) {
+        Object key = alternatingKeysAndValues[2 * i];
+        for (int h = Hashing.smear(key.hashCode()), probes = 0; ; h++, probes++) {
+          h &= mask;
+          int existing = table[h] & SHORT_MASK;
+          if (existing == SHORT_MASK) {
+            table[h] = (short) i;
+            break;
+          }
+          checkNoDuplicate(alternatingKeysAndValues, existing, i);
+          if (probes >= maxRunBeforeFallback) {
+            return null;
+          }
+        }
+      }
+      return table;
+    } else {
+      int[] table = new int[tableSize];
+      Arrays.fill(table, ABSENT);
+      for (int i = 0; i < n; i++) {
+        Object key = alternatingKeysAndValues[2 * i];
+        for (int h = Hashing.smear(key.hashCode()), probes = 0; ; h++, probes++) {
+          h &= mask;
+          int existing = table[h];
+          if (existing == ABSENT) {
+            table[h] = i;
+            break;
+          }
+          checkNoDuplicate(alternatingKeysAndValues, existing, i);
+          if (probes >= maxRunBeforeFallback) {
+            return null;
+          }
+        }
+      }
+      return table;
+    }
+  }
+
+  private static void checkNoDuplicate(Object[] alternatingKeysAndValues, int existing, int i) {
+    Object key = alternatingKeysAndValues[2 * i];
+    if (key.equals(alternatingKeysAndValues[2 * existing])) {
+      throw conflictException(
+          "key",
+          key + "=" + alternatingKeysAndValues[2 * existing + 1],
+          key + "=" + alternatingKeysAndValues[2 * i + 1]);
+    }
+  }
+
+  /**
+   * Returns whether the table has a run of filled slots that is long enough to suggest a hash
+   * flooding attack, which would make queries for keys in that run take linear time.
+   */
+  private static boolean hashFloodingDetected(
+      Object hashTable, int tableSize, int maxRunBeforeFallback) {
+    // a run may wrap around the end of the table, so we start after an empty slot
+    int start = 0;
+    while (isFilled(hashTable, start)) {
+      start++;
+    }
+    int run = 0;
+    for (int i = 1; i <= tableSize; i++) {
+      if (isFilled(hashTable, (start + i) & (tableSize - 1))) {
+        if (++run > maxRunBeforeFallback) {
+          return true;
+        }
+      } else {
+        run = 0;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isFilled(Object hashTable, int index) {
+    if (hashTable instanceof byte[]) {
+      return (((byte[]) hashTable)[index] & BYTE_MASK) != BYTE_MASK;
+    } else if (hashTable instanceof short[]) {
+      return (((short[]) hashTable)[index] & SHORT_MASK) != SHORT_MASK;
+    } else {
+      return ((int[]) hashTable)[index] != ABSENT;
+    }
+  }
+
+  private CompactImmutableMap(
+      Object[] alternatingKeysAndValues, Object hashTable, int mask, int size) {
+    this.alternatingKeysAndValues = alternatingKeysAndValues;
+    this.hashTable = hashTable;
+    this.mask = mask;
+    this.size = size;
+  }
+
+  @Override
+  @CheckForNull
+  public V get(@CheckForNull Object key) {
+    @SuppressWarnings("unchecked") // we only store V's at odd indexes
+    V value = (V) get(hashTable, alternatingKeysAndValues, mask, key);
+    return value;
+  }
+
+  @CheckForNull
+  private static Object get(
+      Object hashTable, Object[] alternatingKeysAndValues, int mask, @CheckForNull Object key) {
+    if (key == null) {
+      return null;
+    }
+    /*
+     * As in RegularImmutableMap, assume that equals uses the == optimization when appropriate, and
+     * that it would check hash codes as an optimization when appropriate.
+     */
+    if (hashTable instanceof byte[]) {
+      byte[] table = (byte[]) hashTable;
+      for (int h = Hashing.smear(key.hashCode()); ; h++) {
+        h &= mask;
+        int index = table[h] & BYTE_MASK;
+        if (index == BYTE_MASK) {
+          return null;
+        } else if (key.equals(alternatingKeysAndValues[2 * index])) {
+          return alternatingKeysAndValues[2 * index + 1];
+        }
+      }
+    } else if (hashTable instanceof short[]) {
+      short[] table = (short[]) hashTable;
+      for (int h = Hashing.smear(key.hashCode()); ; h++) {
+        h &= mask;
+        int index = table[h] & SHORT_MASK;
+        if (index == SHORT_MASK) {
+          return null;
+        } else if (key.equals(alternatingKeysAndValues[2 * index])) {
+          return alternatingKeysAndValues[2 * index + 1];
+        }
+      }
+    } else {
+      int[] table = (int[]) hashTable;
+      for (int h = Hashing.smear(key.hashCode()); ; h++) {
+        h &= mask;
+        int index = table[h];
+        if (index == ABSENT) {
+          return null;
+        } else if (key.equals(alternatingKeysAndValues[2 * index])) {
+          return alternatingKeysAndValues[2 * index + 1];
+        }
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // we only store K's at even indexes and V's at odd indexes
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    for (int i = 0; i < size; i++) {
+      action.accept((K) alternatingKeysAndValues[2 * i], (V) alternatingKeysAndValues[2 * i + 1]);
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  boolean isPartialView() {
+    return false;
+  }
+
+  @SuppressWarnings("unchecked") // we only store K's at even indexes
+  K keyAt(int index) {
+    return (K) alternatingKeysAndValues[2 * index];
+  }
+
+  @SuppressWarnings("unchecked") // we only store V's at odd indexes
+  V valueAt(int index) {
+    return (V) alternatingKeysAndValues[2 * index + 1];
+  }
+
+  @Override
+  ImmutableSet<Entry<K, V>> createEntrySet() {
+    return new EntrySet<>(this);
+  }
+
+  @Override
+  ImmutableSet<K> createKeySet() {
+    return new KeySet<>(this);
+  }
+
+  @Override
+  ImmutableCollection<V> createValues() {
+    return new Values<>(this);
+  }
+
+  private static final class EntrySet<K, V> extends ImmutableMapEntrySet<K, V> {
+    private final transient CompactImmutableMap<K, V> map;
+
+    EntrySet(CompactImmutableMap<K, V> map) {
+      this.map = map;
+    }
+
+    @Override
+    ImmutableMap<K, V> map() {
+      return map;
+    }
+
+    @Override
+    public UnmodifiableIterator<Entry<K, V>> iterator() {
+      return asList().iterator();
+    }
+
+    @Override
+    ImmutableList<Entry<K, V>> createAsList() {
+      return new ImmutableList<Entry<K, V>>() {
+        @Override
+        public Entry<K, V> get(int index) {
+          return Maps.immutableEntry(map.keyAt(index), map.valueAt(index));
+        }
+
+        @Override
+        public int size() {
+          return map.size();
+        }
+
+        @Override
+        boolean isPartialView() {
+          return true;
+        }
+      };
+    }
+  }
+
+  private static final class KeySet<K> extends IndexedImmutableSet<K> {
+    private final CompactImmutableMap<K, ?> map;
+
+    KeySet(CompactImmutableMap<K, ?> map) {
+      this.map = map;
+    }
+
+    @Override
+    K get(int index) {
+      return map.keyAt(index);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return map.containsKey(object);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+  }
+
+  private static final class Values<K, V> extends ImmutableList<V> {
+    final CompactImmutableMap<K, V> map;
+
+    Values(CompactImmutableMap<K, V> map) {
+      this.map = map;
+    }
+
+    @Override
+    public V get(int index) {
+      return map.valueAt(index);
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+  }
+
+  // This class is never actually serialized directly, but we have to make the
+  // warning go away (and suppressing would suppress for all nested classes too)
+  @J2ktIncompatible // serialization
+  private static final long serialVersionUID = 0;
+}
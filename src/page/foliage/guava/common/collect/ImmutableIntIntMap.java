@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * An immutable {@link IntIntMap}, whose arrays are no larger than its entries need.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class ImmutableIntIntMap extends IntIntMap {
+  private static final ImmutableIntIntMap EMPTY = new ImmutableIntIntMap(0);
+
+  /** Returns the empty {@code ImmutableIntIntMap}. */
+  public static ImmutableIntIntMap of() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns an {@code ImmutableIntIntMap} of the entries of {@code map}, in the same order. If
+   * {@code map} is an {@code ImmutableIntIntMap}, it is returned as is.
+   */
+  public static ImmutableIntIntMap copyOf(IntIntMap map) {
+    if (map instanceof ImmutableIntIntMap) {
+      return (ImmutableIntIntMap) map;
+    }
+    if (map.isEmpty()) {
+      return EMPTY;
+    }
+    ImmutableIntIntMap copy = new ImmutableIntIntMap(map.size);
+    for (int i = 0; i < map.size; i++) {
+      copy.values[~copy.insert(map.keys[i])] = map.values[i];
+    }
+    return copy;
+  }
+
+  /**
+   * Returns an {@code ImmutableIntIntMap} of the entries of {@code map}, in its iteration order.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   */
+  public static ImmutableIntIntMap copyOf(Map<Integer, Integer> map) {
+    if (map.isEmpty()) {
+      return EMPTY;
+    }
+    ImmutableIntIntMap copy = new ImmutableIntIntMap(map.size());
+    for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+      int index = copy.insert(entry.getKey());
+      checkArgument(index < 0, "duplicate key: %s", entry.getKey());
+      copy.values[~index] = entry.getValue();
+    }
+    return copy;
+  }
+
+  private ImmutableIntIntMap(int expectedSize) {
+    super(expectedSize);
+  }
+}
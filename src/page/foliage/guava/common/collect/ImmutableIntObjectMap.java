@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.collect.CollectPreconditions.checkEntryNotNull;
+
+import java.util.Map;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * An immutable {@link IntObjectMap}, whose arrays are no larger than its entries need.
+ *
+ * <p>Instances are immutable and thread-safe if their values are.
+ *
+ * @param <V> the type of the values
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class ImmutableIntObjectMap<V> extends IntObjectMap<V> {
+  private static final ImmutableIntObjectMap<Object> EMPTY = new ImmutableIntObjectMap<>(0);
+
+  /** Returns the empty {@code ImmutableIntObjectMap}. */
+  @SuppressWarnings("unchecked") // it has no values
+  public static <V> ImmutableIntObjectMap<V> of() {
+    return (ImmutableIntObjectMap<V>) EMPTY;
+  }
+
+  /**
+   * Returns an {@code ImmutableIntObjectMap} of the entries of {@code map}, in the same order. If
+   * {@code map} is an {@code ImmutableIntObjectMap}, it is returned as is.
+   */
+  @SuppressWarnings("unchecked") // immutable, so covariant
+  public static <V> ImmutableIntObjectMap<V> copyOf(IntObjectMap<? extends V> map) {
+    if (map instanceof ImmutableIntObjectMap) {
+      return (ImmutableIntObjectMap<V>) map;
+    }
+    if (map.isEmpty()) {
+      return of();
+    }
+    ImmutableIntObjectMap<V> copy = new ImmutableIntObjectMap<>(map.size);
+    for (int i = 0; i < map.size; i++) {
+      copy.values[~copy.insert(map.keys[i])] = map.values[i];
+    }
+    return copy;
+  }
+
+  /**
+   * Returns an {@code ImmutableIntObjectMap} of the entries of {@code map}, in its iteration
+   * order.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   */
+  public static <V> ImmutableIntObjectMap<V> copyOf(Map<Integer, ? extends V> map) {
+    if (map.isEmpty()) {
+      return of();
+    }
+    ImmutableIntObjectMap<V> copy = new ImmutableIntObjectMap<>(map.size());
+    for (Map.Entry<Integer, ? extends V> entry : map.entrySet()) {
+      checkEntryNotNull(entry.getKey(), entry.getValue());
+      int index = copy.insert(entry.getKey());
+      checkArgument(index < 0, "duplicate key: %s", entry.getKey());
+      copy.values[~index] = entry.getValue();
+    }
+    return copy;
+  }
+
+  private ImmutableIntObjectMap(int expectedSize) {
+    super(expectedSize);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * An immutable {@link LongLongMap}, whose arrays are no larger than its entries need.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class ImmutableLongLongMap extends LongLongMap {
+  private static final ImmutableLongLongMap EMPTY = new ImmutableLongLongMap(0);
+
+  /** Returns the empty {@code ImmutableLongLongMap}. */
+  public static ImmutableLongLongMap of() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns an {@code ImmutableLongLongMap} of the entries of {@code map}, in the same order. If
+   * {@code map} is an {@code ImmutableLongLongMap}, it is returned as is.
+   */
+  public static ImmutableLongLongMap copyOf(LongLongMap map) {
+    if (map instanceof ImmutableLongLongMap) {
+      return (ImmutableLongLongMap) map;
+    }
+    if (map.isEmpty()) {
+      return EMPTY;
+    }
+    ImmutableLongLongMap copy = new ImmutableLongLongMap(map.size);
+    for (int i = 0; i < map.size; i++) {
+      copy.values[~copy.insert(map.keys[i])] = map.values[i];
+    }
+    return copy;
+  }
+
+  /**
+   * Returns an {@code ImmutableLongLongMap} of the entries of {@code map}, in its iteration order.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   */
+  public static ImmutableLongLongMap copyOf(Map<Long, Long> map) {
+    if (map.isEmpty()) {
+      return EMPTY;
+    }
+    ImmutableLongLongMap copy = new ImmutableLongLongMap(map.size());
+    for (Map.Entry<Long, Long> entry : map.entrySet()) {
+      int index = copy.insert(entry.getKey());
+      checkArgument(index < 0, "duplicate key: %s", entry.getKey());
+      copy.values[~index] = entry.getValue();
+    }
+    return copy;
+  }
+
+  private ImmutableLongLongMap(int expectedSize) {
+    super(expectedSize);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import java.util.Collection;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * An immutable {@link LongSet}, whose arrays are no larger than its values need. Its values are
+ * indexed in the order in which they were first given to the factory method.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class ImmutableLongSet extends LongSet {
+  private static final ImmutableLongSet EMPTY = new ImmutableLongSet(0);
+
+  /** Returns the empty {@code ImmutableLongSet}. */
+  public static ImmutableLongSet of() {
+    return EMPTY;
+  }
+
+  /** Returns an {@code ImmutableLongSet} of the given values, ignoring duplicates. */
+  public static ImmutableLongSet of(long... values) {
+    return copyOf(values);
+  }
+
+  /** Returns an {@code ImmutableLongSet} of the given values, ignoring duplicates. */
+  public static ImmutableLongSet copyOf(long[] values) {
+    if (values.length == 0) {
+      return EMPTY;
+    }
+    ImmutableLongSet set = new ImmutableLongSet(values.length);
+    for (long value : values) {
+      set.insert(value);
+    }
+    return set.size == values.length ? set : copyOf(set);
+  }
+
+  /** Returns an {@code ImmutableLongSet} of the given values, ignoring duplicates. */
+  public static ImmutableLongSet copyOf(Collection<Long> values) {
+    long[] array = new long[values.size()];
+    int i = 0;
+    for (Long value : values) {
+      array[i++] = value;
+    }
+    return copyOf(array);
+  }
+
+  /**
+   * Returns an {@code ImmutableLongSet} of the values of {@code set}, in the same order. If {@code
+   * set} is an {@code ImmutableLongSet}, it is returned as is.
+   */
+  public static ImmutableLongSet copyOf(LongSet set) {
+    if (set instanceof ImmutableLongSet) {
+      return (ImmutableLongSet) set;
+    }
+    if (set.isEmpty()) {
+      return EMPTY;
+    }
+    ImmutableLongSet copy = new ImmutableLongSet(set.size);
+    for (int i = 0; i < set.size; i++) {
+      copy.insert(set.keys[i]);
+    }
+    return copy;
+  }
+
+  private ImmutableLongSet(int expectedSize) {
+    super(expectedSize);
+  }
+}
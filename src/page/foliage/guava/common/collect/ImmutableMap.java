@@ -573,6 +573,9 @@ public abstract class ImmutableMap<K, V> implements Map<K, V>, Serializable {
         localEntries = (@Nullable Entry<K, V>[]) nonNullEntries;
       }
       entriesUsed = true;
+      if (throwIfDuplicateKeys) {
+        return CompactImmutableMap.fromEntryArray(localSize, localEntries);
+      }
       return RegularImmutableMap.fromEntryArray(localSize, localEntries, throwIfDuplicateKeys);
     }
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.collect.CompactHashing.UNSET;
+
+import java.util.Arrays;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * The hash table of {@code int} keys behind {@link IntIntMap} and {@link IntObjectMap}, laid out
+ * as in {@link CompactHashMap}: the keys are stored densely in insertion order, {@code table} (a
+ * {@code byte[]}, {@code short[]} or {@code int[]}) holds one plus the index of the first key of
+ * each bucket, and {@code entries} holds one plus the index of the next key of the same bucket.
+ * Unlike {@code CompactHashMap}, the entries do not cache hash prefixes, because rehashing a
+ * primitive key is cheaper than storing its hash.
+ *
+ * <p>Removing a key moves the last key into its index, so removals do not preserve insertion
+ * order. Subclasses that store values alongside the keys keep them in step by overriding {@link
+ * #resizeValues} and {@link #moveValue}.
+ */
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+abstract class IntHashIndex {
+  private Object table;
+  private int[] entries;
+  int[] keys;
+  // 'and' with an int to get a table index
+  private int mask;
+  int size;
+
+  IntHashIndex(int expectedSize) {
+    checkArgument(expectedSize >= 0, "Expected size must be >= 0");
+    int capacity = Math.max(1, Math.min(expectedSize, CompactHashing.MAX_SIZE));
+    int buckets = CompactHashing.tableSize(capacity);
+    this.table = CompactHashing.createTable(buckets);
+    this.mask = buckets - 1;
+    this.entries = new int[capacity];
+    this.keys = new int[capacity];
+  }
+
+  static int hash(int key) {
+    return Hashing.smear(key);
+  }
+
+  /** Returns the index of {@code key}, or -1 if it is absent. */
+  final int indexOf(int key) {
+    int next = CompactHashing.tableGet(table, hash(key) & mask);
+    while (next != UNSET) {
+      int index = next - 1;
+      if (keys[index] == key) {
+        return index;
+      }
+      next = entries[index];
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of {@code key}, if present. Otherwise, adds it at index {@code size} and
+   * returns the bitwise complement of that index, which is negative.
+   */
+  final int insert(int key) {
+    int hash = hash(key);
+    int tableIndex = hash & mask;
+    int next = CompactHashing.tableGet(table, tableIndex);
+    while (next != UNSET) {
+      int index = next - 1;
+      if (keys[index] == key) {
+        return index;
+      }
+      next = entries[index];
+    }
+    int newIndex = size;
+    int newSize = newIndex + 1;
+    checkArgument(newSize <= CompactHashing.MAX_SIZE, "collection too large");
+    if (newSize > keys.length) {
+      // 1.5x but round up to nearest odd, as CompactHashMap does
+      int newCapacity =
+          Math.min(CompactHashing.MAX_SIZE, (keys.length + Math.max(1, keys.length >>> 1)) | 1);
+      entries = Arrays.copyOf(entries, newCapacity);
+      keys = Arrays.copyOf(keys, newCapacity);
+      resizeValues(newCapacity);
+    }
+    keys[newIndex] = key;
+    size = newSize;
+    if (newSize > mask) {
+      resizeTable(CompactHashing.newCapacity(mask));
+    } else {
+      entries[newIndex] = CompactHashing.tableGet(table, tableIndex);
+      CompactHashing.tableSet(table, tableIndex, newSize);
+    }
+    return ~newIndex;
+  }
+
+  private void resizeTable(int buckets) {
+    Object newTable = CompactHashing.createTable(buckets);
+    int newMask = buckets - 1;
+    for (int index = 0; index < size; index++) {
+      int tableIndex = hash(keys[index]) & newMask;
+      entries[index] = CompactHashing.tableGet(newTable, tableIndex);
+      CompactHashing.tableSet(newTable, tableIndex, index + 1);
+    }
+    table = newTable;
+    mask = newMask;
+  }
+
+  /**
+   * Removes the key at {@code index}, and moves the last key (and its value) into that index.
+   */
+  final void removeAt(int index) {
+    unlink(index);
+    int last = size - 1;
+    if (index < last) {
+      // point whatever pointed at the last key at its new index instead
+      int tableIndex = hash(keys[last]) & mask;
+      int next = CompactHashing.tableGet(table, tableIndex);
+      if (next == last + 1) {
+        CompactHashing.tableSet(table, tableIndex, index + 1);
+      } else {
+        while (entries[next - 1] != last + 1) {
+          next = entries[next - 1];
+        }
+        entries[next - 1] = index + 1;
+      }
+      keys[index] = keys[last];
+      entries[index] = entries[last];
+    }
+    moveValue(last, index);
+    entries[last] = UNSET;
+    size = last;
+  }
+
+  private void unlink(int index) {
+    int tableIndex = hash(keys[index]) & mask;
+    int next = CompactHashing.tableGet(table, tableIndex);
+    if (next == index + 1) {
+      CompactHashing.tableSet(table, tableIndex, entries[index]);
+    } else {
+      while (entries[next - 1] != index + 1) {
+        next = entries[next - 1];
+      }
+      entries[next - 1] = entries[index];
+    }
+  }
+
+  /** Removes all keys, keeping the current capacity. */
+  final void clearIndex() {
+    CompactHashing.tableClear(table);
+    Arrays.fill(entries, 0, size, UNSET);
+    size = 0;
+  }
+
+  /** Resizes the arrays of values, if any, to the given capacity. */
+  void resizeValues(int newCapacity) {}
+
+  /**
+   * Moves the value at index {@code from}, if any, to index {@code to}, which is the same index if
+   * the last key was removed, and then clears any value that is left at index {@code from}.
+   */
+  void moveValue(int from, int to) {}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * A mutable {@link IntIntMap}. Putting, removing and looking up an entry take expected constant
+ * time, without boxing or any other allocation except when the map grows. An entry takes about 16
+ * to 20 bytes, compared to about 70 for a {@code HashMap<Integer, Integer>}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class IntIntHashMap extends IntIntMap {
+  /** Creates an empty {@code IntIntHashMap}. */
+  public static IntIntHashMap create() {
+    return new IntIntHashMap(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates an empty {@code IntIntHashMap} that can hold {@code expectedSize} entries without
+   * growing.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static IntIntHashMap createWithExpectedSize(int expectedSize) {
+    return new IntIntHashMap(expectedSize);
+  }
+
+  private IntIntHashMap(int expectedSize) {
+    super(expectedSize);
+  }
+
+  /** Associates {@code value} with {@code key}, replacing any previous value. */
+  public void put(int key, int value) {
+    int index = insert(key);
+    values[index < 0 ? ~index : index] = value;
+  }
+
+  /**
+   * Adds {@code delta} to the value for {@code key}, which is 0 if there is none, and returns the
+   * new value.
+   */
+  @CanIgnoreReturnValue
+  public int addTo(int key, int delta) {
+    int index = insert(key);
+    if (index < 0) {
+      return values[~index] = delta;
+    }
+    return values[index] += delta;
+  }
+
+  /** Removes the entry for {@code key}, and returns whether there was one. */
+  @CanIgnoreReturnValue
+  public boolean remove(int key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return false;
+    }
+    removeAt(index);
+    return true;
+  }
+
+  /** Removes all entries from this map. */
+  public void clear() {
+    clearIndex();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+
+import javax.annotation.CheckForNull;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * A map from {@code int} keys to {@code int} values, which stores them in a hash table of
+ * primitive arrays rather than boxing them. It is either an {@link IntIntHashMap} or an {@link
+ * ImmutableIntIntMap}.
+ *
+ * <p>The entries are stored densely, and can be read by their index, from 0 to {@code size() - 1},
+ * without any allocation. If no entries have been removed, the indexes follow insertion order.
+ * Removing an entry moves the last entry to its index.
+ *
+ * <p>Two {@code IntIntMap} instances are equal if they contain the same entries, regardless of
+ * their order or mutability.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public abstract class IntIntMap extends IntHashIndex {
+  int[] values;
+
+  IntIntMap(int expectedSize) {
+    super(expectedSize);
+    this.values = new int[keys.length];
+  }
+
+  @Override
+  final void resizeValues(int newCapacity) {
+    values = Arrays.copyOf(values, newCapacity);
+  }
+
+  @Override
+  final void moveValue(int from, int to) {
+    values[to] = values[from];
+    values[from] = 0;
+  }
+
+  /** Returns whether this map contains an entry for {@code key}. */
+  public final boolean containsKey(int key) {
+    return indexOf(key) >= 0;
+  }
+
+  /** Returns the value for {@code key}, or {@code defaultValue} if there is none. */
+  public final int getOrDefault(int key, int defaultValue) {
+    int index = indexOf(key);
+    return index < 0 ? defaultValue : values[index];
+  }
+
+  /** Returns the number of entries in this map. */
+  public final int size() {
+    return size;
+  }
+
+  /** Returns whether this map has no entries. */
+  public final boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the key of the entry at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size}
+   */
+  public final int keyAt(int index) {
+    checkElementIndex(index, size);
+    return keys[index];
+  }
+
+  /**
+   * Returns the value of the entry at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size}
+   */
+  public final int valueAt(int index) {
+    checkElementIndex(index, size);
+    return values[index];
+  }
+
+  @Override
+  public final boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof IntIntMap) {
+      IntIntMap that = (IntIntMap) object;
+      if (this.size != that.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        int index = that.indexOf(keys[i]);
+        if (index < 0 || that.values[index] != values[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /** Returns the same hash code as a {@code Map<Integer, Integer>} of the same entries. */
+  @Override
+  public final int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < size; i++) {
+      hashCode += keys[i] ^ values[i];
+    }
+    return hashCode;
+  }
+
+  @Override
+  public final String toString() {
+    StringBuilder builder = new StringBuilder(size * 16).append('{');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]).append('=').append(values[i]);
+    }
+    return builder.append('}').toString();
+  }
+}
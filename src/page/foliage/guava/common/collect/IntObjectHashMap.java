@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * A mutable {@link IntObjectMap}. Putting, removing and looking up an entry take expected
+ * constant time, without boxing the key or any other allocation except when the map grows. An
+ * entry takes about 12 to 16 bytes plus the value, compared to about 55 for a {@code
+ * HashMap<Integer, V>}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @param <V> the type of the values
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class IntObjectHashMap<V> extends IntObjectMap<V> {
+  /** Creates an empty {@code IntObjectHashMap}. */
+  public static <V> IntObjectHashMap<V> create() {
+    return new IntObjectHashMap<>(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates an empty {@code IntObjectHashMap} that can hold {@code expectedSize} entries without
+   * growing.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static <V> IntObjectHashMap<V> createWithExpectedSize(int expectedSize) {
+    return new IntObjectHashMap<>(expectedSize);
+  }
+
+  private IntObjectHashMap(int expectedSize) {
+    super(expectedSize);
+  }
+
+  /**
+   * Associates {@code value} with {@code key}, and returns the previous value for {@code key}, or
+   * null if there was none.
+   */
+  @CanIgnoreReturnValue
+  @CheckForNull
+  public V put(int key, V value) {
+    checkNotNull(value);
+    int index = insert(key);
+    if (index < 0) {
+      values[~index] = value;
+      return null;
+    }
+    V previous = value(index);
+    values[index] = value;
+    return previous;
+  }
+
+  /**
+   * Returns the value for {@code key}. If there is none, computes it with {@code mappingFunction},
+   * stores it and returns it.
+   *
+   * @throws NullPointerException if {@code mappingFunction} returns null
+   */
+  public V computeIfAbsent(int key, IntFunction<? extends V> mappingFunction) {
+    checkNotNull(mappingFunction);
+    int index = indexOf(key);
+    if (index >= 0) {
+      return value(index);
+    }
+    V value = checkNotNull(mappingFunction.apply(key), "mappingFunction returned null");
+    // the function may have modified this map, so look the key up again
+    index = insert(key);
+    values[index < 0 ? ~index : index] = value;
+    return value;
+  }
+
+  /** Removes the entry for {@code key}, and returns its value, or null if there was none. */
+  @CanIgnoreReturnValue
+  @CheckForNull
+  public V remove(int key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return null;
+    }
+    V previous = value(index);
+    removeAt(index);
+    return previous;
+  }
+
+  /** Removes all entries from this map. */
+  public void clear() {
+    Arrays.fill(values, 0, size, null);
+    clearIndex();
+  }
+}
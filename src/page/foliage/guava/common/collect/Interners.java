@@ -18,6 +18,7 @@ import static page.foliage.guava.common.base.Preconditions.checkNotNull;
 
 import javax.annotation.CheckForNull;
 
+import page.foliage.guava.common.annotations.Beta;
 import page.foliage.guava.common.annotations.GwtIncompatible;
 import page.foliage.guava.common.annotations.J2ktIncompatible;
 import page.foliage.guava.common.annotations.VisibleForTesting;
@@ -113,6 +114,35 @@ public final class Interners {
     return newBuilder().weak().build();
   }
 
+  /** The number of stripes that lock-free interners have by default. */
+  static final int DEFAULT_CONCURRENCY_LEVEL = 4 * Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Returns a new thread-safe interner which retains a strong reference to each instance it has
+   * interned, and which never locks to look up or add an instance. Unlike {@link
+   * #newStrongInterner}, whose additions lock a segment of the underlying map, it scales to many
+   * threads interning new instances at once. For strings, {@link StringInterner} can also intern
+   * character sequences and UTF-8 bytes without creating a {@code String} for each lookup.
+   *
+   * @since 32.1.3
+   */
+  @Beta
+  public static <E> Interner<E> newLockFreeInterner() {
+    return new LockFreeInterner<>(DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Returns a new lock-free interner, as by {@link #newLockFreeInterner()}, which is tuned for
+   * about {@code concurrencyLevel} threads adding instances at once.
+   *
+   * @throws IllegalArgumentException if {@code concurrencyLevel} is not positive
+   * @since 32.1.3
+   */
+  @Beta
+  public static <E> Interner<E> newLockFreeInterner(int concurrencyLevel) {
+    return new LockFreeInterner<>(concurrencyLevel);
+  }
+
   @VisibleForTesting
   static final class InternerImpl<E> implements Interner<E> {
     // MapMaker is our friend, we know about this type
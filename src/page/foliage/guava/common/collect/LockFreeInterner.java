@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.annotations.J2ktIncompatible;
+import page.foliage.guava.common.math.IntMath;
+
+/**
+ * A strong {@link Interner} that never locks to find or add an instance. The instances are spread
+ * over stripes by the high bits of their hash, and each stripe is an open-addressing table whose
+ * slots are claimed by a compare-and-set, so threads only contend when they add to the same slot.
+ *
+ * <p>A slot goes from null to an instance, and then only to {@link #MOVED} when the stripe is
+ * resized. Resizing a stripe is the only step that takes a lock: the resizing thread copies each
+ * instance to the new table before marking its slot as moved (and marks empty slots so that no
+ * instance can be added to them), and a thread that finds a moved slot waits for the resize to
+ * finish before probing the new table. So an instance is never lost or added twice.
+ */
+@J2ktIncompatible
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+class LockFreeInterner<E> implements Interner<E> {
+  /** Marks a slot of a table that is being replaced. */
+  static final Object MOVED = new Object();
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  static final class Stripe {
+    volatile AtomicReferenceArray<Object> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    final AtomicInteger count = new AtomicInteger();
+  }
+
+  private final Stripe[] stripes;
+  private final int stripeShift;
+
+  LockFreeInterner(int concurrencyLevel) {
+    checkArgument(concurrencyLevel > 0, "concurrencyLevel must be positive: %s", concurrencyLevel);
+    // at least two stripes, so that the shift is less than 32
+    int stripeCount = IntMath.ceilingPowerOfTwo(Math.max(2, Math.min(concurrencyLevel, 1 << 16)));
+    this.stripes = new Stripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe();
+    }
+    this.stripeShift = Integer.numberOfLeadingZeros(stripeCount) + 1;
+  }
+
+  static int hash(Object instance) {
+    return Hashing.smear(instance.hashCode());
+  }
+
+  /** Returns the current table of the stripe for {@code hash}. */
+  final AtomicReferenceArray<Object> table(int hash) {
+    return stripes[hash >>> stripeShift].table;
+  }
+
+  @Override
+  public E intern(E sample) {
+    int hash = hash(checkNotNull(sample));
+    Stripe stripe = stripes[hash >>> stripeShift];
+    AtomicReferenceArray<Object> table = stripe.table;
+    while (true) {
+      int mask = table.length() - 1;
+      int i = hash & mask;
+      while (true) {
+        Object element = table.get(i);
+        if (element == null) {
+          if (table.compareAndSet(i, null, sample)) {
+            if (stripe.count.incrementAndGet() > table.length() >>> 1) {
+              resize(stripe, table);
+            }
+            return sample;
+          }
+          // another thread claimed the slot first, so look at it again
+          continue;
+        }
+        if (element == MOVED) {
+          break;
+        }
+        if (element.equals(sample)) {
+          @SuppressWarnings("unchecked") // only Es are added
+          E canonical = (E) element;
+          return canonical;
+        }
+        i = (i + 1) & mask;
+      }
+      table = awaitResize(stripe);
+    }
+  }
+
+  private static AtomicReferenceArray<Object> awaitResize(Stripe stripe) {
+    synchronized (stripe) {
+      return stripe.table;
+    }
+  }
+
+  private static void resize(Stripe stripe, AtomicReferenceArray<Object> table) {
+    synchronized (stripe) {
+      int length = table.length();
+      if (stripe.table != table || length == MAXIMUM_CAPACITY) {
+        return;
+      }
+      AtomicReferenceArray<Object> newTable = new AtomicReferenceArray<>(length * 2);
+      int newMask = length * 2 - 1;
+      for (int i = 0; i < length; i++) {
+        Object element = table.get(i);
+        // mark an empty slot as moved, so that no instance can be added to it
+        while (element == null && !table.compareAndSet(i, null, MOVED)) {
+          element = table.get(i);
+        }
+        if (element != null) {
+          int j = hash(element) & newMask;
+          while (newTable.get(j) != null) {
+            j = (j + 1) & newMask;
+          }
+          newTable.lazySet(j, element);
+          table.set(i, MOVED);
+        }
+      }
+      stripe.table = newTable;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * A mutable {@link LongSet}. Adding, removing and looking up a value take expected constant time,
+ * without boxing or any other allocation except when the set grows. A value takes about 12 to 16
+ * bytes, compared to about 60 for a {@code HashSet<Long>}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class LongHashSet extends LongSet {
+  /** Creates an empty {@code LongHashSet}. */
+  public static LongHashSet create() {
+    return new LongHashSet(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates an empty {@code LongHashSet} that can hold {@code expectedSize} values without
+   * growing.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static LongHashSet createWithExpectedSize(int expectedSize) {
+    return new LongHashSet(expectedSize);
+  }
+
+  /** Creates a {@code LongHashSet} of the given values. */
+  public static LongHashSet create(long... values) {
+    LongHashSet set = new LongHashSet(values.length);
+    for (long value : values) {
+      set.add(value);
+    }
+    return set;
+  }
+
+  private LongHashSet(int expectedSize) {
+    super(expectedSize);
+  }
+
+  /** Adds {@code value} to this set, and returns whether it was absent. */
+  @CanIgnoreReturnValue
+  public boolean add(long value) {
+    return insert(value) < 0;
+  }
+
+  /** Removes {@code value} from this set, and returns whether it was present. */
+  @CanIgnoreReturnValue
+  public boolean remove(long value) {
+    int index = indexOf(value);
+    if (index < 0) {
+      return false;
+    }
+    removeAt(index);
+    return true;
+  }
+
+  /** Removes all values from this set. */
+  public void clear() {
+    clearIndex();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * A mutable {@link LongLongMap}. Putting, removing and looking up an entry take expected constant
+ * time, without boxing or any other allocation except when the map grows. An entry takes about 20
+ * to 24 bytes, compared to about 90 for a {@code HashMap<Long, Long>}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class LongLongHashMap extends LongLongMap {
+  /** Creates an empty {@code LongLongHashMap}. */
+  public static LongLongHashMap create() {
+    return new LongLongHashMap(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates an empty {@code LongLongHashMap} that can hold {@code expectedSize} entries without
+   * growing.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static LongLongHashMap createWithExpectedSize(int expectedSize) {
+    return new LongLongHashMap(expectedSize);
+  }
+
+  private LongLongHashMap(int expectedSize) {
+    super(expectedSize);
+  }
+
+  /** Associates {@code value} with {@code key}, replacing any previous value. */
+  public void put(long key, long value) {
+    int index = insert(key);
+    values[index < 0 ? ~index : index] = value;
+  }
+
+  /**
+   * Adds {@code delta} to the value for {@code key}, which is 0 if there is none, and returns the
+   * new value.
+   */
+  @CanIgnoreReturnValue
+  public long addTo(long key, long delta) {
+    int index = insert(key);
+    if (index < 0) {
+      return values[~index] = delta;
+    }
+    return values[index] += delta;
+  }
+
+  /** Removes the entry for {@code key}, and returns whether there was one. */
+  @CanIgnoreReturnValue
+  public boolean remove(long key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return false;
+    }
+    removeAt(index);
+    return true;
+  }
+
+  /** Removes all entries from this map. */
+  public void clear() {
+    clearIndex();
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.primitives.Ints;
+
+/**
+ * A multimap from {@code long} keys to lists of {@code long} values, like a {@code
+ * ListMultimap<Long, Long>}, which keeps the keys in a hash table of primitive arrays and the
+ * values of each key in a {@code long[]}. Putting and looking up a value take expected constant
+ * time, without boxing or any other allocation except when the multimap grows.
+ *
+ * <p>The values of each key are kept in the order in which they were put, and may contain
+ * duplicates. The keys are stored densely, and can be read by their index, from 0 to {@code
+ * keyCount() - 1}. If no keys have been removed, the indexes follow insertion order. Removing a key
+ * moves the last key to its index.
+ *
+ * <p>Two {@code LongLongListMultimap} instances are equal if they contain the same keys, mapped to
+ * the same lists of values, regardless of the order of the keys.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class LongLongListMultimap extends LongHashIndex {
+  private static final long[] EMPTY_VALUES = new long[0];
+
+  /** Creates an empty {@code LongLongListMultimap}. */
+  public static LongLongListMultimap create() {
+    return new LongLongListMultimap(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates an empty {@code LongLongListMultimap} that can hold {@code expectedKeys} distinct keys
+   * without growing its hash table.
+   *
+   * @throws IllegalArgumentException if {@code expectedKeys} is negative
+   */
+  public static LongLongListMultimap createWithExpectedKeys(int expectedKeys) {
+    return new LongLongListMultimap(expectedKeys);
+  }
+
+  // the values of the key at each index, followed by unused capacity
+  private long[][] values;
+  // the number of values of the key at each index, which is always positive
+  private int[] valueCounts;
+  private long totalSize;
+
+  private LongLongListMultimap(int expectedKeys) {
+    super(expectedKeys);
+    this.values = new long[keys.length][];
+    this.valueCounts = new int[keys.length];
+  }
+
+  @Override
+  void resizeValues(int newCapacity) {
+    values = Arrays.copyOf(values, newCapacity);
+    valueCounts = Arrays.copyOf(valueCounts, newCapacity);
+  }
+
+  @Override
+  void moveValue(int from, int to) {
+    values[to] = values[from];
+    valueCounts[to] = valueCounts[from];
+    values[from] = null;
+    valueCounts[from] = 0;
+  }
+
+  /** Returns the number of key-value pairs in this multimap, saturated to an {@code int}. */
+  public int size() {
+    return Ints.saturatedCast(totalSize);
+  }
+
+  /** Returns whether this multimap has no key-value pairs. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns the number of distinct keys in this multimap. */
+  public int keyCount() {
+    return size;
+  }
+
+  /** Returns whether this multimap has at least one value for {@code key}. */
+  public boolean containsKey(long key) {
+    return indexOf(key) >= 0;
+  }
+
+  /** Returns whether this multimap maps {@code key} to {@code value} at least once. */
+  public boolean containsEntry(long key, long value) {
+    int index = indexOf(key);
+    return index >= 0 && indexOfValue(index, value) >= 0;
+  }
+
+  /** Returns the number of values of {@code key}. */
+  public int valueCount(long key) {
+    int index = indexOf(key);
+    return index < 0 ? 0 : valueCounts[index];
+  }
+
+  /** Returns a new array of the values of {@code key}, in the order in which they were put. */
+  public long[] get(long key) {
+    int index = indexOf(key);
+    return index < 0 ? EMPTY_VALUES : Arrays.copyOf(values[index], valueCounts[index]);
+  }
+
+  /**
+   * Returns the key at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link
+   *     #keyCount}
+   */
+  public long keyAt(int index) {
+    checkElementIndex(index, size);
+    return keys[index];
+  }
+
+  /**
+   * Returns a new array of the values of the key at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link
+   *     #keyCount}
+   */
+  public long[] valuesAt(int index) {
+    checkElementIndex(index, size);
+    return Arrays.copyOf(values[index], valueCounts[index]);
+  }
+
+  /** Adds {@code value} to the end of the values of {@code key}. */
+  public void put(long key, long value) {
+    int index = append(key, 1);
+    values[index][valueCounts[index]++] = value;
+    totalSize++;
+  }
+
+  /** Adds {@code newValues} to the end of the values of {@code key}, in order. */
+  public void putAll(long key, long... newValues) {
+    if (newValues.length == 0) {
+      return;
+    }
+    int index = append(key, newValues.length);
+    System.arraycopy(newValues, 0, values[index], valueCounts[index], newValues.length);
+    valueCounts[index] += newValues.length;
+    totalSize += newValues.length;
+  }
+
+  /** Returns the index of {@code key}, after making room for {@code count} more of its values. */
+  private int append(long key, int count) {
+    int index = insert(key);
+    if (index < 0) {
+      index = ~index;
+      values[index] = new long[count];
+      return index;
+    }
+    long[] keyValues = values[index];
+    int needed = valueCounts[index] + count;
+    if (needed < 0) {
+      throw new IllegalArgumentException("too many values for key " + key);
+    }
+    if (needed > keyValues.length) {
+      values[index] =
+          Arrays.copyOf(
+              keyValues,
+              ImmutableCollection.Builder.expandedCapacity(keyValues.length, needed));
+    }
+    return index;
+  }
+
+  /**
+   * Removes the first occurrence of {@code value} from the values of {@code key}, and returns
+   * whether there was one.
+   */
+  @CanIgnoreReturnValue
+  public boolean remove(long key, long value) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return false;
+    }
+    int valueIndex = indexOfValue(index, value);
+    if (valueIndex < 0) {
+      return false;
+    }
+    int count = --valueCounts[index];
+    totalSize--;
+    if (count == 0) {
+      removeAt(index);
+    } else {
+      long[] keyValues = values[index];
+      System.arraycopy(keyValues, valueIndex + 1, keyValues, valueIndex, count - valueIndex);
+    }
+    return true;
+  }
+
+  /**
+   * Removes all values of {@code key}, and returns them in the order in which they were put.
+   */
+  @CanIgnoreReturnValue
+  public long[] removeAll(long key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return EMPTY_VALUES;
+    }
+    long[] removed = Arrays.copyOf(values[index], valueCounts[index]);
+    totalSize -= removed.length;
+    removeAt(index);
+    return removed;
+  }
+
+  /** Removes all key-value pairs from this multimap. */
+  public void clear() {
+    Arrays.fill(values, 0, size, null);
+    Arrays.fill(valueCounts, 0, size, 0);
+    clearIndex();
+    totalSize = 0;
+  }
+
+  private int indexOfValue(int index, long value) {
+    long[] keyValues = values[index];
+    for (int i = 0; i < valueCounts[index]; i++) {
+      if (keyValues[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof LongLongListMultimap) {
+      LongLongListMultimap that = (LongLongListMultimap) object;
+      if (this.size != that.size || this.totalSize != that.totalSize) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        int index = that.indexOf(keys[i]);
+        if (index < 0 || !valuesEqual(values[i], valueCounts[i], that, index)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static boolean valuesEqual(
+      long[] keyValues, int count, LongLongListMultimap that, int index) {
+    if (count != that.valueCounts[index]) {
+      return false;
+    }
+    long[] thatValues = that.values[index];
+    for (int j = 0; j < count; j++) {
+      if (keyValues[j] != thatValues[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the same hash code as a {@code ListMultimap<Long, Long>} of the same entries. */
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < size; i++) {
+      int listHashCode = 1;
+      long[] keyValues = values[i];
+      for (int j = 0; j < valueCounts[i]; j++) {
+        listHashCode = 31 * listHashCode + Long.hashCode(keyValues[j]);
+      }
+      hashCode += Long.hashCode(keys[i]) ^ listHashCode;
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(size * 16).append('{');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]).append("=[");
+      long[] keyValues = values[i];
+      for (int j = 0; j < valueCounts[i]; j++) {
+        if (j > 0) {
+          builder.append(", ");
+        }
+        builder.append(keyValues[j]);
+      }
+      builder.append(']');
+    }
+    return builder.append('}').toString();
+  }
+}
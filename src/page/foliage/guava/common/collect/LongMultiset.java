@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+import static page.foliage.guava.common.collect.CollectPreconditions.checkNonnegative;
+import static page.foliage.guava.common.collect.CollectPreconditions.checkRemove;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ObjIntConsumer;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.primitives.Ints;
+
+/**
+ * A {@link Multiset} of {@code long} values, which keeps the values and their counts in primitive
+ * arrays rather than in a map of boxed values to {@link Count} objects. Besides the {@code
+ * Multiset<Long>} methods, it has overloads that take a {@code long}, which count occurrences
+ * without any allocation except when the multiset grows.
+ *
+ * <p>The elements are iterated in the order in which they were first added, as long as none is
+ * removed. Removing an element moves the last element into its place in the iteration order.
+ * {@link #elementsByCount} returns the elements with the highest counts first.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class LongMultiset extends AbstractMultiset<Long> implements Serializable {
+  /** Creates an empty {@code LongMultiset}. */
+  public static LongMultiset create() {
+    return new LongMultiset(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates an empty {@code LongMultiset} that can hold {@code distinctElements} distinct elements
+   * without growing.
+   *
+   * @throws IllegalArgumentException if {@code distinctElements} is negative
+   */
+  public static LongMultiset createWithExpectedSize(int distinctElements) {
+    return new LongMultiset(distinctElements);
+  }
+
+  /** Creates a {@code LongMultiset} of the given elements. */
+  public static LongMultiset create(long... elements) {
+    LongMultiset multiset = new LongMultiset(CompactHashing.DEFAULT_SIZE);
+    multiset.addAll(elements);
+    return multiset;
+  }
+
+  private transient Counts counts;
+  private transient long size;
+
+  private LongMultiset(int distinctElements) {
+    this.counts = new Counts(distinctElements);
+  }
+
+  /** The distinct elements, with their counts alongside, which are always positive. */
+  private static final class Counts extends LongHashIndex {
+    int[] counts;
+
+    Counts(int expectedSize) {
+      super(expectedSize);
+      this.counts = new int[keys.length];
+    }
+
+    @Override
+    void resizeValues(int newCapacity) {
+      counts = Arrays.copyOf(counts, newCapacity);
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+      counts[to] = counts[from];
+      counts[from] = 0;
+    }
+  }
+
+  @Override
+  int distinctElements() {
+    return counts.size;
+  }
+
+  @Override
+  public int size() {
+    return Ints.saturatedCast(size);
+  }
+
+  @Override
+  public int count(@CheckForNull Object element) {
+    return element instanceof Long ? count((long) (Long) element) : 0;
+  }
+
+  /** Returns the number of occurrences of {@code element} in this multiset. */
+  public int count(long element) {
+    int index = counts.indexOf(element);
+    return index < 0 ? 0 : counts.counts[index];
+  }
+
+  /** Adds an occurrence of {@code element} to this multiset, and returns {@code true}. */
+  @CanIgnoreReturnValue
+  public boolean add(long element) {
+    add(element, 1);
+    return true;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int add(Long element, int occurrences) {
+    return add(checkNotNull(element).longValue(), occurrences);
+  }
+
+  /**
+   * Adds {@code occurrences} occurrences of {@code element} to this multiset, and returns the
+   * previous count of {@code element}.
+   *
+   * @throws IllegalArgumentException if {@code occurrences} is negative, or if the count would
+   *     exceed {@link Integer#MAX_VALUE}
+   */
+  @CanIgnoreReturnValue
+  public int add(long element, int occurrences) {
+    checkNonnegative(occurrences, "occurrences");
+    if (occurrences == 0) {
+      return count(element);
+    }
+    int index = counts.insert(element);
+    if (index < 0) {
+      counts.counts[~index] = occurrences;
+      size += occurrences;
+      return 0;
+    }
+    int oldCount = counts.counts[index];
+    long newCount = (long) oldCount + occurrences;
+    checkArgument(newCount <= Integer.MAX_VALUE, "too many occurrences: %s", newCount);
+    counts.counts[index] = (int) newCount;
+    size += occurrences;
+    return oldCount;
+  }
+
+  /**
+   * Adds an occurrence of each of {@code elements} to this multiset, and returns whether it changed
+   * (that is, whether {@code elements} was not empty).
+   */
+  @CanIgnoreReturnValue
+  public boolean addAll(long... elements) {
+    for (long element : elements) {
+      add(element, 1);
+    }
+    return elements.length > 0;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int remove(@CheckForNull Object element, int occurrences) {
+    if (!(element instanceof Long)) {
+      checkNonnegative(occurrences, "occurrences");
+      return 0;
+    }
+    return remove((long) (Long) element, occurrences);
+  }
+
+  /**
+   * Removes up to {@code occurrences} occurrences of {@code element} from this multiset, and
+   * returns the previous count of {@code element}.
+   *
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  @CanIgnoreReturnValue
+  public int remove(long element, int occurrences) {
+    checkNonnegative(occurrences, "occurrences");
+    int index = counts.indexOf(element);
+    if (index < 0) {
+      return 0;
+    }
+    int oldCount = counts.counts[index];
+    if (oldCount <= occurrences) {
+      removeAt(index);
+    } else {
+      counts.counts[index] = oldCount - occurrences;
+      size -= occurrences;
+    }
+    return oldCount;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int setCount(Long element, int count) {
+    return setCount(checkNotNull(element).longValue(), count);
+  }
+
+  /**
+   * Sets the count of {@code element} to {@code count}, and returns the previous count of {@code
+   * element}.
+   *
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  @CanIgnoreReturnValue
+  public int setCount(long element, int count) {
+    checkNonnegative(count, "count");
+    if (count == 0) {
+      int index = counts.indexOf(element);
+      if (index < 0) {
+        return 0;
+      }
+      int oldCount = counts.counts[index];
+      removeAt(index);
+      return oldCount;
+    }
+    int index = counts.insert(element);
+    if (index < 0) {
+      index = ~index;
+    }
+    int oldCount = counts.counts[index];
+    counts.counts[index] = count;
+    size += count - oldCount;
+    return oldCount;
+  }
+
+  private void removeAt(int index) {
+    size -= counts.counts[index];
+    counts.removeAt(index);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(counts.counts, 0, counts.size, 0);
+    counts.clearIndex();
+    size = 0;
+  }
+
+  /**
+   * Returns the distinct elements of this multiset, in descending order of count. Elements with
+   * the same count are in iteration order.
+   *
+   * <p>To get the counts as well, use {@link Multisets#copyHighestCountFirst}.
+   */
+  public long[] elementsByCount() {
+    int distinct = counts.size;
+    // sort by count, then by reverse index, without boxing
+    long[] packed = new long[distinct];
+    for (int i = 0; i < distinct; i++) {
+      packed[i] = ((long) counts.counts[i] << 32) | (~i & 0xFFFFFFFFL);
+    }
+    Arrays.sort(packed);
+    long[] elements = new long[distinct];
+    for (int i = 0; i < distinct; i++) {
+      elements[i] = counts.keys[~(int) packed[distinct - 1 - i]];
+    }
+    return elements;
+  }
+
+  abstract class Itr<T> implements Iterator<T> {
+    int index = 0;
+    int toRemove = -1;
+
+    abstract T output(int index);
+
+    @Override
+    public boolean hasNext() {
+      return index < counts.size;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T result = output(index);
+      toRemove = index;
+      index++;
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      checkRemove(toRemove >= 0);
+      removeAt(toRemove);
+      // the last element has moved into the removed index, so visit it next
+      index = toRemove;
+      toRemove = -1;
+    }
+  }
+
+  @Override
+  Iterator<Long> elementIterator() {
+    return new Itr<Long>() {
+      @Override
+      Long output(int index) {
+        return counts.keys[index];
+      }
+    };
+  }
+
+  @Override
+  Iterator<Entry<Long>> entryIterator() {
+    return new Itr<Entry<Long>>() {
+      @Override
+      Entry<Long> output(int index) {
+        return Multisets.immutableEntry(counts.keys[index], counts.counts[index]);
+      }
+    };
+  }
+
+  @Override
+  public void forEachEntry(ObjIntConsumer<? super Long> action) {
+    checkNotNull(action);
+    for (int i = 0; i < counts.size; i++) {
+      action.accept(counts.keys[i], counts.counts[i]);
+    }
+  }
+
+  @Override
+  public Iterator<Long> iterator() {
+    return Multisets.iteratorImpl(this);
+  }
+
+  /**
+   * @serialData the number of distinct elements, the first element (a {@code long}), its count,
+   *     the second element, its count, and so on
+   */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    stream.writeInt(counts.size);
+    for (int i = 0; i < counts.size; i++) {
+      stream.writeLong(counts.keys[i]);
+      stream.writeInt(counts.counts[i]);
+    }
+  }
+
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    int distinctElements = Serialization.readCount(stream);
+    counts = new Counts(distinctElements);
+    for (int i = 0; i < distinctElements; i++) {
+      long element = stream.readLong();
+      add(element, stream.readInt());
+    }
+  }
+
+  private static final long serialVersionUID = 0;
+}
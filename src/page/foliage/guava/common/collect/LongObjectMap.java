@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkElementIndex;
+import static page.foliage.guava.common.collect.NullnessCasts.uncheckedCastNullableTToT;
+
+import java.util.Arrays;
+
+import javax.annotation.CheckForNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * A map from {@code long} keys to non-null values, which stores the keys in a hash table of
+ * primitive arrays rather than boxing them. It is either a {@link LongObjectHashMap} or an {@link
+ * ImmutableLongObjectMap}.
+ *
+ * <p>The entries are stored densely, and can be read by their index, from 0 to {@code size() - 1},
+ * without any allocation. If no entries have been removed, the indexes follow insertion order.
+ * Removing an entry moves the last entry to its index.
+ *
+ * <p>Two {@code LongObjectMap} instances are equal if they contain the same keys, mapped to equal
+ * values, regardless of their order or mutability.
+ *
+ * @param <V> the type of the values
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public abstract class LongObjectMap<V> extends LongHashIndex {
+  @Nullable Object[] values;
+
+  LongObjectMap(int expectedSize) {
+    super(expectedSize);
+    this.values = new @Nullable Object[keys.length];
+  }
+
+  @Override
+  final void resizeValues(int newCapacity) {
+    values = Arrays.copyOf(values, newCapacity);
+  }
+
+  @Override
+  final void moveValue(int from, int to) {
+    values[to] = values[from];
+    values[from] = null;
+  }
+
+  /** Returns whether this map contains an entry for {@code key}. */
+  public final boolean containsKey(long key) {
+    return indexOf(key) >= 0;
+  }
+
+  /** Returns the value for {@code key}, or null if there is none. */
+  @CheckForNull
+  public final V get(long key) {
+    int index = indexOf(key);
+    return index < 0 ? null : value(index);
+  }
+
+  /** Returns the value for {@code key}, or {@code defaultValue} if there is none. */
+  public final V getOrDefault(long key, V defaultValue) {
+    int index = indexOf(key);
+    return index < 0 ? defaultValue : value(index);
+  }
+
+  /** Returns the number of entries in this map. */
+  public final int size() {
+    return size;
+  }
+
+  /** Returns whether this map has no entries. */
+  public final boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the key of the entry at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size}
+   */
+  public final long keyAt(int index) {
+    checkElementIndex(index, size);
+    return keys[index];
+  }
+
+  /**
+   * Returns the value of the entry at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size}
+   */
+  public final V valueAt(int index) {
+    checkElementIndex(index, size);
+    return value(index);
+  }
+
+  @SuppressWarnings("unchecked") // only Vs are stored
+  final V value(int index) {
+    return (V) uncheckedCastNullableTToT(values[index]);
+  }
+
+  @Override
+  public final boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof LongObjectMap) {
+      LongObjectMap<?> that = (LongObjectMap<?>) object;
+      if (this.size != that.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        int index = that.indexOf(keys[i]);
+        if (index < 0 || !values[i].equals(that.values[index])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /** Returns the same hash code as a {@code Map<Long, V>} of the same entries. */
+  @Override
+  public final int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < size; i++) {
+      hashCode += Long.hashCode(keys[i]) ^ values[i].hashCode();
+    }
+    return hashCode;
+  }
+
+  @Override
+  public final String toString() {
+    StringBuilder builder = new StringBuilder(size * 16).append('{');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]).append('=').append(values[i] == this ? "(this Map)" : values[i]);
+    }
+    return builder.append('}').toString();
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static page.foliage.guava.common.base.Preconditions.checkElementIndex;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+import javax.annotation.CheckForNull;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+
+/**
+ * A set of {@code long} values, which stores them in a hash table of primitive arrays rather than
+ * boxing them. It is either a {@link LongHashSet} or an {@link ImmutableLongSet}.
+ *
+ * <p>The values are stored densely, and can be read by their index, from 0 to {@code size() - 1},
+ * without any allocation. If no values have been removed, the indexes follow insertion order.
+ * Removing a value moves the last value to its index.
+ *
+ * <p>Two {@code LongSet} instances are equal if they contain the same values, regardless of their
+ * order or mutability.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public abstract class LongSet extends LongHashIndex {
+  LongSet(int expectedSize) {
+    super(expectedSize);
+  }
+
+  /** Returns whether this set contains {@code value}. */
+  public final boolean contains(long value) {
+    return indexOf(value) >= 0;
+  }
+
+  /** Returns the number of values in this set. */
+  public final int size() {
+    return size;
+  }
+
+  /** Returns whether this set has no values. */
+  public final boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the value at {@code index}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size}
+   */
+  public final long get(int index) {
+    checkElementIndex(index, size);
+    return keys[index];
+  }
+
+  /** Invokes {@code action} for each value of this set, in index order. */
+  public final void forEach(LongConsumer action) {
+    checkNotNull(action);
+    for (int i = 0; i < size; i++) {
+      action.accept(keys[i]);
+    }
+  }
+
+  /** Returns a new array of the values of this set, in index order. */
+  public final long[] toArray() {
+    return Arrays.copyOf(keys, size);
+  }
+
+  /**
+   * Returns a stream of the values of this set, in index order. The set must not be modified while
+   * the stream is in use.
+   */
+  public final LongStream stream() {
+    return Arrays.stream(keys, 0, size);
+  }
+
+  @Override
+  public final boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof LongSet) {
+      LongSet that = (LongSet) object;
+      if (this.size != that.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (!that.contains(keys[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /** Returns the same hash code as a {@code Set<Long>} of the same values. */
+  @Override
+  public final int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < size; i++) {
+      hashCode += Long.hashCode(keys[i]);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public final String toString() {
+    StringBuilder builder = new StringBuilder(size * 8).append('[');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]);
+    }
+    return builder.append(']').toString();
+  }
+}
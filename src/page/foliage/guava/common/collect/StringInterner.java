@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package page.foliage.guava.common.collect;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static page.foliage.guava.common.base.Preconditions.checkPositionIndexes;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.CheckForNull;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.annotations.GwtIncompatible;
+import page.foliage.guava.common.annotations.J2ktIncompatible;
+
+/**
+ * A thread-safe {@link Interner} of strings, which can also intern the string equal to a {@link
+ * CharSequence} or to UTF-8 bytes without creating a {@code String} unless the string has not been
+ * interned yet. This suits parsers that intern the same few names over and over: interning a
+ * name that has been seen before allocates nothing.
+ *
+ * <p>Lookups and additions never lock, as for {@link Interners#newLockFreeInterner}. The interner
+ * retains a strong reference to each string it has interned.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@J2ktIncompatible
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public final class StringInterner extends LockFreeInterner<String> {
+  private static final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[64]);
+
+  /** Creates an empty {@code StringInterner}. */
+  public static StringInterner create() {
+    return new StringInterner(Interners.DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Creates an empty {@code StringInterner} which is tuned for about {@code concurrencyLevel}
+   * threads adding strings at once.
+   *
+   * @throws IllegalArgumentException if {@code concurrencyLevel} is not positive
+   */
+  public static StringInterner create(int concurrencyLevel) {
+    return new StringInterner(concurrencyLevel);
+  }
+
+  private StringInterner(int concurrencyLevel) {
+    super(concurrencyLevel);
+  }
+
+  /**
+   * Returns the interned string equal to {@code chars}. This calls {@code chars.toString()} only if
+   * no such string has been interned yet.
+   */
+  public String intern(CharSequence chars) {
+    if (chars instanceof String) {
+      return intern((String) chars);
+    }
+    int hashCode = 0;
+    for (int i = 0; i < chars.length(); i++) {
+      hashCode = 31 * hashCode + chars.charAt(i);
+    }
+    AtomicReferenceArray<Object> table = table(Hashing.smear(hashCode));
+    int mask = table.length() - 1;
+    for (int i = Hashing.smear(hashCode) & mask; ; i = (i + 1) & mask) {
+      Object element = table.get(i);
+      if (element == null || element == MOVED) {
+        return intern(chars.toString());
+      }
+      String candidate = (String) element;
+      if (candidate.hashCode() == hashCode && candidate.contentEquals(chars)) {
+        return candidate;
+      }
+    }
+  }
+
+  /**
+   * Returns the interned string that {@code length} bytes of {@code utf8}, starting at {@code
+   * offset}, decode to as UTF-8. This creates a {@code String} only if no such string has been
+   * interned yet, or if the bytes are not well-formed UTF-8, in which case they are decoded as by
+   * {@link String#String(byte[], int, int, java.nio.charset.Charset)}.
+   *
+   * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+   *     {@code offset + length} is greater than {@code utf8.length}
+   */
+  public String intern(byte[] utf8, int offset, int length) {
+    checkPositionIndexes(offset, offset + length, utf8.length);
+    int end = offset + length;
+    int hashCode = 0;
+    int charCount = 0;
+    for (int i = offset; i < end; ) {
+      long decoded = decode(utf8, i, end);
+      if (decoded < 0) {
+        return intern(new String(utf8, offset, length, UTF_8));
+      }
+      int codePoint = (int) decoded;
+      i = (int) (decoded >>> 32);
+      if (Character.isBmpCodePoint(codePoint)) {
+        hashCode = 31 * hashCode + codePoint;
+        charCount++;
+      } else {
+        hashCode = 31 * hashCode + Character.highSurrogate(codePoint);
+        hashCode = 31 * hashCode + Character.lowSurrogate(codePoint);
+        charCount += 2;
+      }
+    }
+    String canonical = find(hashCode, charCount, utf8, offset, end);
+    return canonical != null ? canonical : intern(new String(utf8, offset, length, UTF_8));
+  }
+
+  /**
+   * Returns the interned string that the remaining bytes of {@code utf8} decode to as UTF-8,
+   * without changing the position of {@code utf8}. This works like {@link #intern(byte[], int,
+   * int)}, and also accepts direct buffers, whose bytes are copied to a reusable per-thread array.
+   */
+  public String intern(ByteBuffer utf8) {
+    int length = utf8.remaining();
+    if (utf8.hasArray()) {
+      return intern(utf8.array(), utf8.arrayOffset() + utf8.position(), length);
+    }
+    byte[] buffer = buffers.get();
+    if (buffer.length < length) {
+      buffer = new byte[Math.max(length, buffer.length * 2)];
+      buffers.set(buffer);
+    }
+    for (int i = 0, position = utf8.position(); i < length; i++) {
+      buffer[i] = utf8.get(position + i);
+    }
+    return intern(buffer, 0, length);
+  }
+
+  @CheckForNull
+  private String find(int hashCode, int charCount, byte[] utf8, int offset, int end) {
+    AtomicReferenceArray<Object> table = table(Hashing.smear(hashCode));
+    int mask = table.length() - 1;
+    for (int i = Hashing.smear(hashCode) & mask; ; i = (i + 1) & mask) {
+      Object element = table.get(i);
+      if (element == null || element == MOVED) {
+        return null;
+      }
+      String candidate = (String) element;
+      if (candidate.hashCode() == hashCode
+          && candidate.length() == charCount
+          && decodesTo(utf8, offset, end, candidate)) {
+        return candidate;
+      }
+    }
+  }
+
+  /** Returns whether the well-formed UTF-8 bytes decode to {@code string}. */
+  private static boolean decodesTo(byte[] utf8, int offset, int end, String string) {
+    int j = 0;
+    for (int i = offset; i < end; ) {
+      long decoded = decode(utf8, i, end);
+      int codePoint = (int) decoded;
+      i = (int) (decoded >>> 32);
+      if (Character.isBmpCodePoint(codePoint)) {
+        if (string.charAt(j++) != codePoint) {
+          return false;
+        }
+      } else if (string.charAt(j++) != Character.highSurrogate(codePoint)
+          || string.charAt(j++) != Character.lowSurrogate(codePoint)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Decodes the code point at {@code index}, and returns the index after it in the high 32 bits
+   * and the code point in the low 32 bits, or -1 if the bytes are not well-formed UTF-8.
+   */
+  private static long decode(byte[] utf8, int index, int end) {
+    int first = utf8[index];
+    if (first >= 0) {
+      return ((long) (index + 1) << 32) | first;
+    }
+    int length;
+    int min;
+    int codePoint;
+    if ((first & 0xE0) == 0xC0) {
+      length = 2;
+      min = 0x80;
+      codePoint = first & 0x1F;
+    } else if ((first & 0xF0) == 0xE0) {
+      length = 3;
+      min = 0x800;
+      codePoint = first & 0x0F;
+    } else if ((first & 0xF8) == 0xF0) {
+      length = 4;
+      min = Character.MIN_SUPPLEMENTARY_CODE_POINT;
+      codePoint = first & 0x07;
+    } else {
+      return -1;
+    }
+    if (end - index < length) {
+      return -1;
+    }
+    for (int k = 1; k < length; k++) {
+      int next = utf8[index + k];
+      if ((next & 0xC0) != 0x80) {
+        return -1;
+      }
+      codePoint = (codePoint << 6) | (next & 0x3F);
+    }
+    // reject overlong encodings, surrogates and values beyond Unicode
+    if (codePoint < min
+        || codePoint > Character.MAX_CODE_POINT
+        || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+      return -1;
+    }
+    return ((long) (index + length) << 32) | codePoint;
+  }
+}
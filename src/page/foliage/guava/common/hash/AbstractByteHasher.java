@@ -35,6 +35,9 @@ import page.foliage.guava.common.primitives.Shorts;
  */
 @ElementTypesAreNonnullByDefault
 abstract class AbstractByteHasher extends AbstractHasher {
+  /** The size of the chunks in which buffers that aren't backed by an array are copied. */
+  private static final int CHUNK_SIZE = 4096;
+
   private final ByteBuffer scratch = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
 
   /** Updates this hasher with the given byte. */
@@ -58,8 +61,12 @@ abstract class AbstractByteHasher extends AbstractHasher {
       update(b.array(), b.arrayOffset() + b.position(), b.remaining());
       Java8Compatibility.position(b, b.limit());
     } else {
-      for (int remaining = b.remaining(); remaining > 0; remaining--) {
-        update(b.get());
+      // a bulk copy per chunk is much cheaper than a virtual call per byte
+      byte[] chunk = new byte[Math.min(b.remaining(), CHUNK_SIZE)];
+      while (b.hasRemaining()) {
+        int len = Math.min(b.remaining(), chunk.length);
+        b.get(chunk, 0, len);
+        update(chunk, 0, len);
       }
     }
   }
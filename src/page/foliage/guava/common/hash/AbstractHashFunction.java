@@ -19,9 +19,11 @@ import static page.foliage.guava.common.base.Preconditions.checkPositionIndexes;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.Immutable;
 
 /**
@@ -81,4 +83,103 @@ abstract class AbstractHashFunction implements HashFunction {
         expectedInputSize >= 0, "expectedInputSize must be >= 0 but was %s", expectedInputSize);
     return newHasher();
   }
+
+  /**
+   * Returns {@code hashBytes(input, off, len).padToLong()}. Subclasses that can compute it without
+   * allocating override this, and implement the batch methods with {@link #hashLongsAsBytes} and
+   * {@link #hashAllAsBytes}.
+   */
+  long hashBytesToLong(byte[] input, int off, int len) {
+    return hashBytes(input, off, len).padToLong();
+  }
+
+  /**
+   * Implements {@link #hashLongs} by hashing the little-endian bytes of each value with {@link
+   * #hashBytesToLong}, which is only correct if this function's {@link Hasher} hashes a {@code
+   * long} as those bytes.
+   */
+  final void hashLongsAsBytes(long[] input, long[] output) {
+    checkArgument(
+        output.length >= input.length,
+        "output (length %s) is shorter than input (length %s)",
+        output.length,
+        input.length);
+    byte[] bytes = new byte[Long.BYTES];
+    for (int i = 0; i < input.length; i++) {
+      LittleEndianByteArray.store64(bytes, 0, input[i]);
+      output[i] = hashBytesToLong(bytes, 0, Long.BYTES);
+    }
+  }
+
+  /**
+   * Implements {@link #hashAll} by funnelling each object into one reused buffer and hashing its
+   * bytes with {@link #hashBytesToLong}, which is only correct if this function's {@link Hasher}
+   * hashes anything it is given as the bytes an {@link AbstractHasher} would convert it to.
+   */
+  final <T extends @Nullable Object> int hashAllAsBytes(
+      Iterable<? extends T> inputs, Funnel<? super T> funnel, long[] output) {
+    BufferSink sink = new BufferSink();
+    int i = 0;
+    for (T input : inputs) {
+      checkArgument(i < output.length, "output (length %s) is shorter than inputs", output.length);
+      sink.count = 0;
+      funnel.funnel(input, sink);
+      output[i++] = hashBytesToLong(sink.buffer, 0, sink.count);
+    }
+    return i;
+  }
+
+  /** A sink that collects bytes in a buffer that is reused for many objects. */
+  private static final class BufferSink extends AbstractHasher {
+    byte[] buffer = new byte[64];
+    int count;
+
+    private void ensureCapacity(int extra) {
+      if (count + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(count + extra, buffer.length * 2));
+      }
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public Hasher putByte(byte b) {
+      ensureCapacity(1);
+      buffer[count++] = b;
+      return this;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public Hasher putBytes(byte[] bytes, int off, int len) {
+      checkPositionIndexes(off, off + len, bytes.length);
+      ensureCapacity(len);
+      System.arraycopy(bytes, off, buffer, count, len);
+      count += len;
+      return this;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public Hasher putBytes(ByteBuffer bytes) {
+      int len = bytes.remaining();
+      ensureCapacity(len);
+      bytes.get(buffer, count, len);
+      count += len;
+      return this;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public Hasher putLong(long l) {
+      ensureCapacity(Long.BYTES);
+      LittleEndianByteArray.store64(buffer, count, l);
+      count += Long.BYTES;
+      return this;
+    }
+
+    @Override
+    public HashCode hash() {
+      throw new UnsupportedOperationException("objects are hashed by hashAllAsBytes");
+    }
+  }
 }
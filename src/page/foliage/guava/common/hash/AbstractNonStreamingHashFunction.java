@@ -20,6 +20,8 @@ import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import com.google.errorprone.annotations.Immutable;
 
 import page.foliage.guava.common.base.Preconditions;
@@ -73,8 +75,29 @@ abstract class AbstractNonStreamingHashFunction extends AbstractHashFunction {
   @Override
   public abstract HashCode hashBytes(byte[] input, int off, int len);
 
+  @Override
+  public void hashLongs(long[] input, long[] output) {
+    hashLongsAsBytes(input, output);
+  }
+
+  @Override
+  public <T extends @Nullable Object> int hashAll(
+      Iterable<? extends T> inputs, Funnel<? super T> funnel, long[] output) {
+    return hashAllAsBytes(inputs, funnel, output);
+  }
+
+  /**
+   * Hashes the remaining bytes of {@code input}. A buffer backed by an accessible array is hashed
+   * in place; subclasses may override this to also read direct buffers in place.
+   */
   @Override
   public HashCode hashBytes(ByteBuffer input) {
+    if (input.hasArray()) {
+      HashCode hash =
+          hashBytes(input.array(), input.arrayOffset() + input.position(), input.remaining());
+      Java8Compatibility.position(input, input.limit());
+      return hash;
+    }
     return newHasher(input.remaining()).putBytes(input).hash();
   }
 
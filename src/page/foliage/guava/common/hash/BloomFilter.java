@@ -19,13 +19,16 @@ import static page.foliage.guava.common.base.Preconditions.checkNotNull;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
 import java.util.stream.Collector;
 
 import javax.annotation.CheckForNull;
@@ -38,7 +41,10 @@ import page.foliage.guava.common.annotations.Beta;
 import page.foliage.guava.common.annotations.VisibleForTesting;
 import page.foliage.guava.common.base.Objects;
 import page.foliage.guava.common.base.Predicate;
+import page.foliage.guava.common.hash.BloomFilterStrategies.BitArray;
 import page.foliage.guava.common.hash.BloomFilterStrategies.LockFreeBitArray;
+import page.foliage.guava.common.hash.BloomFilterStrategies.MappedBitArray;
+import page.foliage.guava.common.io.Closer;
 import page.foliage.guava.common.math.DoubleMath;
 import page.foliage.guava.common.math.LongMath;
 import page.foliage.guava.common.primitives.SignedBytes;
@@ -90,7 +96,7 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits);
+        BitArray bits);
 
     /**
      * Queries {@code numHashFunctions} bits of the given bit array, by hashing a user element;
@@ -100,7 +106,7 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits);
+        BitArray bits);
 
     /**
      * Identifier used to encode this strategy, when marshalled as part of a BloomFilter. Only
@@ -113,7 +119,7 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
   }
 
   /** The bit set of the BloomFilter (not necessarily power of 2!) */
-  private final LockFreeBitArray bits;
+  private final BitArray bits;
 
   /** Number of hashes per element */
   private final int numHashFunctions;
@@ -126,10 +132,16 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
 
   /** Creates a BloomFilter. */
   private BloomFilter(
-      LockFreeBitArray bits, int numHashFunctions, Funnel<? super T> funnel, Strategy strategy) {
+      BitArray bits, int numHashFunctions, Funnel<? super T> funnel, Strategy strategy) {
     checkArgument(numHashFunctions > 0, "numHashFunctions (%s) must be > 0", numHashFunctions);
     checkArgument(
         numHashFunctions <= 255, "numHashFunctions (%s) must be <= 255", numHashFunctions);
+    checkArgument(
+        strategy != BloomFilterStrategies.MURMUR128_SPLIT_BLOCK_64
+            || bits.dataLength() % BloomFilterStrategies.BLOCK_LONGS == 0,
+        "data length (%s) must be a multiple of %s for a blocked Bloom filter",
+        bits.dataLength(),
+        BloomFilterStrategies.BLOCK_LONGS);
     this.bits = checkNotNull(bits);
     this.numHashFunctions = numHashFunctions;
     this.funnel = checkNotNull(funnel);
@@ -419,6 +431,35 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     return create(funnel, expectedInsertions, fpp, BloomFilterStrategies.MURMUR128_MITZ_64);
   }
 
+  /**
+   * Creates a blocked {@link BloomFilter} with the expected number of insertions and expected false
+   * positive probability. A blocked Bloom filter confines all the bits of an element to a single
+   * 512-bit block, so that {@link #mightContain} and {@link #put} touch one 64-byte region of memory
+   * instead of up to one cache line per hash function. This makes them several times faster on
+   * filters much larger than the processor caches, at the cost of a higher false positive
+   * probability than requested: about one and a half times as high for {@code fpp} of 1%, and
+   * between two and three times as high for 0.1%. Request a lower {@code fpp} to compensate.
+   * {@link #expectedFpp} does not take blocking into account, and so underestimates the probability.
+   *
+   * <p>Blocked filters are only {@linkplain #isCompatible compatible} with other blocked filters.
+   * Their {@linkplain #writeTo serialized form} cannot be read by versions of this library that
+   * predate this method.
+   *
+   * <p>The constructed {@code BloomFilter} will be serializable if the provided {@code Funnel<T>}
+   * is.
+   *
+   * @param funnel the funnel of T's that the constructed {@code BloomFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     BloomFilter}; must be positive
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   * @return a {@code BloomFilter}
+   * @since 32.1.3
+   */
+  public static <T extends @Nullable Object> BloomFilter<T> createBlocked(
+      Funnel<? super T> funnel, long expectedInsertions, double fpp) {
+    return create(funnel, expectedInsertions, fpp, BloomFilterStrategies.MURMUR128_SPLIT_BLOCK_64);
+  }
+
   @VisibleForTesting
   static <T extends @Nullable Object> BloomFilter<T> create(
       Funnel<? super T> funnel, long expectedInsertions, double fpp, Strategy strategy) {
@@ -439,6 +480,16 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
      */
     long numBits = optimalNumOfBits(expectedInsertions, fpp);
     int numHashFunctions = optimalNumOfHashFunctions(expectedInsertions, numBits);
+    if (strategy == BloomFilterStrategies.MURMUR128_SPLIT_BLOCK_64) {
+      // set at least one bit in every word of a block, since the words left unset would be wasted;
+      // and make every block complete, so that all of its bits can be addressed
+      numHashFunctions = Math.max(numHashFunctions, BloomFilterStrategies.BLOCK_LONGS);
+      numBits =
+          LongMath.checkedMultiply(
+              LongMath.divide(
+                  Math.max(numBits, 1), BloomFilterStrategies.BLOCK_BITS, RoundingMode.CEILING),
+              BloomFilterStrategies.BLOCK_BITS);
+    }
     try {
       return new BloomFilter<T>(new LockFreeBitArray(numBits), numHashFunctions, funnel, strategy);
     } catch (IllegalArgumentException e) {
@@ -555,7 +606,7 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     final Strategy strategy;
 
     SerialForm(BloomFilter<T> bf) {
-      this.data = LockFreeBitArray.toPlainArray(bf.bits.data);
+      this.data = bf.bits.toPlainArray();
       this.numHashFunctions = bf.numHashFunctions;
       this.funnel = bf.funnel;
       this.strategy = bf.strategy;
@@ -584,9 +635,9 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     DataOutputStream dout = new DataOutputStream(out);
     dout.writeByte(SignedBytes.checkedCast(strategy.ordinal()));
     dout.writeByte(UnsignedBytes.checkedCast(numHashFunctions)); // note: checked at the c'tor
-    dout.writeInt(bits.data.length());
-    for (int i = 0; i < bits.data.length(); i++) {
-      dout.writeLong(bits.data.get(i));
+    dout.writeInt(bits.dataLength());
+    for (int i = 0; i < bits.dataLength(); i++) {
+      dout.writeLong(bits.getData(i));
     }
   }
 
@@ -637,4 +688,62 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
       throw new IOException(message, e);
     }
   }
+
+  /**
+   * Returns a read-only {@code BloomFilter} backed by a memory map of {@code file}, which must hold
+   * a Bloom filter written by {@linkplain #writeTo(OutputStream)} at its start. Unlike {@link
+   * #readFrom}, this does not copy the bits of the filter into the heap: it returns as soon as the
+   * file is mapped, and pages of the file are only read as queries touch them. The pages are held
+   * in the operating system's page cache, and so are shared by every process that maps the file.
+   *
+   * <p>The returned filter throws {@link UnsupportedOperationException} from {@link #put} and
+   * {@link #putAll}, but can be combined into a filter created by {@link #copy}. The file must not
+   * be modified while the filter is in use; the mapping, and the file handle held by the operating
+   * system for it, are released once the filter has been garbage collected. The first call to
+   * {@link #expectedFpp} or {@link #approximateElementCount} reads the whole file.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the file, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+   * the original Bloom filter!
+   *
+   * @throws IOException if the file cannot be mapped, or if its data does not appear to be a
+   *     BloomFilter serialized using the {@linkplain #writeTo(OutputStream)} method.
+   * @since 32.1.3
+   */
+  public static <T extends @Nullable Object> BloomFilter<T> map(
+      File file, Funnel<? super T> funnel) throws IOException {
+    checkNotNull(file, "File");
+    checkNotNull(funnel, "Funnel");
+    int strategyOrdinal = -1;
+    int numHashFunctions = -1;
+    int dataLength = -1;
+    Closer closer = Closer.create();
+    try {
+      RandomAccessFile raf = closer.register(new RandomAccessFile(file, "r"));
+      strategyOrdinal = raf.readByte();
+      numHashFunctions = UnsignedBytes.toInt(raf.readByte());
+      dataLength = raf.readInt();
+
+      Strategy strategy = BloomFilterStrategies.values()[strategyOrdinal];
+
+      FileChannel channel = closer.register(raf.getChannel());
+      MappedBitArray dataArray = MappedBitArray.map(channel, raf.getFilePointer(), dataLength);
+
+      return new BloomFilter<T>(dataArray, numHashFunctions, funnel, strategy);
+    } catch (RuntimeException e) {
+      String message =
+          "Unable to map BloomFilter from file."
+              + " strategyOrdinal: "
+              + strategyOrdinal
+              + " numHashFunctions: "
+              + numHashFunctions
+              + " dataLength: "
+              + dataLength;
+      throw closer.rethrow(new IOException(message, e));
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
 }
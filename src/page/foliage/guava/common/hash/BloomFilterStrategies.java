@@ -16,8 +16,12 @@ package page.foliage.guava.common.hash;
 
 import static page.foliage.guava.common.base.Preconditions.checkArgument;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.math.RoundingMode;
-import java.util.Arrays;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.concurrent.atomic.AtomicLongArray;
 
 import javax.annotation.CheckForNull;
@@ -53,7 +57,7 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits) {
+        BitArray bits) {
       long bitSize = bits.bitSize();
       long hash64 = Hashing.murmur3_128().hashObject(object, funnel).asLong();
       int hash1 = (int) hash64;
@@ -76,7 +80,7 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits) {
+        BitArray bits) {
       long bitSize = bits.bitSize();
       long hash64 = Hashing.murmur3_128().hashObject(object, funnel).asLong();
       int hash1 = (int) hash64;
@@ -107,7 +111,7 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits) {
+        BitArray bits) {
       long bitSize = bits.bitSize();
       byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
       long hash1 = lowerEight(bytes);
@@ -128,7 +132,7 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits) {
+        BitArray bits) {
       long bitSize = bits.bitSize();
       byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
       long hash1 = lowerEight(bytes);
@@ -150,20 +154,180 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
           bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
     }
 
+    private /* static */ long upperEight(byte[] bytes) {
+      return Longs.fromBytes(
+          bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+    }
+  },
+  /**
+   * A split-block Bloom filter, as described in "Cache-, Hash- and Space-Efficient Bloom Filters"
+   * by Felix Putze, Peter Sanders and Johannes Singler. The upper 32 bits of the first half of
+   * {@link Hashing#murmur3_128} select a block of {@link #BLOCK_BITS} bits, and all of the probes
+   * for an element are confined to that block, so that a query reads a single 64-byte region of
+   * the bit array instead of up to {@code numHashFunctions} scattered words. The probes are dealt
+   * round-robin to the block's words, and the index within each word is taken from the top bits of
+   * a {@link #MURMUR128_MITZ_64}-style combined hash.
+   *
+   * <p>Confining the probes to a block raises the false positive probability above that of
+   * a standard Bloom filter of the same size, in exchange for far fewer cache misses.
+   */
+  MURMUR128_SPLIT_BLOCK_64() {
+    @Override
+    public <T extends @Nullable Object> boolean put(
+        @ParametricNullness T object,
+        Funnel<? super T> funnel,
+        int numHashFunctions,
+        BitArray bits) {
+      byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+      long hash1 = lowerEight(bytes);
+      long blockStart = blockStart(hash1, bits);
+      // the upper half of hash1 has chosen the block, so step by a hash led by its lower half
+      long step = Long.rotateLeft(hash1, 32);
+      long hash2 = upperEight(bytes);
+
+      boolean bitsChanged = false;
+      long combinedHash = hash2;
+      for (int i = 0; i < numHashFunctions; i++) {
+        bitsChanged |= bits.set(blockStart + probe(i, combinedHash));
+        combinedHash += step;
+      }
+      return bitsChanged;
+    }
+
+    @Override
+    public <T extends @Nullable Object> boolean mightContain(
+        @ParametricNullness T object,
+        Funnel<? super T> funnel,
+        int numHashFunctions,
+        BitArray bits) {
+      byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+      long hash1 = lowerEight(bytes);
+      long blockStart = blockStart(hash1, bits);
+      // the upper half of hash1 has chosen the block, so step by a hash led by its lower half
+      long step = Long.rotateLeft(hash1, 32);
+      long hash2 = upperEight(bytes);
+
+      long combinedHash = hash2;
+      for (int i = 0; i < numHashFunctions; i++) {
+        if (!bits.get(blockStart + probe(i, combinedHash))) {
+          return false;
+        }
+        combinedHash += step;
+      }
+      return true;
+    }
+
+    /** Returns the index of the first bit of the block selected by {@code hash}. */
+    private /* static */ long blockStart(long hash, BitArray bits) {
+      long blockCount = bits.bitSize() / BLOCK_BITS;
+      // maps the upper 32 bits of the hash onto [0, blockCount) without a division
+      return (((hash >>> 32) * blockCount) >>> 32) * BLOCK_BITS;
+    }
+
+    /** Returns the index within a block of the {@code i}th probe. */
+    private /* static */ long probe(int i, long combinedHash) {
+      return ((long) (i & (BLOCK_LONGS - 1)) << 6) | (combinedHash >>> (Long.SIZE - 6));
+    }
+
+    private /* static */ long lowerEight(byte[] bytes) {
+      return Longs.fromBytes(
+          bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+    }
+
     private /* static */ long upperEight(byte[] bytes) {
       return Longs.fromBytes(
           bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
     }
   };
 
+  /** The number of words in a block of {@link #MURMUR128_SPLIT_BLOCK_64}. */
+  static final int BLOCK_LONGS = 8;
+
+  /** The number of bits in a block of {@link #MURMUR128_SPLIT_BLOCK_64}, one cache line's worth. */
+  static final int BLOCK_BITS = BLOCK_LONGS * Long.SIZE;
+
+  /**
+   * Models an array of bits, stored as {@code long}s in which bit {@code i} is bit {@code i % 64}
+   * of the {@code i / 64}th {@code long}.
+   */
+  abstract static class BitArray {
+    static final int LONG_ADDRESSABLE_BITS = 6;
+
+    /** Returns true if the bit changed value. */
+    abstract boolean set(long bitIndex);
+
+    abstract boolean get(long bitIndex);
+
+    /** Number of bits */
+    final long bitSize() {
+      return (long) dataLength() * Long.SIZE;
+    }
+
+    /** Number of set bits (1s). */
+    abstract long bitCount();
+
+    /** Returns the number of {@code long}s in which the bits are stored. */
+    abstract int dataLength();
+
+    /** Returns the {@code i}th {@code long} in which the bits are stored. */
+    abstract long getData(int i);
+
+    /** Combines the two BitArrays using bitwise OR. */
+    abstract void putAll(BitArray other);
+
+    /**
+     * Careful here: if threads are mutating the array while this method is executing, the final
+     * long[] will be a "rolling snapshot" of the state of the bit array. This is usually good
+     * enough, but should be kept in mind.
+     */
+    final long[] toPlainArray() {
+      long[] array = new long[dataLength()];
+      for (int i = 0; i < array.length; ++i) {
+        array[i] = getData(i);
+      }
+      return array;
+    }
+
+    /** Returns a mutable copy of this array. */
+    final LockFreeBitArray copy() {
+      return new LockFreeBitArray(toPlainArray());
+    }
+
+    @Override
+    public final boolean equals(@CheckForNull Object o) {
+      if (o instanceof BitArray) {
+        BitArray that = (BitArray) o;
+        if (this.dataLength() != that.dataLength()) {
+          return false;
+        }
+        for (int i = 0; i < dataLength(); i++) {
+          if (this.getData(i) != that.getData(i)) {
+            return false;
+          }
+        }
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public final int hashCode() {
+      // the same as Arrays.hashCode(toPlainArray()), without the allocation
+      int result = 1;
+      for (int i = 0; i < dataLength(); i++) {
+        result = 31 * result + Longs.hashCode(getData(i));
+      }
+      return result;
+    }
+  }
+
   /**
    * Models a lock-free array of bits.
    *
    * <p>We use this instead of java.util.BitSet because we need access to the array of longs and we
    * need compare-and-swap.
    */
-  static final class LockFreeBitArray {
-    private static final int LONG_ADDRESSABLE_BITS = 6;
+  static final class LockFreeBitArray extends BitArray {
     final AtomicLongArray data;
     private final LongAddable bitCount;
 
@@ -188,7 +352,7 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
       this.bitCount.add(bitCount);
     }
 
-    /** Returns true if the bit changed value. */
+    @Override
     boolean set(long bitIndex) {
       if (get(bitIndex)) {
         return false;
@@ -212,61 +376,42 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
       return true;
     }
 
+    @Override
     boolean get(long bitIndex) {
       return (data.get((int) (bitIndex >>> LONG_ADDRESSABLE_BITS)) & (1L << bitIndex)) != 0;
     }
 
     /**
-     * Careful here: if threads are mutating the atomicLongArray while this method is executing, the
-     * final long[] will be a "rolling snapshot" of the state of the bit array. This is usually good
-     * enough, but should be kept in mind.
-     */
-    public static long[] toPlainArray(AtomicLongArray atomicLongArray) {
-      long[] array = new long[atomicLongArray.length()];
-      for (int i = 0; i < array.length; ++i) {
-        array[i] = atomicLongArray.get(i);
-      }
-      return array;
-    }
-
-    /** Number of bits */
-    long bitSize() {
-      return (long) data.length() * Long.SIZE;
-    }
-
-    /**
-     * Number of set bits (1s).
+     * {@inheritDoc}
      *
      * <p>Note that because of concurrent set calls and uses of atomics, this bitCount is a (very)
      * close *estimate* of the actual number of bits set. It's not possible to do better than an
      * estimate without locking. Note that the number, if not exactly accurate, is *always*
      * underestimating, never overestimating.
      */
+    @Override
     long bitCount() {
       return bitCount.sum();
     }
 
-    LockFreeBitArray copy() {
-      return new LockFreeBitArray(toPlainArray(data));
-    }
-
     /**
-     * Combines the two BitArrays using bitwise OR.
+     * {@inheritDoc}
      *
-     * <p>NOTE: Because of the use of atomics, if the other LockFreeBitArray is being mutated while
-     * this operation is executing, not all of those new 1's may be set in the final state of this
+     * <p>NOTE: Because of the use of atomics, if the other BitArray is being mutated while this
+     * operation is executing, not all of those new 1's may be set in the final state of this
      * LockFreeBitArray. The ONLY guarantee provided is that all the bits that were set in the other
-     * LockFreeBitArray at the start of this method will be set in this LockFreeBitArray at the end
-     * of this method.
+     * BitArray at the start of this method will be set in this LockFreeBitArray at the end of this
+     * method.
      */
-    void putAll(LockFreeBitArray other) {
+    @Override
+    void putAll(BitArray other) {
       checkArgument(
-          data.length() == other.data.length(),
+          dataLength() == other.dataLength(),
           "BitArrays must be of equal length (%s != %s)",
-          data.length(),
-          other.data.length());
-      for (int i = 0; i < data.length(); i++) {
-        putData(i, other.data.get(i));
+          dataLength(),
+          other.dataLength());
+      for (int i = 0; i < dataLength(); i++) {
+        putData(i, other.getData(i));
       }
     }
 
@@ -294,24 +439,107 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
     }
 
     /** Returns the number of {@code long}s in the underlying {@link AtomicLongArray}. */
+    @Override
     int dataLength() {
       return data.length();
     }
 
     @Override
-    public boolean equals(@CheckForNull Object o) {
-      if (o instanceof LockFreeBitArray) {
-        LockFreeBitArray lockFreeBitArray = (LockFreeBitArray) o;
-        // TODO(lowasser): avoid allocation here
-        return Arrays.equals(toPlainArray(data), toPlainArray(lockFreeBitArray.data));
+    long getData(int i) {
+      return data.get(i);
+    }
+  }
+
+  /**
+   * A read-only array of bits, stored as big-endian {@code long}s in a memory-mapped file. Since a
+   * buffer can hold at most {@link Integer#MAX_VALUE} bytes, the {@code long}s are mapped in
+   * chunks of {@link #CHUNK_LONGS}.
+   */
+  static final class MappedBitArray extends BitArray {
+    private static final int CHUNK_SHIFT = 27;
+
+    /** The number of {@code long}s in every chunk but the last, 1 GiB worth. */
+    static final int CHUNK_LONGS = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_LONGS - 1;
+
+    private static final long CHUNK_BYTES = (long) CHUNK_LONGS * Long.BYTES;
+
+    private final LongBuffer[] chunks;
+    private final int dataLength;
+
+    /**
+     * The number of set bits, or -1 if they have not been counted yet. Counting them means reading
+     * the whole file, which would defeat the purpose of mapping it, so it is deferred until needed.
+     */
+    private volatile long bitCount = -1;
+
+    private MappedBitArray(LongBuffer[] chunks, int dataLength) {
+      this.chunks = chunks;
+      this.dataLength = dataLength;
+    }
+
+    /**
+     * Maps the {@code dataLength} {@code long}s that start at {@code position} in {@code channel}.
+     * The mapping remains valid after the channel is closed.
+     *
+     * @throws EOFException if the channel ends before the last {@code long}
+     */
+    static MappedBitArray map(FileChannel channel, long position, int dataLength)
+        throws IOException {
+      checkArgument(dataLength > 0, "data length is zero!");
+      long size = (long) dataLength * Long.BYTES;
+      if (channel.size() - position < size) {
+        throw new EOFException(
+            "Expected " + size + " bytes of data but found " + (channel.size() - position));
       }
-      return false;
+      LongBuffer[] chunks = new LongBuffer[((dataLength - 1) >>> CHUNK_SHIFT) + 1];
+      for (int i = 0; i < chunks.length; i++) {
+        long offset = (long) i * CHUNK_LONGS * Long.BYTES;
+        chunks[i] =
+            channel
+                .map(MapMode.READ_ONLY, position + offset, Math.min(size - offset, CHUNK_BYTES))
+                .asLongBuffer();
+      }
+      return new MappedBitArray(chunks, dataLength);
+    }
+
+    @Override
+    boolean set(long bitIndex) {
+      throw new UnsupportedOperationException("A memory-mapped BloomFilter is read-only");
+    }
+
+    @Override
+    boolean get(long bitIndex) {
+      return (getData((int) (bitIndex >>> LONG_ADDRESSABLE_BITS)) & (1L << bitIndex)) != 0;
+    }
+
+    @Override
+    long bitCount() {
+      long result = bitCount;
+      if (result < 0) {
+        result = 0;
+        for (int i = 0; i < dataLength; i++) {
+          result += Long.bitCount(getData(i));
+        }
+        bitCount = result;
+      }
+      return result;
+    }
+
+    @Override
+    void putAll(BitArray other) {
+      throw new UnsupportedOperationException("A memory-mapped BloomFilter is read-only");
+    }
+
+    @Override
+    int dataLength() {
+      return dataLength;
     }
 
     @Override
-    public int hashCode() {
-      // TODO(lowasser): avoid allocation here
-      return Arrays.hashCode(toPlainArray(data));
+    long getData(int i) {
+      return chunks[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
     }
   }
 }
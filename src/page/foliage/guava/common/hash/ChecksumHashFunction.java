@@ -14,13 +14,23 @@
 
 package page.foliage.guava.common.hash;
 
+import static java.lang.invoke.MethodType.methodType;
 import static page.foliage.guava.common.base.Preconditions.checkArgument;
 import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+import static page.foliage.guava.common.base.Throwables.throwIfUnchecked;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 
+import javax.annotation.CheckForNull;
+
 import com.google.errorprone.annotations.Immutable;
+import com.google.j2objc.annotations.J2ObjCIncompatible;
 
 /**
  * {@link HashFunction} adapter for {@link Checksum} instances.
@@ -75,6 +85,23 @@ final class ChecksumHashFunction extends AbstractHashFunction implements Seriali
       checksum.update(bytes, off, len);
     }
 
+    /**
+     * Updates the checksum with a direct or memory-mapped buffer in place, rather than copying its
+     * contents to the heap.
+     */
+    @Override
+    protected void update(ByteBuffer bytes) {
+      if (bytes.hasArray()) {
+        super.update(bytes);
+      } else if (checksum instanceof CRC32) {
+        ((CRC32) checksum).update(bytes);
+      } else if (checksum instanceof Adler32) {
+        ((Adler32) checksum).update(bytes);
+      } else if (!ChecksumMethodHandles.update(checksum, bytes)) {
+        super.update(bytes);
+      }
+    }
+
     @Override
     public HashCode hash() {
       long value = checksum.getValue();
@@ -91,5 +118,43 @@ final class ChecksumHashFunction extends AbstractHashFunction implements Seriali
     }
   }
 
+  /**
+   * Calls {@code Checksum.update(ByteBuffer)}, which only exists in Java 9+ (like {@code CRC32C},
+   * which needs it), and which we can't call directly because we support building with Java 8.
+   */
+  @J2ObjCIncompatible
+  private static final class ChecksumMethodHandles {
+    @CheckForNull private static final MethodHandle UPDATE = updateMethod();
+
+    /** Returns false, without updating the checksum, if there is no such method. */
+    @IgnoreJRERequirement // https://github.com/mojohaus/animal-sniffer/issues/67
+    static boolean update(Checksum checksum, ByteBuffer bytes) {
+      if (UPDATE == null) {
+        return false;
+      }
+      try {
+        UPDATE.invokeExact(checksum, bytes);
+        return true;
+      } catch (Throwable e) {
+        throwIfUnchecked(e);
+        // That method has no `throws` clause.
+        throw new LinkageError(e.toString(), e);
+      }
+    }
+
+    @CheckForNull
+    private static MethodHandle updateMethod() {
+      try {
+        return MethodHandles.publicLookup()
+            .findVirtual(Checksum.class, "update", methodType(void.class, ByteBuffer.class));
+      } catch (NoSuchMethodException runningUnderJava8) {
+        return null;
+      } catch (IllegalAccessException e) {
+        // That API is public.
+        throw new LinkageError(e.toString(), e);
+      }
+    }
+  }
+
   private static final long serialVersionUID = 0L;
 }
@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+import static page.foliage.guava.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.concurrent.LazyInit;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.math.IntMath;
+
+/**
+ * An immutable set of weighted nodes, such as the servers of a fleet, among which keys are divided
+ * in proportion to the weights of the nodes, so that adding or removing any one node reassigns as
+ * few keys as possible. Unlike {@link Hashing#consistentHash(long, int)}, nodes may have different
+ * weights, and any node may be removed, not just the most recently added one.
+ *
+ * <p>Keys are given as their 64-bit hash codes, and are assigned to nodes in one of two ways:
+ *
+ * <ul>
+ *   <li>{@link #rendezvousNode} uses weighted rendezvous (highest random weight) hashing, as
+ *       described in "Weighted Distributed Hash Tables" by Christian Schindelhauer and Gunnar
+ *       Schomaker. Each key goes to the node that scores it highest, so removing a node reassigns
+ *       only that node's keys, and adding a node only takes keys from the others. A lookup takes
+ *       time linear in the number of nodes.
+ *   <li>{@link #maglevNode} uses the lookup table of "Maglev: A Fast and Reliable Software Network
+ *       Load Balancer" by Daniel E. Eisenbud et al., in which the nodes take turns to claim entries
+ *       in their own pseudorandom orders, each node as often as its weight allows. A lookup takes
+ *       constant time, and adding or removing a node reassigns only slightly more keys than the
+ *       minimum. The table has at least 65537 entries, and at least 100 per node. It is built on
+ *       the first such lookup, in time proportional to its size times the number of nodes.
+ * </ul>
+ *
+ * <p>The assignments only depend on the nodes, their weights, the funnel and the hash function, so
+ * they are the same in every process that creates a ring from the same nodes, regardless of the
+ * order in which they are added.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @param <N> the type of the nodes
+ * @since 32.1.3
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class ConsistentHashRing<N> {
+  private static final int MIN_MAGLEV_TABLE_SIZE = 1 << 16;
+
+  private final Funnel<? super N> funnel;
+  private final HashFunction hashFunction;
+
+  /** The nodes, sorted by their hash codes. */
+  private final List<N> nodes;
+
+  private final long[] nodeHashes;
+  private final double[] weights;
+  private final boolean uniformWeights;
+
+  /** The index of the node of each entry of the Maglev lookup table, built on first use. */
+  @LazyInit @CheckForNull private volatile int[] maglevTable;
+
+  private ConsistentHashRing(
+      Funnel<? super N> funnel,
+      HashFunction hashFunction,
+      List<N> nodes,
+      long[] nodeHashes,
+      double[] weights) {
+    this.funnel = funnel;
+    this.hashFunction = hashFunction;
+    this.nodes = Collections.unmodifiableList(nodes);
+    this.nodeHashes = nodeHashes;
+    this.weights = weights;
+    boolean uniform = true;
+    for (double weight : weights) {
+      uniform &= weight == weights[0];
+    }
+    this.uniformWeights = uniform;
+  }
+
+  /**
+   * Creates a ring of the given nodes, with the given weights, which hashes nodes with {@link
+   * Hashing#murmur3_128()}.
+   *
+   * @param funnel the funnel of N's that the ring uses to hash its nodes
+   * @param weights the nodes, each with its weight (which must be positive and finite)
+   */
+  public static <N> ConsistentHashRing<N> create(
+      Funnel<? super N> funnel, Map<? extends N, ? extends Number> weights) {
+    return create(funnel, Hashing.murmur3_128(), weights);
+  }
+
+  /**
+   * Creates a ring of the given nodes, with the given weights, which hashes nodes with the given
+   * hash function.
+   *
+   * @param funnel the funnel of N's that the ring uses to hash its nodes
+   * @param hashFunction a hash function of at least 64 bits, whose {@link HashCode#asLong} is
+   *     uniformly distributed
+   * @param weights the nodes, each with its weight (which must be positive and finite)
+   * @throws IllegalArgumentException if a weight is not positive and finite, or if two nodes have
+   *     the same hash code
+   */
+  public static <N> ConsistentHashRing<N> create(
+      Funnel<? super N> funnel,
+      HashFunction hashFunction,
+      Map<? extends N, ? extends Number> weights) {
+    checkNotNull(funnel);
+    checkArgument(
+        hashFunction.bits() >= Long.SIZE,
+        "Hash function must produce at least 64 bits: %s",
+        hashFunction);
+    List<Node<N>> entries = new ArrayList<>(weights.size());
+    for (Map.Entry<? extends N, ? extends Number> entry : weights.entrySet()) {
+      N node = checkNotNull(entry.getKey());
+      double weight = entry.getValue().doubleValue();
+      entries.add(new Node<N>(node, hashFunction.hashObject(node, funnel).asLong(), weight));
+    }
+    return fromNodes(funnel, hashFunction, entries);
+  }
+
+  private static <N> ConsistentHashRing<N> fromNodes(
+      Funnel<? super N> funnel, HashFunction hashFunction, List<Node<N>> entries) {
+    Collections.sort(entries, Node.BY_HASH);
+    int size = entries.size();
+    List<N> nodes = new ArrayList<>(size);
+    long[] nodeHashes = new long[size];
+    double[] weights = new double[size];
+    for (int i = 0; i < size; i++) {
+      Node<N> entry = entries.get(i);
+      checkArgument(
+          entry.weight > 0 && entry.weight < Double.POSITIVE_INFINITY,
+          "weight of %s (%s) must be positive and finite",
+          entry.node,
+          entry.weight);
+      if (i > 0) {
+        Node<N> previous = entries.get(i - 1);
+        checkArgument(
+            previous.hash != entry.hash,
+            "nodes %s and %s have the same hash code",
+            previous.node,
+            entry.node);
+      }
+      nodes.add(entry.node);
+      nodeHashes[i] = entry.hash;
+      weights[i] = entry.weight;
+    }
+    return new ConsistentHashRing<N>(funnel, hashFunction, nodes, nodeHashes, weights);
+  }
+
+  /**
+   * Returns a ring with the nodes of this one and {@code node}, which has the given weight. If this
+   * ring already has {@code node}, the returned ring gives it the new weight instead.
+   *
+   * @throws IllegalArgumentException if {@code weight} is not positive and finite, or if another
+   *     node has the same hash code as {@code node}
+   */
+  public ConsistentHashRing<N> withNode(N node, double weight) {
+    checkNotNull(node);
+    long hash = hashFunction.hashObject(node, funnel).asLong();
+    List<Node<N>> entries = new ArrayList<>(nodes.size() + 1);
+    for (int i = 0; i < nodes.size(); i++) {
+      if (!nodes.get(i).equals(node)) {
+        entries.add(new Node<N>(nodes.get(i), nodeHashes[i], weights[i]));
+      }
+    }
+    entries.add(new Node<N>(node, hash, weight));
+    return fromNodes(funnel, hashFunction, entries);
+  }
+
+  /**
+   * Returns a ring with the nodes of this one except {@code node}. Only the keys assigned to {@code
+   * node} are reassigned by {@link #rendezvousNode}. If this ring does not have {@code node}, it is
+   * returned as is.
+   */
+  public ConsistentHashRing<N> withoutNode(N node) {
+    int index = nodes.indexOf(checkNotNull(node));
+    if (index < 0) {
+      return this;
+    }
+    List<Node<N>> entries = new ArrayList<>(nodes.size() - 1);
+    for (int i = 0; i < nodes.size(); i++) {
+      if (i != index) {
+        entries.add(new Node<N>(nodes.get(i), nodeHashes[i], weights[i]));
+      }
+    }
+    return fromNodes(funnel, hashFunction, entries);
+  }
+
+  /** Returns the nodes of this ring, in an unspecified but deterministic order. */
+  public List<N> nodes() {
+    return nodes;
+  }
+
+  /**
+   * Returns the weight of {@code node}.
+   *
+   * @throws IllegalArgumentException if this ring does not have {@code node}
+   */
+  public double weight(N node) {
+    int index = nodes.indexOf(checkNotNull(node));
+    checkArgument(index >= 0, "%s is not a node of this ring", node);
+    return weights[index];
+  }
+
+  /**
+   * Returns the node to which weighted rendezvous hashing assigns the key with the given hash
+   * code. Each node is assigned keys in proportion to its weight.
+   *
+   * @throws IllegalStateException if this ring has no nodes
+   */
+  public N rendezvousNode(HashCode keyHash) {
+    return rendezvousNode(keyHash.padToLong());
+  }
+
+  /**
+   * Returns the node to which weighted rendezvous hashing assigns the key with the given hash
+   * code. Each node is assigned keys in proportion to its weight.
+   *
+   * @throws IllegalStateException if this ring has no nodes
+   */
+  public N rendezvousNode(long keyHash) {
+    checkState(!nodes.isEmpty(), "ring has no nodes");
+    int best = 0;
+    if (uniformWeights) {
+      // the scores all increase with the same uniform variable, so it can be compared directly
+      long bestScore = mix(keyHash ^ nodeHashes[0]);
+      for (int i = 1; i < nodeHashes.length; i++) {
+        long score = mix(keyHash ^ nodeHashes[i]);
+        if (Long.compareUnsigned(score, bestScore) > 0) {
+          best = i;
+          bestScore = score;
+        }
+      }
+    } else {
+      // -weight / ln(u) is the largest among the nodes with probability proportional to weight
+      double bestScore = score(keyHash, 0);
+      for (int i = 1; i < nodeHashes.length; i++) {
+        double score = score(keyHash, i);
+        if (score > bestScore) {
+          best = i;
+          bestScore = score;
+        }
+      }
+    }
+    return nodes.get(best);
+  }
+
+  private double score(long keyHash, int node) {
+    // a double in the open interval (0, 1)
+    double u = ((mix(keyHash ^ nodeHashes[node]) >>> 11) + 0.5) * 0x1.0p-53;
+    return -weights[node] / Math.log(u);
+  }
+
+  /**
+   * Returns the node to which the Maglev lookup table of this ring assigns the key with the given
+   * hash code. Each node is assigned keys in roughly proportion to its weight.
+   *
+   * @throws IllegalStateException if this ring has no nodes
+   */
+  public N maglevNode(HashCode keyHash) {
+    return maglevNode(keyHash.padToLong());
+  }
+
+  /**
+   * Returns the node to which the Maglev lookup table of this ring assigns the key with the given
+   * hash code. Each node is assigned keys in roughly proportion to its weight.
+   *
+   * @throws IllegalStateException if this ring has no nodes
+   */
+  public N maglevNode(long keyHash) {
+    checkState(!nodes.isEmpty(), "ring has no nodes");
+    int[] table = maglevTable;
+    if (table == null) {
+      table = buildMaglevTable(nodeHashes, weights);
+      maglevTable = table;
+    }
+    // maps the high bits of the mixed hash to [0, table.length) without a division
+    int entry = (int) (((mix(keyHash) >>> 32) * table.length) >>> 32);
+    return nodes.get(table[entry]);
+  }
+
+  /**
+   * Builds a Maglev lookup table. Each node has a permutation of the entries, determined by its
+   * hash code, and in each round every node claims its next free entry, except that a node claims
+   * entries only as often as the ratio of its weight to the largest weight.
+   *
+   * <p>The size of the table is the smallest prime above a power of two that is at least {@code
+   * 2^16} and at least 100 times the number of nodes. Changing the size would change every
+   * permutation, so it only changes when the number of nodes doubles.
+   */
+  private static int[] buildMaglevTable(long[] nodeHashes, double[] weights) {
+    int size = Math.max(MIN_MAGLEV_TABLE_SIZE, IntMath.ceilingPowerOfTwo(100 * nodeHashes.length));
+    while (!IntMath.isPrime(size)) {
+      size++;
+    }
+    int[] table = new int[size];
+    Arrays.fill(table, -1);
+    int[] next = new int[nodeHashes.length];
+    int[] skip = new int[nodeHashes.length];
+    double maxWeight = 0;
+    for (int i = 0; i < nodeHashes.length; i++) {
+      long hash = mix(nodeHashes[i]);
+      next[i] = (int) Long.remainderUnsigned(hash, size);
+      skip[i] = (int) Long.remainderUnsigned(mix(hash), size - 1) + 1;
+      maxWeight = Math.max(maxWeight, weights[i]);
+    }
+    double[] credit = new double[nodeHashes.length];
+    int filled = 0;
+    while (true) {
+      for (int i = 0; i < nodeHashes.length; i++) {
+        credit[i] += weights[i] / maxWeight;
+        if (credit[i] < 1) {
+          continue;
+        }
+        credit[i] -= 1;
+        // the size is prime, so the permutation reaches every entry before repeating
+        int entry = next[i];
+        while (table[entry] >= 0) {
+          entry += skip[i];
+          if (entry >= size) {
+            entry -= size;
+          }
+        }
+        table[entry] = i;
+        next[i] = entry;
+        if (++filled == size) {
+          return table;
+        }
+      }
+    }
+  }
+
+  /** The finalizer of SplitMix64, which maps similar inputs to very different outputs. */
+  private static long mix(long x) {
+    x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+    x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+    return x ^ (x >>> 31);
+  }
+
+  @Override
+  public String toString() {
+    return "ConsistentHashRing" + nodes;
+  }
+
+  /** A node with its hash code and weight, while a ring is being created. */
+  private static final class Node<N> {
+    static final Comparator<Node<?>> BY_HASH = (a, b) -> Long.compare(a.hash, b.hash);
+
+    final N node;
+    final long hash;
+    final double weight;
+
+    Node(N node, long hash, double weight) {
+      this.node = node;
+      this.hash = hash;
+      this.weight = weight;
+    }
+  }
+}
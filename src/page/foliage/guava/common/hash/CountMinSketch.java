@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.math.DoubleMath;
+
+/**
+ * A Count-Min sketch, which estimates how many times each instance of {@code T} has been added to
+ * it, as described in "An Improved Data Stream Summary: The Count-Min Sketch and its Applications"
+ * by Graham Cormode and S. Muthukrishnan.
+ *
+ * <p>A sketch has {@code depth} rows of {@code width} counters. Adding an element increments one
+ * counter in each row, chosen by hashing the element, and the estimated count of an element is the
+ * smallest of its counters. Estimates are never too low; with probability at least {@code 1 -
+ * delta}, an estimate exceeds the true count by at most {@code epsilon} times the {@linkplain
+ * #totalCount total count} of the sketch, where {@code width = ceil(e / epsilon)} and {@code depth
+ * = ceil(ln(1 / delta))}. Sketches of the same dimensions, hash function and funnel can be
+ * {@linkplain #putAll merged}.
+ *
+ * <p>This class is thread-safe and lock-free: each counter is incremented atomically, so an
+ * estimate that runs concurrently with an addition of the same element may observe some of its
+ * counters incremented and others not.
+ *
+ * @param <T> the type of instances that the {@code CountMinSketch} accepts
+ * @since 32.1.3
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class CountMinSketch<T extends @Nullable Object> {
+  private final int depth;
+  private final int width;
+  private final Funnel<? super T> funnel;
+  private final HashFunction hashFunction;
+
+  /** The counters, row by row. */
+  private final AtomicLongArray counters;
+
+  private final LongAddable totalCount;
+
+  private CountMinSketch(
+      int depth,
+      int width,
+      Funnel<? super T> funnel,
+      HashFunction hashFunction,
+      AtomicLongArray counters,
+      long totalCount) {
+    this.depth = depth;
+    this.width = width;
+    this.funnel = funnel;
+    this.hashFunction = hashFunction;
+    this.counters = counters;
+    this.totalCount = LongAddables.create();
+    this.totalCount.add(totalCount);
+  }
+
+  /**
+   * Creates an empty {@code CountMinSketch} whose estimates exceed the true counts by at most
+   * {@code epsilon} times the total count, with probability at least {@code 1 - delta}. It hashes
+   * elements with {@link Hashing#murmur3_128()}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CountMinSketch} will use
+   * @param epsilon the relative error of estimates (must be positive and less than 1.0)
+   * @param delta the probability that an estimate exceeds that error (must be positive and less
+   *     than 1.0)
+   */
+  public static <T extends @Nullable Object> CountMinSketch<T> create(
+      Funnel<? super T> funnel, double epsilon, double delta) {
+    checkArgument(epsilon > 0.0 && epsilon < 1.0, "epsilon (%s) must be in (0, 1)", epsilon);
+    checkArgument(delta > 0.0 && delta < 1.0, "delta (%s) must be in (0, 1)", delta);
+    int width = DoubleMath.roundToInt(Math.E / epsilon, RoundingMode.CEILING);
+    int depth = Math.max(1, DoubleMath.roundToInt(-Math.log(delta), RoundingMode.CEILING));
+    return create(funnel, Hashing.murmur3_128(), depth, width);
+  }
+
+  /**
+   * Creates an empty {@code CountMinSketch} of the given dimensions, which hashes elements with the
+   * given hash function.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CountMinSketch} will use
+   * @param hashFunction a hash function of at least 64 bits, whose {@link HashCode#asLong} is
+   *     uniformly distributed
+   * @param depth the number of rows of counters (must be positive)
+   * @param width the number of counters in each row (must be positive)
+   */
+  public static <T extends @Nullable Object> CountMinSketch<T> create(
+      Funnel<? super T> funnel, HashFunction hashFunction, int depth, int width) {
+    checkNotNull(funnel);
+    checkArgument(
+        hashFunction.bits() >= Long.SIZE,
+        "Hash function must produce at least 64 bits: %s",
+        hashFunction);
+    checkArgument(depth > 0, "depth (%s) must be > 0", depth);
+    checkArgument(width > 0, "width (%s) must be > 0", width);
+    long size = (long) depth * width;
+    checkArgument(size <= Integer.MAX_VALUE, "depth * width (%s) is too large", size);
+    return new CountMinSketch<T>(
+        depth, width, funnel, hashFunction, new AtomicLongArray((int) size), 0);
+  }
+
+  /** Adds one occurrence of an element to this sketch. */
+  public void add(@ParametricNullness T object) {
+    add(object, 1);
+  }
+
+  /**
+   * Adds {@code count} occurrences of an element to this sketch.
+   *
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  public void add(@ParametricNullness T object, long count) {
+    checkArgument(count >= 0, "count (%s) must be >= 0", count);
+    if (count == 0) {
+      return;
+    }
+    long hash = hashFunction.hashObject(object, funnel).asLong();
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int row = 0; row < depth; row++) {
+      counters.getAndAdd(index(row, hash1, hash2), count);
+    }
+    totalCount.add(count);
+  }
+
+  /**
+   * Returns an estimate of the number of times {@code object} has been added to this sketch, which
+   * is never less than the true number.
+   */
+  public long estimateCount(@ParametricNullness T object) {
+    long hash = hashFunction.hashObject(object, funnel).asLong();
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counters.get(index(row, hash1, hash2)));
+    }
+    return estimate;
+  }
+
+  /** Returns the total number of occurrences that have been added to this sketch. */
+  public long totalCount() {
+    return totalCount.sum();
+  }
+
+  /** Returns the number of rows of counters. */
+  public int depth() {
+    return depth;
+  }
+
+  /** Returns the number of counters in each row. */
+  public int width() {
+    return width;
+  }
+
+  /**
+   * Adds the counts of another sketch to this one, so that this sketch estimates the combined
+   * counts of both. The other sketch is not modified.
+   *
+   * @throws IllegalArgumentException if the sketches do not have the same dimensions, hash function
+   *     and funnel
+   */
+  public void putAll(CountMinSketch<T> that) {
+    checkNotNull(that);
+    checkArgument(this != that, "Cannot combine a CountMinSketch with itself.");
+    checkArgument(
+        this.depth == that.depth && this.width == that.width,
+        "CountMinSketches must have the same dimensions (%sx%s != %sx%s)",
+        this.depth,
+        this.width,
+        that.depth,
+        that.width);
+    checkArgument(
+        this.hashFunction.equals(that.hashFunction),
+        "CountMinSketches must have equal hash functions (%s != %s)",
+        this.hashFunction,
+        that.hashFunction);
+    checkArgument(
+        this.funnel.equals(that.funnel),
+        "CountMinSketches must have equal funnels (%s != %s)",
+        this.funnel,
+        that.funnel);
+    for (int i = 0; i < counters.length(); i++) {
+      long value = that.counters.get(i);
+      if (value != 0) {
+        counters.getAndAdd(i, value);
+      }
+    }
+    totalCount.add(that.totalCount());
+  }
+
+  /**
+   * Creates a new {@code CountMinSketch} that's a copy of this instance. The new instance has the
+   * same counters as this instance but shares no mutable state.
+   */
+  public CountMinSketch<T> copy() {
+    long[] values = new long[counters.length()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = counters.get(i);
+    }
+    return new CountMinSketch<T>(
+        depth, width, funnel, hashFunction, new AtomicLongArray(values), totalCount());
+  }
+
+  /**
+   * Writes this {@code CountMinSketch} to an output stream, with a custom format (not Java
+   * serialization).
+   *
+   * <p>Use {@linkplain #readFrom(InputStream, Funnel, HashFunction)} to reconstruct the written
+   * CountMinSketch.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    // Serial form:
+    // 1 big endian int, the depth
+    // 1 big endian int, the width
+    // 1 big endian long, the total count
+    // depth * width big endian longs, the counters row by row
+    DataOutputStream dout = new DataOutputStream(out);
+    dout.writeInt(depth);
+    dout.writeInt(width);
+    dout.writeLong(totalCount());
+    for (int i = 0; i < counters.length(); i++) {
+      dout.writeLong(counters.get(i));
+    }
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into a {@code
+   * CountMinSketch}.
+   *
+   * <p>Neither the {@code Funnel} nor the {@code HashFunction} to be used is encoded in the stream,
+   * so they must be provided here, and <b>must</b> behave identically to those used to populate the
+   * original sketch! Sketches created by {@link #create(Funnel, double, double)} use {@link
+   * Hashing#murmur3_128()}.
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a CountMinSketch serialized using the {@linkplain #writeTo(OutputStream)}
+   *     method.
+   */
+  public static <T extends @Nullable Object> CountMinSketch<T> readFrom(
+      InputStream in, Funnel<? super T> funnel, HashFunction hashFunction) throws IOException {
+    checkNotNull(in, "InputStream");
+    checkNotNull(funnel, "Funnel");
+    checkNotNull(hashFunction, "HashFunction");
+    int depth = -1;
+    int width = -1;
+    try {
+      DataInputStream din = new DataInputStream(in);
+      depth = din.readInt();
+      width = din.readInt();
+      long totalCount = din.readLong();
+      CountMinSketch<T> sketch = create(funnel, hashFunction, depth, width);
+      for (int i = 0; i < sketch.counters.length(); i++) {
+        sketch.counters.set(i, din.readLong());
+      }
+      sketch.totalCount.add(totalCount);
+      return sketch;
+    } catch (RuntimeException e) {
+      String message =
+          "Unable to deserialize CountMinSketch from InputStream."
+              + " depth: "
+              + depth
+              + " width: "
+              + width;
+      throw new IOException(message, e);
+    }
+  }
+
+  /** Returns the index of the counter of the element with the given hashes in {@code row}. */
+  private int index(int row, int hash1, int hash2) {
+    int combinedHash = hash1 + row * hash2;
+    // Flip all the bits if it's negative (guaranteed positive number)
+    if (combinedHash < 0) {
+      combinedHash = ~combinedHash;
+    }
+    return row * width + combinedHash % width;
+  }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.base.Predicate;
+import page.foliage.guava.common.math.DoubleMath;
+import page.foliage.guava.common.math.LongMath;
+import page.foliage.guava.common.primitives.Ints;
+import page.foliage.guava.common.primitives.Longs;
+
+/**
+ * A counting Bloom filter for instances of {@code T}. Like a {@link BloomFilter}, it offers an
+ * approximate containment test with one-sided error, but it keeps a small counter instead of a
+ * single bit for each position, and so also supports {@linkplain #remove removing} elements.
+ *
+ * <p>Each counter takes four bits, so a counting Bloom filter is four times as large as a {@link
+ * BloomFilter} with the same expected number of insertions and false positive probability. A
+ * counter saturates at 15, after which it is never decremented again; this keeps removals from
+ * introducing false negatives, and with the recommended sizing happens with negligible
+ * probability.
+ *
+ * <p>Removing an element that was never put in the filter may decrement counters shared with
+ * elements that were, and so cause {@link #mightContain} to return {@code false} for them. Only
+ * remove elements that are known to have been put.
+ *
+ * <p>This class is thread-safe and lock-free. The counters of an element are updated one at a time
+ * with compare-and-swap, so a query that runs concurrently with a {@link #put} or {@link #remove}
+ * of the same element may observe some of its counters updated and others not.
+ *
+ * @param <T> the type of instances that the {@code CountingBloomFilter} accepts
+ * @since 32.1.3
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class CountingBloomFilter<T extends @Nullable Object> implements Predicate<T> {
+  private final LockFreeCounterArray counters;
+  private final int numHashFunctions;
+  private final Funnel<? super T> funnel;
+
+  private CountingBloomFilter(
+      LockFreeCounterArray counters, int numHashFunctions, Funnel<? super T> funnel) {
+    checkArgument(numHashFunctions > 0, "numHashFunctions (%s) must be > 0", numHashFunctions);
+    checkArgument(
+        numHashFunctions <= 255, "numHashFunctions (%s) must be <= 255", numHashFunctions);
+    this.counters = checkNotNull(counters);
+    this.numHashFunctions = numHashFunctions;
+    this.funnel = checkNotNull(funnel);
+  }
+
+  /**
+   * Creates a {@link CountingBloomFilter} with the expected number of insertions and expected
+   * false positive probability.
+   *
+   * <p>Note that overflowing a {@code CountingBloomFilter} with significantly more elements than
+   * specified, will result in its saturation, and a sharp deterioration of its false positive
+   * probability.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CountingBloomFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     CountingBloomFilter}; must be positive
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   * @return a {@code CountingBloomFilter}
+   */
+  public static <T extends @Nullable Object> CountingBloomFilter<T> create(
+      Funnel<? super T> funnel, long expectedInsertions, double fpp) {
+    checkNotNull(funnel);
+    checkArgument(
+        expectedInsertions >= 0, "Expected insertions (%s) must be >= 0", expectedInsertions);
+    checkArgument(fpp > 0.0, "False positive probability (%s) must be > 0.0", fpp);
+    checkArgument(fpp < 1.0, "False positive probability (%s) must be < 1.0", fpp);
+    if (expectedInsertions == 0) {
+      expectedInsertions = 1;
+    }
+    long numCounters = Math.max(1, BloomFilter.optimalNumOfBits(expectedInsertions, fpp));
+    int numHashFunctions = BloomFilter.optimalNumOfHashFunctions(expectedInsertions, numCounters);
+    try {
+      return new CountingBloomFilter<T>(
+          new LockFreeCounterArray(numCounters), numHashFunctions, funnel);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Could not create CountingBloomFilter of " + numCounters + " counters", e);
+    }
+  }
+
+  /**
+   * Creates a {@link CountingBloomFilter} with the expected number of insertions and a default
+   * expected false positive probability of 3%.
+   *
+   * <p>Note that overflowing a {@code CountingBloomFilter} with significantly more elements than
+   * specified, will result in its saturation, and a sharp deterioration of its false positive
+   * probability.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CountingBloomFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     CountingBloomFilter}; must be positive
+   * @return a {@code CountingBloomFilter}
+   */
+  public static <T extends @Nullable Object> CountingBloomFilter<T> create(
+      Funnel<? super T> funnel, long expectedInsertions) {
+    return create(funnel, expectedInsertions, 0.03); // FYI, for 3%, we always get 5 hash functions
+  }
+
+  /**
+   * Creates a new {@code CountingBloomFilter} that's a copy of this instance. The new instance has
+   * the same counters as this instance but shares no mutable state.
+   */
+  public CountingBloomFilter<T> copy() {
+    return new CountingBloomFilter<T>(counters.copy(), numHashFunctions, funnel);
+  }
+
+  /**
+   * Returns {@code true} if the element <i>might</i> have been put in this filter and not removed
+   * since, {@code false} if this is <i>definitely</i> not the case.
+   */
+  public boolean mightContain(@ParametricNullness T object) {
+    byte[] bytes = hash(object);
+    return mightContain(lowerEight(bytes), upperEight(bytes));
+  }
+
+  /**
+   * @deprecated Provided only to satisfy the {@link Predicate} interface; use {@link #mightContain}
+   *     instead.
+   */
+  @Deprecated
+  @Override
+  public boolean apply(@ParametricNullness T input) {
+    return mightContain(input);
+  }
+
+  /**
+   * Puts an element into this {@code CountingBloomFilter}, by incrementing each of its counters.
+   * Ensures that subsequent invocations of {@link #mightContain(Object)} with the same element will
+   * return {@code true}, until it is removed as many times as it was put.
+   *
+   * @return true if any of the counters of the element was zero, in which case this is
+   *     <i>definitely</i> the first time {@code object} has been added to the filter, or the first
+   *     time since it was last removed.
+   */
+  @CanIgnoreReturnValue
+  public boolean put(@ParametricNullness T object) {
+    byte[] bytes = hash(object);
+    long hash1 = lowerEight(bytes);
+    long hash2 = upperEight(bytes);
+    long size = counters.size();
+
+    boolean countersChanged = false;
+    long combinedHash = hash1;
+    for (int i = 0; i < numHashFunctions; i++) {
+      // Make the combined hash positive and indexable
+      countersChanged |= counters.increment((combinedHash & Long.MAX_VALUE) % size);
+      combinedHash += hash2;
+    }
+    return countersChanged;
+  }
+
+  /**
+   * Removes an element from this {@code CountingBloomFilter}, by decrementing each of its counters,
+   * if {@link #mightContain(Object)} returns {@code true} for it.
+   *
+   * <p>Only remove elements that have been {@linkplain #put put} in this filter: removing any other
+   * element may cause {@link #mightContain(Object)} to return {@code false} for elements that have.
+   *
+   * @return true if the element might have been in this filter, and so its counters were
+   *     decremented
+   */
+  @CanIgnoreReturnValue
+  public boolean remove(@ParametricNullness T object) {
+    byte[] bytes = hash(object);
+    long hash1 = lowerEight(bytes);
+    long hash2 = upperEight(bytes);
+    if (!mightContain(hash1, hash2)) {
+      return false;
+    }
+    long size = counters.size();
+
+    long combinedHash = hash1;
+    for (int i = 0; i < numHashFunctions; i++) {
+      counters.decrement((combinedHash & Long.MAX_VALUE) % size);
+      combinedHash += hash2;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the probability that {@linkplain #mightContain(Object)} will erroneously return {@code
+   * true} for an object that is not in the {@code CountingBloomFilter}.
+   */
+  public double expectedFpp() {
+    return Math.pow((double) counters.nonZeroCount() / counters.size(), numHashFunctions);
+  }
+
+  /**
+   * Returns an estimate for the total number of distinct elements that are in this filter. This
+   * approximation is reasonably accurate if it does not exceed the value of {@code
+   * expectedInsertions} that was used when constructing the filter.
+   */
+  public long approximateElementCount() {
+    long size = counters.size();
+    double fractionOfCountersSet = (double) counters.nonZeroCount() / size;
+    // see BloomFilter.approximateElementCount
+    return DoubleMath.roundToLong(
+        -Math.log1p(-fractionOfCountersSet) * size / numHashFunctions, RoundingMode.HALF_UP);
+  }
+
+  private boolean mightContain(long hash1, long hash2) {
+    long size = counters.size();
+    long combinedHash = hash1;
+    for (int i = 0; i < numHashFunctions; i++) {
+      // Make the combined hash positive and indexable
+      if (counters.get((combinedHash & Long.MAX_VALUE) % size) == 0) {
+        return false;
+      }
+      combinedHash += hash2;
+    }
+    return true;
+  }
+
+  private byte[] hash(@ParametricNullness T object) {
+    return Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+  }
+
+  private static long lowerEight(byte[] bytes) {
+    return Longs.fromBytes(
+        bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+  }
+
+  private static long upperEight(byte[] bytes) {
+    return Longs.fromBytes(
+        bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+  }
+
+  /**
+   * Models a lock-free array of 4-bit counters, sixteen of which are packed in each {@code long}.
+   * Counters saturate at {@link #MAX_COUNT}, and are never decremented once saturated.
+   */
+  static final class LockFreeCounterArray {
+    private static final int LONG_ADDRESSABLE_COUNTERS = 4;
+    private static final int COUNTER_BITS = 4;
+    static final long MAX_COUNT = (1L << COUNTER_BITS) - 1;
+
+    final AtomicLongArray data;
+    private final LongAddable nonZeroCount;
+
+    LockFreeCounterArray(long counters) {
+      checkArgument(counters > 0, "data length is zero!");
+      this.data =
+          new AtomicLongArray(
+              Ints.checkedCast(
+                  LongMath.divide(
+                      counters, 1 << LONG_ADDRESSABLE_COUNTERS, RoundingMode.CEILING)));
+      this.nonZeroCount = LongAddables.create();
+    }
+
+    private LockFreeCounterArray(long[] data) {
+      this.data = new AtomicLongArray(data);
+      this.nonZeroCount = LongAddables.create();
+      for (long value : data) {
+        for (int shift = 0; shift < Long.SIZE; shift += COUNTER_BITS) {
+          if (((value >>> shift) & MAX_COUNT) != 0) {
+            nonZeroCount.increment();
+          }
+        }
+      }
+    }
+
+    /** Number of counters */
+    long size() {
+      return (long) data.length() << LONG_ADDRESSABLE_COUNTERS;
+    }
+
+    /** Number of non-zero counters, with the same caveats as {@code LockFreeBitArray.bitCount}. */
+    long nonZeroCount() {
+      return nonZeroCount.sum();
+    }
+
+    int get(long index) {
+      return (int) ((data.get(longIndex(index)) >>> shift(index)) & MAX_COUNT);
+    }
+
+    /** Increments the counter, unless it is saturated. Returns true if it was zero. */
+    boolean increment(long index) {
+      int longIndex = longIndex(index);
+      int shift = shift(index);
+
+      long oldValue;
+      long count;
+      do {
+        oldValue = data.get(longIndex);
+        count = (oldValue >>> shift) & MAX_COUNT;
+        if (count == MAX_COUNT) {
+          return false;
+        }
+      } while (!data.compareAndSet(longIndex, oldValue, oldValue + (1L << shift)));
+
+      if (count == 0) {
+        nonZeroCount.increment();
+        return true;
+      }
+      return false;
+    }
+
+    /** Decrements the counter, unless it is zero or saturated. Returns true if it became zero. */
+    boolean decrement(long index) {
+      int longIndex = longIndex(index);
+      int shift = shift(index);
+
+      long oldValue;
+      long count;
+      do {
+        oldValue = data.get(longIndex);
+        count = (oldValue >>> shift) & MAX_COUNT;
+        if (count == 0 || count == MAX_COUNT) {
+          return false;
+        }
+      } while (!data.compareAndSet(longIndex, oldValue, oldValue - (1L << shift)));
+
+      if (count == 1) {
+        nonZeroCount.add(-1);
+        return true;
+      }
+      return false;
+    }
+
+    LockFreeCounterArray copy() {
+      long[] array = new long[data.length()];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = data.get(i);
+      }
+      return new LockFreeCounterArray(array);
+    }
+
+    private static int longIndex(long index) {
+      return (int) (index >>> LONG_ADDRESSABLE_COUNTERS);
+    }
+
+    private static int shift(long index) {
+      return (int) (index & ((1 << LONG_ADDRESSABLE_COUNTERS) - 1)) * COUNTER_BITS;
+    }
+  }
+}
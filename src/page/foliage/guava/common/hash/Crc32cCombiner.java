@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Combines the CRC32C checksums of consecutive byte sequences into the checksum of their
+ * concatenation, and uses that to checksum a buffer in parallel segments.
+ *
+ * <p>The CRC of a concatenation {@code A + B} is the CRC of {@code A} multiplied by {@code x^(8 *
+ * length(B))} modulo the CRC polynomial, plus the CRC of {@code B}, where polynomials over GF(2)
+ * are represented bit-reflected, as the CRC itself is. This is the approach of zlib's {@code
+ * crc32_combine()} (version 1.2.12 and later), which takes time logarithmic in {@code length(B)}.
+ */
+@ElementTypesAreNonnullByDefault
+final class Crc32cCombiner {
+  /** The bit-reflected CRC32C (Castagnoli) polynomial {@code 0x1EDC6F41}. */
+  private static final int POLYNOMIAL = 0x82F63B78;
+
+  /** The reflected representation of the polynomial {@code 1}. */
+  private static final int ONE = 1 << 31;
+
+  /** {@code X_TO_TWO_TO_THE[k]} is {@code x^(2^k)} modulo the polynomial. */
+  private static final int[] X_TO_TWO_TO_THE = new int[32];
+
+  static {
+    int p = ONE >>> 1; // x^1
+    X_TO_TWO_TO_THE[0] = p;
+    for (int k = 1; k < X_TO_TWO_TO_THE.length; k++) {
+      p = multiply(p, p);
+      X_TO_TWO_TO_THE[k] = p;
+    }
+  }
+
+  /** The size of the segments that are checksummed sequentially by {@link #hashInParallel}. */
+  static final int SEGMENT_SIZE = 1 << 22;
+
+  /**
+   * Returns the CRC32C of the concatenation of two byte sequences, given the CRC32C of each and the
+   * length of the second.
+   */
+  static int combine(int first, int second, long secondLength) {
+    return multiply(xToEightTimes(secondLength), first) ^ second;
+  }
+
+  /** Returns {@code a * b} modulo the polynomial. */
+  private static int multiply(int a, int b) {
+    int product = 0;
+    for (int m = ONE; m != 0; m >>>= 1) {
+      if ((a & m) != 0) {
+        product ^= b;
+        if ((a & (m - 1)) == 0) {
+          break;
+        }
+      }
+      b = (b & 1) != 0 ? (b >>> 1) ^ POLYNOMIAL : b >>> 1;
+    }
+    return product;
+  }
+
+  /** Returns {@code x^(8 * n)} modulo the polynomial. */
+  private static int xToEightTimes(long n) {
+    int p = ONE;
+    for (int k = 3; n != 0; n >>>= 1, k++) {
+      if ((n & 1) != 0) {
+        p = multiply(X_TO_TWO_TO_THE[k & 31], p);
+      }
+    }
+    return p;
+  }
+
+  /**
+   * Returns the CRC32C of the remaining bytes of {@code input}, computed by checksumming segments
+   * of {@link #SEGMENT_SIZE} bytes as tasks of {@code pool}, and combining their checksums. The
+   * position of {@code input} is advanced to its limit.
+   */
+  static int hashInParallel(ByteBuffer input, ForkJoinPool pool) {
+    int crc = pool.invoke(new Segments(input.slice()));
+    Java8Compatibility.position(input, input.limit());
+    return crc;
+  }
+
+  /** Checksums a buffer by splitting it in halves until they are at most one segment long. */
+  private static final class Segments extends RecursiveTask<Integer> {
+    private final ByteBuffer bytes;
+
+    Segments(ByteBuffer bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    protected Integer compute() {
+      int length = bytes.remaining();
+      if (length <= SEGMENT_SIZE) {
+        return Hashing.crc32c().hashBytes(bytes).asInt();
+      }
+      // split on a segment boundary, so that all but the last segment are full
+      int split = (length / SEGMENT_SIZE / 2) * SEGMENT_SIZE;
+      if (split == 0) {
+        split = SEGMENT_SIZE;
+      }
+      ByteBuffer firstBytes = bytes.duplicate();
+      Java8Compatibility.limit(firstBytes, split);
+      Java8Compatibility.position(bytes, split);
+      Segments first = new Segments(firstBytes.slice());
+      Segments second = new Segments(bytes.slice());
+      first.fork();
+      int secondCrc = second.compute();
+      return combine(first.join(), secondCrc, length - split);
+    }
+
+    private static final long serialVersionUID = 0L;
+  }
+
+  private Crc32cCombiner() {}
+}
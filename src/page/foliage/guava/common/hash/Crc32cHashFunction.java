@@ -15,6 +15,7 @@
 package page.foliage.guava.common.hash;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import com.google.errorprone.annotations.Immutable;
 
@@ -39,6 +40,23 @@ final class Crc32cHashFunction extends AbstractHashFunction {
     return new Crc32cHasher();
   }
 
+  /**
+   * Hashes the remaining bytes of {@code input} in place, rather than copying them through the
+   * buffer of a {@link Crc32cHasher}. For a direct or memory-mapped buffer, this avoids copying its
+   * contents to the heap.
+   */
+  @Override
+  public HashCode hashBytes(ByteBuffer input) {
+    ByteBuffer bb = input.slice().order(ByteOrder.LITTLE_ENDIAN);
+    Java8Compatibility.position(input, input.limit());
+    Crc32cHasher hasher = new Crc32cHasher();
+    hasher.process(bb);
+    if (bb.hasRemaining()) {
+      hasher.processRemaining(bb);
+    }
+    return hasher.makeHash();
+  }
+
   @Override
   public String toString() {
     return "Hashing.crc32c()";
@@ -0,0 +1,631 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Collector;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.base.Predicate;
+import page.foliage.guava.common.math.DoubleMath;
+import page.foliage.guava.common.math.LongMath;
+import page.foliage.guava.common.primitives.Ints;
+import page.foliage.guava.common.primitives.Longs;
+import page.foliage.guava.common.primitives.UnsignedBytes;
+
+/**
+ * A cuckoo filter for instances of {@code T}, as described in "Cuckoo Filter: Practically Better
+ * Than Bloom" by Bin Fan, David G. Andersen, Michael Kaminsky and Michael D. Mitzenmacher. Like a
+ * {@link BloomFilter}, it offers an approximate containment test with one-sided error; unlike a
+ * Bloom filter, it supports {@linkplain #delete deleting} elements, and for false positive
+ * probabilities below about 0.2% it takes less space.
+ *
+ * <p>A cuckoo filter stores a short fingerprint of each element in one of two buckets of {@value
+ * #SLOTS_PER_BUCKET} slots, chosen by the hash of the element and by the hash of its fingerprint.
+ * When both buckets are full, a fingerprint is moved to its other bucket to make room, possibly
+ * displacing further fingerprints in turn. The fingerprints are packed into an array of {@code
+ * long}s, so that a lookup reads at most two short runs of memory. The number of buckets is chosen
+ * so that the filter is {@value #LOAD_FACTOR} full after the expected number of insertions; beyond
+ * that, {@link #put} increasingly fails.
+ *
+ * <p>Each put stores a fingerprint, even if one for the same element is already present, and each
+ * delete removes one. Putting the same element more than eight times, the number of slots in its
+ * two buckets, fails, and deleting an element that was never put may delete the fingerprint of
+ * another element with the same buckets and fingerprint.
+ *
+ * <p>This class is thread-safe. Updates take an exclusive lock, and {@link #mightContain} reads
+ * optimistically, without locking unless it races with an update.
+ *
+ * @param <T> the type of instances that the {@code CuckooFilter} accepts
+ * @since 32.1.3
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class CuckooFilter<T extends @Nullable Object> implements Predicate<T> {
+  /** The number of fingerprints in each bucket. */
+  static final int SLOTS_PER_BUCKET = 4;
+
+  /** The fraction of slots expected to be occupied after the expected number of insertions. */
+  static final double LOAD_FACTOR = 0.95;
+
+  /** The number of fingerprints moved before an insertion gives up. */
+  static final int MAX_KICKS = 500;
+
+  private static final int MAX_FINGERPRINT_BITS = Integer.SIZE;
+
+  /** The packed fingerprints; a fingerprint of zero marks an empty slot. */
+  private final long[] data;
+
+  private final int bucketCount;
+  private final int fingerprintBits;
+  private final Funnel<? super T> funnel;
+  private final StampedLock lock = new StampedLock();
+
+  /** The number of fingerprints stored, including the victim. */
+  private long count;
+
+  /**
+   * A fingerprint displaced by an insertion that ran out of kicks, or zero. It is kept here so that
+   * it is still found, but the filter is then considered full.
+   */
+  private int victimFingerprint;
+
+  private int victimIndex;
+
+  private CuckooFilter(
+      long[] data,
+      int bucketCount,
+      int fingerprintBits,
+      Funnel<? super T> funnel,
+      long count,
+      int victimFingerprint,
+      int victimIndex) {
+    checkArgument(bucketCount > 0, "bucketCount (%s) must be > 0", bucketCount);
+    checkArgument(
+        fingerprintBits > 0 && fingerprintBits <= MAX_FINGERPRINT_BITS,
+        "fingerprintBits (%s) must be in [1, %s]",
+        fingerprintBits,
+        MAX_FINGERPRINT_BITS);
+    checkArgument(
+        data.length == dataLength(bucketCount, fingerprintBits),
+        "data length (%s) must be %s",
+        data.length,
+        dataLength(bucketCount, fingerprintBits));
+    checkArgument(victimIndex >= 0 && victimIndex < bucketCount, "victimIndex out of range");
+    this.data = data;
+    this.bucketCount = bucketCount;
+    this.fingerprintBits = fingerprintBits;
+    this.funnel = checkNotNull(funnel);
+    this.count = count;
+    this.victimFingerprint = victimFingerprint;
+    this.victimIndex = victimIndex;
+  }
+
+  /**
+   * Creates a {@link CuckooFilter} with the expected number of insertions and expected false
+   * positive probability.
+   *
+   * <p>The false positive probability determines the size of the fingerprints, which is capped at
+   * 32 bits; probabilities below about 2<sup>-29</sup> are therefore not achieved.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CuckooFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     CuckooFilter}; must be positive
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   * @return a {@code CuckooFilter}
+   */
+  public static <T extends @Nullable Object> CuckooFilter<T> create(
+      Funnel<? super T> funnel, long expectedInsertions, double fpp) {
+    checkNotNull(funnel);
+    checkArgument(
+        expectedInsertions >= 0, "Expected insertions (%s) must be >= 0", expectedInsertions);
+    checkArgument(fpp > 0.0, "False positive probability (%s) must be > 0.0", fpp);
+    checkArgument(fpp < 1.0, "False positive probability (%s) must be < 1.0", fpp);
+    if (expectedInsertions == 0) {
+      expectedInsertions = 1;
+    }
+    // a query compares against up to 2 * SLOTS_PER_BUCKET fingerprints, each of which matches
+    // with probability 2^-f
+    int fingerprintBits =
+        Math.min(
+            MAX_FINGERPRINT_BITS,
+            DoubleMath.roundToInt(
+                DoubleMath.log2(2 * SLOTS_PER_BUCKET / fpp), RoundingMode.CEILING));
+    long buckets =
+        DoubleMath.roundToLong(
+            expectedInsertions / (SLOTS_PER_BUCKET * LOAD_FACTOR), RoundingMode.CEILING);
+    try {
+      int bucketCount = Ints.checkedCast(buckets);
+      return new CuckooFilter<T>(
+          new long[dataLength(bucketCount, fingerprintBits)],
+          bucketCount,
+          fingerprintBits,
+          funnel,
+          0,
+          0,
+          0);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Could not create CuckooFilter of " + buckets + " buckets", e);
+    }
+  }
+
+  /**
+   * Creates a {@link CuckooFilter} with the expected number of insertions and a default expected
+   * false positive probability of 3%.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CuckooFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     CuckooFilter}; must be positive
+   * @return a {@code CuckooFilter}
+   */
+  public static <T extends @Nullable Object> CuckooFilter<T> create(
+      Funnel<? super T> funnel, long expectedInsertions) {
+    return create(funnel, expectedInsertions, 0.03);
+  }
+
+  /**
+   * Returns a {@code Collector} expecting the specified number of insertions, and yielding a {@link
+   * CuckooFilter} with the specified expected false positive probability. Elements that do not fit
+   * in the filter are dropped, as by {@link #put}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CuckooFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     CuckooFilter}; must be positive
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   * @return a {@code Collector} generating a {@code CuckooFilter} of the received elements
+   */
+  public static <T extends @Nullable Object> Collector<T, ?, CuckooFilter<T>> toCuckooFilter(
+      Funnel<? super T> funnel, long expectedInsertions, double fpp) {
+    checkNotNull(funnel);
+    checkArgument(
+        expectedInsertions >= 0, "Expected insertions (%s) must be >= 0", expectedInsertions);
+    checkArgument(fpp > 0.0, "False positive probability (%s) must be > 0.0", fpp);
+    checkArgument(fpp < 1.0, "False positive probability (%s) must be < 1.0", fpp);
+    return Collector.of(
+        () -> CuckooFilter.create(funnel, expectedInsertions, fpp),
+        CuckooFilter::put,
+        (cf1, cf2) -> {
+          cf1.putAll(cf2);
+          return cf1;
+        },
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Returns {@code true} if the element <i>might</i> have been put in this filter and not deleted
+   * since, {@code false} if this is <i>definitely</i> not the case.
+   */
+  public boolean mightContain(@ParametricNullness T object) {
+    byte[] bytes = hash(object);
+    int index = index(lowerEight(bytes));
+    int fingerprint = fingerprint(upperEight(bytes));
+    int altIndex = altIndex(index, fingerprint);
+
+    long stamp = lock.tryOptimisticRead();
+    boolean result = contains(index, altIndex, fingerprint);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        result = contains(index, altIndex, fingerprint);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @deprecated Provided only to satisfy the {@link Predicate} interface; use {@link #mightContain}
+   *     instead.
+   */
+  @Deprecated
+  @Override
+  public boolean apply(@ParametricNullness T input) {
+    return mightContain(input);
+  }
+
+  /**
+   * Puts an element into this {@code CuckooFilter}. If this returns {@code true}, subsequent
+   * invocations of {@link #mightContain(Object)} with the same element will return {@code true}
+   * until it is deleted.
+   *
+   * @return true if the element was put, false if the filter is too full to hold it
+   */
+  @CanIgnoreReturnValue
+  public boolean put(@ParametricNullness T object) {
+    byte[] bytes = hash(object);
+    int index = index(lowerEight(bytes));
+    int fingerprint = fingerprint(upperEight(bytes));
+
+    long stamp = lock.writeLock();
+    try {
+      return insert(index, fingerprint);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Deletes an element from this {@code CuckooFilter}, by removing one of the fingerprints that
+   * match it. Only delete elements that have been {@linkplain #put put} in this filter: deleting
+   * any other element may cause {@link #mightContain(Object)} to return {@code false} for an
+   * element that has.
+   *
+   * @return true if a matching fingerprint was found and removed
+   */
+  @CanIgnoreReturnValue
+  public boolean delete(@ParametricNullness T object) {
+    byte[] bytes = hash(object);
+    int index = index(lowerEight(bytes));
+    int fingerprint = fingerprint(upperEight(bytes));
+    int altIndex = altIndex(index, fingerprint);
+
+    long stamp = lock.writeLock();
+    try {
+      if (victimFingerprint == fingerprint
+          && (victimIndex == index || victimIndex == altIndex)) {
+        victimFingerprint = 0;
+        count--;
+        return true;
+      }
+      if (removeFromBucket(index, fingerprint) || removeFromBucket(altIndex, fingerprint)) {
+        count--;
+        reinsertVictim();
+        return true;
+      }
+      return false;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Puts the fingerprints of another filter into this one. The other filter must have been created
+   * with the same parameters and an equal funnel.
+   *
+   * @return true if all of the fingerprints were put, false if this filter became too full
+   * @throws IllegalArgumentException if the filters were not created with the same parameters
+   */
+  @CanIgnoreReturnValue
+  public boolean putAll(CuckooFilter<T> that) {
+    checkNotNull(that);
+    checkArgument(this != that, "Cannot combine a CuckooFilter with itself.");
+    checkArgument(
+        this.bucketCount == that.bucketCount && this.fingerprintBits == that.fingerprintBits,
+        "CuckooFilters must have the same number of buckets (%s != %s) and fingerprint size "
+            + "(%s != %s)",
+        this.bucketCount,
+        that.bucketCount,
+        this.fingerprintBits,
+        that.fingerprintBits);
+    checkArgument(
+        this.funnel.equals(that.funnel),
+        "CuckooFilters must have equal funnels (%s != %s)",
+        this.funnel,
+        that.funnel);
+    // copy the other filter first, to avoid holding both locks
+    CuckooFilter<T> source = that.copy();
+
+    long stamp = lock.writeLock();
+    try {
+      for (int index = 0; index < bucketCount; index++) {
+        for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+          int fingerprint = source.getSlot(index, slot);
+          if (fingerprint != 0 && !insert(index, fingerprint)) {
+            return false;
+          }
+        }
+      }
+      return source.victimFingerprint == 0
+          || insert(source.victimIndex, source.victimFingerprint);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Creates a new {@code CuckooFilter} that's a copy of this instance. The new instance has the
+   * same fingerprints as this instance but shares no mutable state.
+   */
+  public CuckooFilter<T> copy() {
+    long stamp = lock.readLock();
+    try {
+      return new CuckooFilter<T>(
+          data.clone(),
+          bucketCount,
+          fingerprintBits,
+          funnel,
+          count,
+          victimFingerprint,
+          victimIndex);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns the number of fingerprints in this filter: the number of successful {@link #put}s less
+   * the number of successful {@link #delete}s. This overestimates the number of distinct elements
+   * if some were put more than once, or if deletions removed the fingerprints of other elements.
+   */
+  public long approximateElementCount() {
+    long stamp = lock.readLock();
+    try {
+      return count;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns the probability that {@linkplain #mightContain(Object)} will erroneously return {@code
+   * true} for an object that has not actually been put in the {@code CuckooFilter}.
+   */
+  public double expectedFpp() {
+    double load = (double) approximateElementCount() / ((long) bucketCount * SLOTS_PER_BUCKET);
+    // each of the fingerprints in the two buckets of a query matches with probability 2^-f
+    double comparisons = 2 * SLOTS_PER_BUCKET * Math.min(load, 1.0);
+    return -Math.expm1(comparisons * Math.log1p(-Math.scalb(1.0, -fingerprintBits)));
+  }
+
+  /**
+   * Writes this {@code CuckooFilter} to an output stream, with a custom format (not Java
+   * serialization).
+   *
+   * <p>Use {@linkplain #readFrom(InputStream, Funnel)} to reconstruct the written CuckooFilter.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    // Serial form:
+    // 1 unsigned byte for the number of bits in a fingerprint
+    // 1 big endian int, the number of buckets
+    // 1 big endian long, the number of fingerprints
+    // 1 big endian int, the victim fingerprint, or 0
+    // 1 big endian int, the bucket of the victim
+    // N big endian longs of packed fingerprints
+    DataOutputStream dout = new DataOutputStream(out);
+    long[] snapshot;
+    long count;
+    int victimFingerprint;
+    int victimIndex;
+    long stamp = lock.readLock();
+    try {
+      snapshot = data.clone();
+      count = this.count;
+      victimFingerprint = this.victimFingerprint;
+      victimIndex = this.victimIndex;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+    dout.writeByte(UnsignedBytes.checkedCast(fingerprintBits));
+    dout.writeInt(bucketCount);
+    dout.writeLong(count);
+    dout.writeInt(victimFingerprint);
+    dout.writeInt(victimIndex);
+    for (long value : snapshot) {
+      dout.writeLong(value);
+    }
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into a {@code
+   * CuckooFilter}.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the stream, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+   * the original cuckoo filter!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a CuckooFilter serialized using the {@linkplain #writeTo(OutputStream)}
+   *     method.
+   */
+  public static <T extends @Nullable Object> CuckooFilter<T> readFrom(
+      InputStream in, Funnel<? super T> funnel) throws IOException {
+    checkNotNull(in, "InputStream");
+    checkNotNull(funnel, "Funnel");
+    int fingerprintBits = -1;
+    int bucketCount = -1;
+    try {
+      DataInputStream din = new DataInputStream(in);
+      fingerprintBits = UnsignedBytes.toInt(din.readByte());
+      bucketCount = din.readInt();
+      long count = din.readLong();
+      int victimFingerprint = din.readInt();
+      int victimIndex = din.readInt();
+
+      long[] data = new long[dataLength(bucketCount, fingerprintBits)];
+      for (int i = 0; i < data.length; i++) {
+        data[i] = din.readLong();
+      }
+
+      return new CuckooFilter<T>(
+          data, bucketCount, fingerprintBits, funnel, count, victimFingerprint, victimIndex);
+    } catch (RuntimeException e) {
+      String message =
+          "Unable to deserialize CuckooFilter from InputStream."
+              + " fingerprintBits: "
+              + fingerprintBits
+              + " bucketCount: "
+              + bucketCount;
+      throw new IOException(message, e);
+    }
+  }
+
+  /** Returns the number of {@code long}s that hold the fingerprints, and one to spare. */
+  private static int dataLength(int bucketCount, int fingerprintBits) {
+    checkArgument(bucketCount > 0, "bucketCount (%s) must be > 0", bucketCount);
+    checkArgument(fingerprintBits > 0, "fingerprintBits (%s) must be > 0", fingerprintBits);
+    long bits = (long) bucketCount * SLOTS_PER_BUCKET * fingerprintBits;
+    // the spare long lets getSlot and setSlot read the word after the last one unconditionally
+    return Ints.checkedCast(LongMath.divide(bits, Long.SIZE, RoundingMode.CEILING) + 1);
+  }
+
+  private byte[] hash(@ParametricNullness T object) {
+    return Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+  }
+
+  /** Maps the upper 32 bits of {@code hash} onto a bucket, without a division. */
+  private int index(long hash) {
+    return (int) (((hash >>> 32) * bucketCount) >>> 32);
+  }
+
+  /** Returns the top bits of {@code hash} as a fingerprint, avoiding zero. */
+  private int fingerprint(long hash) {
+    int fingerprint = (int) (hash >>> (Long.SIZE - fingerprintBits));
+    return fingerprint == 0 ? 1 : fingerprint;
+  }
+
+  /**
+   * Returns the other bucket of {@code fingerprint} in {@code index}. This is an involution, so
+   * that either bucket of a fingerprint can be found from the other without the original element.
+   */
+  private int altIndex(int index, int fingerprint) {
+    // (h - i) mod n, rather than the XOR of the paper, so that n need not be a power of two
+    long mixed = (fingerprint * 0x5bd1e995) & 0xffffffffL;
+    return (int) ((mixed % bucketCount - index + bucketCount) % bucketCount);
+  }
+
+  private boolean contains(int index, int altIndex, int fingerprint) {
+    return bucketContains(index, fingerprint)
+        || bucketContains(altIndex, fingerprint)
+        || (victimFingerprint == fingerprint
+            && (victimIndex == index || victimIndex == altIndex));
+  }
+
+  private boolean bucketContains(int index, int fingerprint) {
+    for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+      if (getSlot(index, slot) == fingerprint) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Inserts {@code fingerprint} in one of its buckets. Must hold the write lock. */
+  private boolean insert(int index, int fingerprint) {
+    if (victimFingerprint != 0) {
+      return false;
+    }
+    int altIndex = altIndex(index, fingerprint);
+    if (addToBucket(index, fingerprint) || addToBucket(altIndex, fingerprint)) {
+      count++;
+      return true;
+    }
+    // both buckets are full, so kick fingerprints to their other buckets until one fits
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int current = random.nextBoolean() ? index : altIndex;
+    for (int kick = 0; kick < MAX_KICKS; kick++) {
+      int slot = random.nextInt(SLOTS_PER_BUCKET);
+      int kicked = getSlot(current, slot);
+      setSlot(current, slot, fingerprint);
+      fingerprint = kicked;
+      current = altIndex(current, fingerprint);
+      if (addToBucket(current, fingerprint)) {
+        count++;
+        return true;
+      }
+    }
+    // the fingerprint in hand belongs to an element that was already put, so keep it; the new
+    // element was stored in its place, and so put succeeded
+    victimFingerprint = fingerprint;
+    victimIndex = current;
+    count++;
+    return true;
+  }
+
+  /** Moves the victim into a bucket, if a deletion made room for it. Must hold the write lock. */
+  private void reinsertVictim() {
+    if (victimFingerprint != 0) {
+      int fingerprint = victimFingerprint;
+      int index = victimIndex;
+      if (addToBucket(index, fingerprint)
+          || addToBucket(altIndex(index, fingerprint), fingerprint)) {
+        victimFingerprint = 0;
+      }
+    }
+  }
+
+  private boolean addToBucket(int index, int fingerprint) {
+    for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+      if (getSlot(index, slot) == 0) {
+        setSlot(index, slot, fingerprint);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean removeFromBucket(int index, int fingerprint) {
+    for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+      if (getSlot(index, slot) == fingerprint) {
+        setSlot(index, slot, 0);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int getSlot(int index, int slot) {
+    long bitIndex = ((long) index * SLOTS_PER_BUCKET + slot) * fingerprintBits;
+    int word = (int) (bitIndex >>> 6);
+    int offset = (int) bitIndex & (Long.SIZE - 1);
+    long value = data[word] >>> offset;
+    if (offset != 0) {
+      value |= data[word + 1] << (Long.SIZE - offset);
+    }
+    return (int) (value & fingerprintMask());
+  }
+
+  private void setSlot(int index, int slot, int fingerprint) {
+    long bitIndex = ((long) index * SLOTS_PER_BUCKET + slot) * fingerprintBits;
+    int word = (int) (bitIndex >>> 6);
+    int offset = (int) bitIndex & (Long.SIZE - 1);
+    long mask = fingerprintMask();
+    long value = fingerprint & mask;
+    data[word] = (data[word] & ~(mask << offset)) | (value << offset);
+    if (offset + fingerprintBits > Long.SIZE) {
+      int shift = Long.SIZE - offset;
+      data[word + 1] = (data[word + 1] & ~(mask >>> shift)) | (value >>> shift);
+    }
+  }
+
+  private long fingerprintMask() {
+    return (1L << fingerprintBits) - 1;
+  }
+
+  private static long lowerEight(byte[] bytes) {
+    return Longs.fromBytes(
+        bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+  }
+
+  private static long upperEight(byte[] bytes) {
+    return Longs.fromBytes(
+        bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+  }
+}
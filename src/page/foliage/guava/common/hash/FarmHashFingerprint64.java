@@ -19,6 +19,9 @@ import static page.foliage.guava.common.hash.LittleEndianByteArray.load64;
 import static java.lang.Long.rotateRight;
 import static page.foliage.guava.common.base.Preconditions.checkPositionIndexes;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import page.foliage.guava.common.annotations.VisibleForTesting;
 
 /**
@@ -53,6 +56,27 @@ final class FarmHashFingerprint64 extends AbstractNonStreamingHashFunction {
     return HashCode.fromLong(fingerprint(input, off, len));
   }
 
+  @Override
+  long hashBytesToLong(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    return fingerprint(input, off, len);
+  }
+
+  /**
+   * Hashes the remaining bytes of {@code input} in place. Unlike the superclass, this also reads
+   * direct and memory-mapped buffers in place, with absolute long-wise loads, rather than copying
+   * them to the heap.
+   */
+  @Override
+  public HashCode hashBytes(ByteBuffer input) {
+    if (input.hasArray()) {
+      return super.hashBytes(input);
+    }
+    ByteBuffer bytes = input.slice().order(ByteOrder.LITTLE_ENDIAN);
+    Java8Compatibility.position(input, input.limit());
+    return HashCode.fromLong(fingerprint(bytes));
+  }
+
   @Override
   public int bits() {
     return 64;
@@ -80,6 +104,19 @@ final class FarmHashFingerprint64 extends AbstractNonStreamingHashFunction {
     }
   }
 
+  /** Returns the fingerprint of the bytes of {@code bytes}, which is little-endian. */
+  @VisibleForTesting
+  static long fingerprint(ByteBuffer bytes) {
+    int length = bytes.remaining();
+    if (length <= 64) {
+      // Copying at most 64 bytes costs little, and then short inputs share the byte array code.
+      byte[] copy = new byte[length];
+      bytes.get(copy);
+      return fingerprint(copy, 0, length);
+    }
+    return hashLength65Plus(bytes, length);
+  }
+
   private static long shiftMix(long val) {
     return val ^ (val >>> 47);
   }
@@ -115,6 +152,24 @@ final class FarmHashFingerprint64 extends AbstractNonStreamingHashFunction {
     output[1] = seedB + c;
   }
 
+  /** Same as {@link #weakHashLength32WithSeeds(byte[], int, long, long, long[])}. */
+  private static void weakHashLength32WithSeeds(
+      ByteBuffer bytes, int offset, long seedA, long seedB, long[] output) {
+    long part1 = bytes.getLong(offset);
+    long part2 = bytes.getLong(offset + 8);
+    long part3 = bytes.getLong(offset + 16);
+    long part4 = bytes.getLong(offset + 24);
+
+    seedA += part1;
+    seedB = rotateRight(seedB + seedA + part4, 21);
+    long c = seedA;
+    seedA += part2;
+    seedA += part3;
+    seedB += rotateRight(seedA, 44);
+    output[0] = seedA + part4;
+    output[1] = seedB + c;
+  }
+
   private static long hashLength0to16(byte[] bytes, int offset, int length) {
     if (length >= 8) {
       long mul = K2 + length * 2L;
@@ -214,4 +269,49 @@ final class FarmHashFingerprint64 extends AbstractNonStreamingHashFunction {
         hashLength16(v[1], w[1], mul) + z,
         mul);
   }
+
+  /** Same as {@link #hashLength65Plus(byte[], int, int)}, for the bytes of {@code bytes}. */
+  private static long hashLength65Plus(ByteBuffer bytes, int length) {
+    int seed = 81;
+    long x = seed;
+    @SuppressWarnings("ConstantOverflow")
+    long y = seed * K1 + 113;
+    long z = shiftMix(y * K2 + 113) * K2;
+    long[] v = new long[2];
+    long[] w = new long[2];
+    x = x * K2 + bytes.getLong(0);
+
+    int offset = 0;
+    int end = ((length - 1) / 64) * 64;
+    int last64offset = end + ((length - 1) & 63) - 63;
+    do {
+      x = rotateRight(x + y + v[0] + bytes.getLong(offset + 8), 37) * K1;
+      y = rotateRight(y + v[1] + bytes.getLong(offset + 48), 42) * K1;
+      x ^= w[1];
+      y += v[0] + bytes.getLong(offset + 40);
+      z = rotateRight(z + w[0], 33) * K1;
+      weakHashLength32WithSeeds(bytes, offset, v[1] * K1, x + w[0], v);
+      weakHashLength32WithSeeds(bytes, offset + 32, z + w[1], y + bytes.getLong(offset + 16), w);
+      long tmp = x;
+      x = z;
+      z = tmp;
+      offset += 64;
+    } while (offset != end);
+    long mul = K1 + ((z & 0xFF) << 1);
+    offset = last64offset;
+    w[0] += ((length - 1) & 63);
+    v[0] += w[0];
+    w[0] += v[0];
+    x = rotateRight(x + y + v[0] + bytes.getLong(offset + 8), 37) * mul;
+    y = rotateRight(y + v[1] + bytes.getLong(offset + 48), 42) * mul;
+    x ^= w[1] * 9;
+    y += v[0] * 9 + bytes.getLong(offset + 40);
+    z = rotateRight(z + w[0], 33) * mul;
+    weakHashLength32WithSeeds(bytes, offset, v[1] * mul, x + w[0], v);
+    weakHashLength32WithSeeds(bytes, offset + 32, z + w[1], y + bytes.getLong(offset + 16), w);
+    return hashLength16(
+        hashLength16(v[0], w[0], mul) + shiftMix(y) * K0 + x,
+        hashLength16(v[1], w[1], mul) + z,
+        mul);
+  }
 }
@@ -14,11 +14,14 @@
 
 package page.foliage.guava.common.hash;
 
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.Immutable;
 
 import page.foliage.guava.common.primitives.Ints;
@@ -217,6 +220,48 @@ public interface HashFunction {
   <T extends @Nullable Object> HashCode hashObject(
       @ParametricNullness T instance, Funnel<? super T> funnel);
 
+  /**
+   * Hashes many {@code long} values at once: sets {@code output[i]} to {@code
+   * hashLong(input[i]).padToLong()} for each index {@code i} of {@code input}. The implementation
+   * <i>might</i> do so without allocating a {@link Hasher} or {@link HashCode} per value, but
+   * should not perform worse than the longhand equivalent.
+   *
+   * @throws IllegalArgumentException if {@code output} is shorter than {@code input}
+   * @since 32.1.3
+   */
+  default void hashLongs(long[] input, long[] output) {
+    checkArgument(
+        output.length >= input.length,
+        "output (length %s) is shorter than input (length %s)",
+        output.length,
+        input.length);
+    for (int i = 0; i < input.length; i++) {
+      output[i] = hashLong(input[i]).padToLong();
+    }
+  }
+
+  /**
+   * Hashes many objects at once: sets {@code output[i]} to {@code hashObject(instance,
+   * funnel).padToLong()} for the {@code i}th {@code instance} of {@code inputs}. The implementation
+   * <i>might</i> do so without allocating a {@link Hasher} or {@link HashCode} per object, but
+   * should not perform worse than the longhand equivalent.
+   *
+   * @return the number of objects hashed, which is the size of {@code inputs}
+   * @throws IllegalArgumentException if {@code output} is shorter than {@code inputs}, in which
+   *     case it holds the hash codes of as many objects as it can
+   * @since 32.1.3
+   */
+  @CanIgnoreReturnValue
+  default <T extends @Nullable Object> int hashAll(
+      Iterable<? extends T> inputs, Funnel<? super T> funnel, long[] output) {
+    int i = 0;
+    for (T input : inputs) {
+      checkArgument(i < output.length, "output (length %s) is shorter than inputs", output.length);
+      output[i++] = hashObject(input, funnel).padToLong();
+    }
+    return i;
+  }
+
   /**
    * Returns the number of bits (a multiple of 32) that each hash code produced by this hash
    * function has.
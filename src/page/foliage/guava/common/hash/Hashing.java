@@ -21,12 +21,14 @@ import static page.foliage.guava.common.base.Throwables.throwIfUnchecked;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
 import java.security.Key;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
@@ -442,6 +444,43 @@ public final class Hashing {
     }
   }
 
+  /**
+   * Returns the {@linkplain #crc32c() CRC32C} checksum of the concatenation of two byte sequences,
+   * given the checksum of each and the length of the second. This takes time logarithmic in {@code
+   * secondLength}, so the checksum of a large input can be computed from those of segments that
+   * were checksummed independently, for example in parallel or as they were written.
+   *
+   * @param first the CRC32C checksum of the first byte sequence
+   * @param second the CRC32C checksum of the second byte sequence
+   * @param secondLength the number of bytes in the second byte sequence
+   * @throws IllegalArgumentException if either checksum is not 32 bits, or if {@code secondLength}
+   *     is negative
+   * @since 32.1.3
+   */
+  public static HashCode combineCrc32c(HashCode first, HashCode second, long secondLength) {
+    checkArgument(first.bits() == 32, "first must be a 32-bit checksum but was %s", first);
+    checkArgument(second.bits() == 32, "second must be a 32-bit checksum but was %s", second);
+    checkArgument(secondLength >= 0, "secondLength (%s) must be >= 0", secondLength);
+    return HashCode.fromInt(Crc32cCombiner.combine(first.asInt(), second.asInt(), secondLength));
+  }
+
+  /**
+   * Returns the {@linkplain #crc32c() CRC32C} checksum of the remaining bytes of {@code input},
+   * computed in parallel. The input is split in segments of a few megabytes, which are checksummed
+   * as tasks of {@code pool} and then {@linkplain #combineCrc32c combined}. The position of {@code
+   * input} is advanced to its limit.
+   *
+   * <p>This is meant for large direct or memory-mapped buffers, which are read in place. A file
+   * larger than a {@code MappedByteBuffer} can hold can be checksummed by mapping it in regions,
+   * and combining the checksums of the regions with {@link #combineCrc32c}.
+   *
+   * @since 32.1.3
+   */
+  public static HashCode parallelCrc32c(ByteBuffer input, ForkJoinPool pool) {
+    checkNotNull(pool);
+    return HashCode.fromInt(Crc32cCombiner.hashInParallel(input, pool));
+  }
+
   /**
    * Returns a hash function implementing the CRC-32 checksum algorithm (32 hash bits).
    *
@@ -595,6 +634,84 @@ public final class Hashing {
     return Fingerprint2011.FINGERPRINT_2011;
   }
 
+  /**
+   * Returns a hash function implementing the 64-bit variant of <a
+   * href="https://github.com/Cyan4973/xxHash">XXH3</a>, with a seed of zero.
+   *
+   * <p>XXH3 is not cryptographically secure, but it is one of the fastest non-cryptographic hash
+   * functions on both short and long inputs, with good distribution. Its hash values are those of
+   * {@code XXH3_64bits} in xxHash 0.8.x, encoded by {@link HashCode#asBytes} in little-endian
+   * order: {@link HashCode#asLong} returns the same value as the C implementation.
+   *
+   * @since 32.1.3
+   */
+  public static HashFunction xxh3_64() {
+    return Xxh3HashFunction.XXH3_64;
+  }
+
+  /**
+   * Returns a hash function implementing the 64-bit variant of <a
+   * href="https://github.com/Cyan4973/xxHash">XXH3</a>, with the given seed. Its hash values are
+   * those of {@code XXH3_64bits_withSeed}.
+   *
+   * @since 32.1.3
+   */
+  public static HashFunction xxh3_64(long seed) {
+    return new Xxh3HashFunction(64, seed);
+  }
+
+  /**
+   * Returns a hash function implementing the 128-bit variant of <a
+   * href="https://github.com/Cyan4973/xxHash">XXH3</a>, with a seed of zero.
+   *
+   * <p>Its hash values are those of {@code XXH3_128bits} in xxHash 0.8.x. {@link HashCode#asBytes}
+   * encodes the low 64 bits of the hash, then the high 64 bits, each in little-endian order, so
+   * {@link HashCode#asLong} returns the low 64 bits. Note that this differs from the big-endian
+   * {@code XXH128_canonical_t} representation.
+   *
+   * @since 32.1.3
+   */
+  public static HashFunction xxh3_128() {
+    return Xxh3HashFunction.XXH3_128;
+  }
+
+  /**
+   * Returns a hash function implementing the 128-bit variant of <a
+   * href="https://github.com/Cyan4973/xxHash">XXH3</a>, with the given seed. Its hash values are
+   * those of {@code XXH3_128bits_withSeed}, encoded as described in {@link #xxh3_128()}.
+   *
+   * @since 32.1.3
+   */
+  public static HashFunction xxh3_128(long seed) {
+    return new Xxh3HashFunction(128, seed);
+  }
+
+  /**
+   * Returns a hash function implementing <a
+   * href="https://github.com/wangyi-fudan/wyhash">wyhash</a> (64 hash bits, "final4" version),
+   * with a seed of zero.
+   *
+   * <p>wyhash is not cryptographically secure, but it is very fast, especially on short inputs. Its
+   * hash values are encoded by {@link HashCode#asBytes} in little-endian order, so {@link
+   * HashCode#asLong} returns the same value as the C implementation with its default secret.
+   *
+   * @since 32.1.3
+   */
+  public static HashFunction wyhash() {
+    return WyHashFunction.WYHASH;
+  }
+
+  /**
+   * Returns a hash function implementing <a
+   * href="https://github.com/wangyi-fudan/wyhash">wyhash</a> (64 hash bits, "final4" version),
+   * with the given seed.
+   *
+   * @since 32.1.3
+   */
+  public static HashFunction wyhash(long seed) {
+    return new WyHashFunction(seed);
+  }
+
   /**
    * Assigns to {@code hashCode} a "bucket" in the range {@code [0, buckets)}, in a uniform manner
    * that minimizes the need for remapping as {@code buckets} grows. That is, {@code
@@ -619,7 +736,8 @@ public final class Hashing {
    *       no way for you to specify which of the three buckets is disappearing. Thus, if your
    *       buckets change from {@code [alpha, bravo, charlie]} to {@code [bravo, charlie]}, it will
    *       assign all the old {@code alpha} traffic to {@code bravo} and all the old {@code bravo}
-   *       traffic to {@code charlie}, rather than letting {@code bravo} keep its traffic.
+   *       traffic to {@code charlie}, rather than letting {@code bravo} keep its traffic. {@link
+   *       ConsistentHashRing} supports removing any bucket, and buckets of different weights.
    * </ul>
    *
    * <p>See the <a href="http://en.wikipedia.org/wiki/Consistent_hashing">Wikipedia article on
@@ -653,7 +771,8 @@ public final class Hashing {
    *       no way for you to specify which of the three buckets is disappearing. Thus, if your
    *       buckets change from {@code [alpha, bravo, charlie]} to {@code [bravo, charlie]}, it will
    *       assign all the old {@code alpha} traffic to {@code bravo} and all the old {@code bravo}
-   *       traffic to {@code charlie}, rather than letting {@code bravo} keep its traffic.
+   *       traffic to {@code charlie}, rather than letting {@code bravo} keep its traffic. {@link
+   *       ConsistentHashRing} supports removing any bucket, and buckets of different weights.
    * </ul>
    *
    * <p>See the <a href="http://en.wikipedia.org/wiki/Consistent_hashing">Wikipedia article on
@@ -0,0 +1,496 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.math.DoubleMath;
+
+/**
+ * A HyperLogLog sketch, which estimates the number of distinct instances of {@code T} that have
+ * been put in it, as described in "HyperLogLog: the analysis of a near-optimal cardinality
+ * estimation algorithm" by Philippe Flajolet, Éric Fusy, Olivier Gandouet and Frédéric Meunier.
+ *
+ * <p>A sketch of precision {@code p} has 2<sup>p</sup> registers, and estimates any cardinality
+ * with a relative standard error of about 1.04 / 2<sup>p/2</sup>: 0.81% for the default precision
+ * of {@value #DEFAULT_PRECISION}. Each element is hashed to 64 bits; the first {@code p} bits
+ * select a register, which keeps the largest number of leading zeros seen in the remaining bits.
+ * The estimate is computed with the improved estimator of "New cardinality estimation algorithms
+ * for HyperLogLog sketches" by Otmar Ertl, which is accurate for small and large cardinalities
+ * alike without empirical bias correction.
+ *
+ * <p>While few registers are set, they are stored sparsely, as a sorted array of register indexes
+ * and values; once the sparse form would take an eighth of the size of the dense one, one byte per
+ * register, the sketch converts itself. Sketches of the same precision, hash function and funnel
+ * can be {@linkplain #putAll merged}, giving the sketch of the union of their elements.
+ *
+ * <p>This class is thread-safe and lock-free. The dense registers are updated with
+ * compare-and-swap, and the sparse form is replaced as a whole.
+ *
+ * @param <T> the type of instances that the {@code HyperLogLog} accepts
+ * @since 32.1.3
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class HyperLogLog<T extends @Nullable Object> {
+  /** The smallest supported precision. */
+  static final int MIN_PRECISION = 4;
+
+  /** The largest supported precision. */
+  static final int MAX_PRECISION = 18;
+
+  /** The precision of sketches created without one. */
+  static final int DEFAULT_PRECISION = 14;
+
+  private static final int SERIAL_SPARSE = 0;
+  private static final int SERIAL_DENSE = 1;
+
+  private final int precision;
+  private final Funnel<? super T> funnel;
+  private final HashFunction hashFunction;
+  private final AtomicReference<Registers> registers;
+
+  private HyperLogLog(
+      int precision, Funnel<? super T> funnel, HashFunction hashFunction, Registers registers) {
+    this.precision = precision;
+    this.funnel = funnel;
+    this.hashFunction = hashFunction;
+    this.registers = new AtomicReference<>(registers);
+  }
+
+  /**
+   * Creates an empty {@code HyperLogLog} of the given precision, which hashes elements with {@link
+   * Hashing#murmur3_128()}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code HyperLogLog} will use
+   * @param precision the base 2 logarithm of the number of registers, from 4 to 18
+   */
+  public static <T extends @Nullable Object> HyperLogLog<T> create(
+      Funnel<? super T> funnel, int precision) {
+    return create(funnel, Hashing.murmur3_128(), precision);
+  }
+
+  /**
+   * Creates an empty {@code HyperLogLog} of the default precision, {@value #DEFAULT_PRECISION},
+   * which hashes elements with {@link Hashing#murmur3_128()}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code HyperLogLog} will use
+   */
+  public static <T extends @Nullable Object> HyperLogLog<T> create(Funnel<? super T> funnel) {
+    return create(funnel, DEFAULT_PRECISION);
+  }
+
+  /**
+   * Creates an empty {@code HyperLogLog} of the given precision, which hashes elements with the
+   * given hash function.
+   *
+   * @param funnel the funnel of T's that the constructed {@code HyperLogLog} will use
+   * @param hashFunction a hash function of at least 64 bits, whose {@link HashCode#asLong} is
+   *     uniformly distributed
+   * @param precision the base 2 logarithm of the number of registers, from 4 to 18
+   */
+  public static <T extends @Nullable Object> HyperLogLog<T> create(
+      Funnel<? super T> funnel, HashFunction hashFunction, int precision) {
+    checkNotNull(funnel);
+    checkArgument(
+        hashFunction.bits() >= Long.SIZE,
+        "Hash function must produce at least 64 bits: %s",
+        hashFunction);
+    checkArgument(
+        precision >= MIN_PRECISION && precision <= MAX_PRECISION,
+        "precision (%s) must be in [%s, %s]",
+        precision,
+        MIN_PRECISION,
+        MAX_PRECISION);
+    return new HyperLogLog<T>(precision, funnel, hashFunction, Sparse.EMPTY);
+  }
+
+  /**
+   * Puts an element into this {@code HyperLogLog}.
+   *
+   * @return true if a register changed as a result of this operation, in which case this is
+   *     <i>definitely</i> the first time {@code object} has been put in the sketch
+   */
+  @CanIgnoreReturnValue
+  public boolean put(@ParametricNullness T object) {
+    long hash = hashFunction.hashObject(object, funnel).asLong();
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // the rank is one more than the number of leading zeros in the remaining bits; the appended
+    // one bit caps it at 64 - precision + 1
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    return update(index, rank);
+  }
+
+  /**
+   * Merges another sketch into this one, so that this sketch estimates the number of distinct
+   * elements that have been put in either. The other sketch is not modified.
+   *
+   * @throws IllegalArgumentException if the sketches do not have the same precision, hash function
+   *     and funnel
+   */
+  public void putAll(HyperLogLog<T> that) {
+    checkNotNull(that);
+    checkArgument(this != that, "Cannot combine a HyperLogLog with itself.");
+    checkArgument(
+        this.precision == that.precision,
+        "HyperLogLogs must have the same precision (%s != %s)",
+        this.precision,
+        that.precision);
+    checkArgument(
+        this.hashFunction.equals(that.hashFunction),
+        "HyperLogLogs must have equal hash functions (%s != %s)",
+        this.hashFunction,
+        that.hashFunction);
+    checkArgument(
+        this.funnel.equals(that.funnel),
+        "HyperLogLogs must have equal funnels (%s != %s)",
+        this.funnel,
+        that.funnel);
+    byte[] values = that.registers.get().toArray(1 << precision);
+    for (int index = 0; index < values.length; index++) {
+      if (values[index] != 0) {
+        update(index, values[index]);
+      }
+    }
+  }
+
+  /**
+   * Creates a new {@code HyperLogLog} that's a copy of this instance. The new instance has the same
+   * registers as this instance but shares no mutable state.
+   */
+  public HyperLogLog<T> copy() {
+    return new HyperLogLog<T>(precision, funnel, hashFunction, registers.get().copy());
+  }
+
+  /**
+   * Returns an estimate of the number of distinct elements that have been put in this sketch,
+   * including those put in sketches {@linkplain #putAll merged} into it.
+   */
+  public long approximateElementCount() {
+    int m = 1 << precision;
+    int q = Long.SIZE - precision;
+    byte[] values = registers.get().toArray(m);
+    int[] histogram = new int[q + 2];
+    for (byte value : values) {
+      histogram[value]++;
+    }
+    if (histogram[0] == m) {
+      return 0;
+    }
+    double z = m * tau(1.0 - (double) histogram[q + 1] / m);
+    for (int k = q; k >= 1; k--) {
+      z = 0.5 * (z + histogram[k]);
+    }
+    z += m * sigma((double) histogram[0] / m);
+    double alpha = 0.5 / Math.log(2);
+    return DoubleMath.roundToLong(alpha * m * m / z, RoundingMode.HALF_UP);
+  }
+
+  /** Returns the precision of this sketch, the base 2 logarithm of its number of registers. */
+  public int precision() {
+    return precision;
+  }
+
+  /**
+   * Writes this {@code HyperLogLog} to an output stream, with a custom format (not Java
+   * serialization). A sketch that is still sparse is written in its sparse form.
+   *
+   * <p>Use {@linkplain #readFrom(InputStream, Funnel)} to reconstruct the written HyperLogLog.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    // Serial form:
+    // 1 unsigned byte for the precision
+    // 1 unsigned byte, 0 for the sparse form or 1 for the dense form
+    // sparse: 1 big endian int, the number of set registers, then that many big endian ints, each
+    //   the index of a register shifted left by 8 bits, ORed with its value
+    // dense: 2^precision bytes, the values of the registers
+    DataOutputStream dout = new DataOutputStream(out);
+    dout.writeByte(precision);
+    Registers snapshot = registers.get();
+    if (snapshot instanceof Sparse) {
+      int[] entries = ((Sparse) snapshot).entries;
+      dout.writeByte(SERIAL_SPARSE);
+      dout.writeInt(entries.length);
+      for (int entry : entries) {
+        dout.writeInt(entry);
+      }
+    } else {
+      dout.writeByte(SERIAL_DENSE);
+      dout.write(snapshot.toArray(1 << precision));
+    }
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)} from a sketch
+   * that hashes with {@link Hashing#murmur3_128()}, into a {@code HyperLogLog}.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the stream, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+   * the original sketch!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a HyperLogLog serialized using the {@linkplain #writeTo(OutputStream)} method.
+   */
+  public static <T extends @Nullable Object> HyperLogLog<T> readFrom(
+      InputStream in, Funnel<? super T> funnel) throws IOException {
+    return readFrom(in, funnel, Hashing.murmur3_128());
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)} from a sketch
+   * that hashes with {@code hashFunction}, into a {@code HyperLogLog}.
+   *
+   * <p>Neither the {@code Funnel} nor the {@code HashFunction} to be used is encoded in the stream,
+   * so they must be provided here, and <b>must</b> behave identically to those used to populate the
+   * original sketch!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a HyperLogLog serialized using the {@linkplain #writeTo(OutputStream)} method.
+   */
+  public static <T extends @Nullable Object> HyperLogLog<T> readFrom(
+      InputStream in, Funnel<? super T> funnel, HashFunction hashFunction) throws IOException {
+    checkNotNull(in, "InputStream");
+    checkNotNull(funnel, "Funnel");
+    checkNotNull(hashFunction, "HashFunction");
+    int precision = -1;
+    int form = -1;
+    try {
+      DataInputStream din = new DataInputStream(in);
+      precision = din.readUnsignedByte();
+      form = din.readUnsignedByte();
+      HyperLogLog<T> sketch = create(funnel, hashFunction, precision);
+      int maxValue = Long.SIZE - precision + 1;
+      if (form == SERIAL_SPARSE) {
+        int size = din.readInt();
+        checkArgument(size >= 0 && size <= sparseLimit(precision), "sparse size (%s)", size);
+        int[] entries = new int[size];
+        for (int i = 0; i < size; i++) {
+          entries[i] = din.readInt();
+          checkArgument(
+              (entries[i] >>> 8) < (1 << precision) && (entries[i] & 0xff) <= maxValue,
+              "invalid register %s",
+              entries[i]);
+          checkArgument(i == 0 || entries[i] >>> 8 > entries[i - 1] >>> 8, "unsorted registers");
+        }
+        sketch.registers.set(new Sparse(entries));
+      } else {
+        checkArgument(form == SERIAL_DENSE, "unknown form");
+        byte[] values = new byte[1 << precision];
+        din.readFully(values);
+        for (byte value : values) {
+          checkArgument(value >= 0 && value <= maxValue, "invalid register value %s", value);
+        }
+        sketch.registers.set(Dense.of(values));
+      }
+      return sketch;
+    } catch (RuntimeException e) {
+      String message =
+          "Unable to deserialize HyperLogLog from InputStream."
+              + " precision: "
+              + precision
+              + " form: "
+              + form;
+      throw new IOException(message, e);
+    }
+  }
+
+  /** Raises register {@code index} to {@code value}. Returns true if it was lower. */
+  private boolean update(int index, int value) {
+    while (true) {
+      Registers current = registers.get();
+      if (current instanceof Dense) {
+        return ((Dense) current).update(index, value);
+      }
+      Sparse sparse = (Sparse) current;
+      Registers updated = sparse.with(index, value, precision);
+      if (updated == sparse) {
+        return false;
+      }
+      if (registers.compareAndSet(sparse, updated)) {
+        return true;
+      }
+    }
+  }
+
+  /** The number of set registers above which the sparse form converts to the dense one. */
+  private static int sparseLimit(int precision) {
+    // four bytes per sparse entry, against one byte per dense register
+    return (1 << precision) / (8 * 4);
+  }
+
+  /** Ertl's sigma function, for the contribution of empty registers. */
+  private static double sigma(double x) {
+    if (x == 1.0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double y = 1.0;
+    double z = x;
+    double previous;
+    do {
+      x *= x;
+      previous = z;
+      z += x * y;
+      y += y;
+    } while (z != previous);
+    return z;
+  }
+
+  /** Ertl's tau function, for the contribution of saturated registers. */
+  private static double tau(double x) {
+    if (x == 0.0 || x == 1.0) {
+      return 0.0;
+    }
+    double y = 1.0;
+    double z = 1.0 - x;
+    double previous;
+    do {
+      x = Math.sqrt(x);
+      previous = z;
+      y *= 0.5;
+      z -= (1.0 - x) * (1.0 - x) * y;
+    } while (z != previous);
+    return z / 3;
+  }
+
+  /** The registers of a sketch, in either form. */
+  private abstract static class Registers {
+    /** Returns the values of the {@code m} registers. */
+    abstract byte[] toArray(int m);
+
+    abstract Registers copy();
+  }
+
+  /**
+   * Immutable sparse registers: the set registers, each encoded as its index shifted left by 8 bits
+   * ORed with its value, sorted by index.
+   */
+  private static final class Sparse extends Registers {
+    static final Sparse EMPTY = new Sparse(new int[0]);
+
+    final int[] entries;
+
+    Sparse(int[] entries) {
+      this.entries = entries;
+    }
+
+    /**
+     * Returns registers in which register {@code index} is at least {@code value}: this instance
+     * if it already is, otherwise new sparse registers, or dense ones if they would be too many.
+     */
+    Registers with(int index, int value, int precision) {
+      int position = Arrays.binarySearch(entries, index << 8);
+      if (position < 0) {
+        position = -position - 1;
+      }
+      if (position < entries.length && entries[position] >>> 8 == index) {
+        if ((entries[position] & 0xff) >= value) {
+          return this;
+        }
+        int[] updated = entries.clone();
+        updated[position] = (index << 8) | value;
+        return new Sparse(updated);
+      }
+      if (entries.length >= sparseLimit(precision)) {
+        Dense dense = Dense.of(toArray(1 << precision));
+        dense.update(index, value);
+        return dense;
+      }
+      int[] updated = new int[entries.length + 1];
+      System.arraycopy(entries, 0, updated, 0, position);
+      updated[position] = (index << 8) | value;
+      System.arraycopy(entries, position, updated, position + 1, entries.length - position);
+      return new Sparse(updated);
+    }
+
+    @Override
+    byte[] toArray(int m) {
+      byte[] values = new byte[m];
+      for (int entry : entries) {
+        values[entry >>> 8] = (byte) entry;
+      }
+      return values;
+    }
+
+    @Override
+    Registers copy() {
+      return this;
+    }
+  }
+
+  /** Dense registers, one byte each, packed eight to a {@code long}. */
+  private static final class Dense extends Registers {
+    final AtomicLongArray data;
+
+    private Dense(AtomicLongArray data) {
+      this.data = data;
+    }
+
+    static Dense of(byte[] values) {
+      long[] data = new long[(values.length + Long.BYTES - 1) / Long.BYTES];
+      for (int i = 0; i < values.length; i++) {
+        data[i >>> 3] |= (long) values[i] << ((i & 7) << 3);
+      }
+      return new Dense(new AtomicLongArray(data));
+    }
+
+    /** Raises register {@code index} to {@code value}. Returns true if it was lower. */
+    boolean update(int index, int value) {
+      int longIndex = index >>> 3;
+      int shift = (index & 7) << 3;
+      long oldValue;
+      do {
+        oldValue = data.get(longIndex);
+        if (((oldValue >>> shift) & 0xff) >= value) {
+          return false;
+        }
+      } while (!data.compareAndSet(
+          longIndex, oldValue, (oldValue & ~(0xffL << shift)) | ((long) value << shift)));
+      return true;
+    }
+
+    @Override
+    byte[] toArray(int m) {
+      byte[] values = new byte[m];
+      for (int i = 0; i < data.length(); i++) {
+        long word = data.get(i);
+        for (int j = 0; j < Long.BYTES; j++) {
+          values[(i << 3) | j] = (byte) (word >>> (j << 3));
+        }
+      }
+      return values;
+    }
+
+    @Override
+    Registers copy() {
+      return of(toArray(data.length() * Long.BYTES));
+    }
+  }
+}
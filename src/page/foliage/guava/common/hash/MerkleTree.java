@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkElementIndex;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.CheckForNull;
+
+import page.foliage.guava.common.annotations.Beta;
+
+/**
+ * A binary hash tree (Merkle tree) over a sequence of chunks of data, such as the fixed-size chunks
+ * of a large file. Its root hash identifies the whole sequence, and comparing the hashes of its
+ * intermediate nodes finds the chunks in which two sequences differ without comparing every chunk.
+ *
+ * <p>The hashes are those of the Merkle tree hash of <a
+ * href="https://www.rfc-editor.org/rfc/rfc6962#section-2.1">RFC 6962</a>: the hash of a leaf is
+ * that of a {@code 0x00} byte followed by its chunk (see {@link #newLeafHasher}), and the hash of
+ * an interior node is that of a {@code 0x01} byte followed by the hashes of its two children. The
+ * nodes of each level are paired from left to right, and the last node of a level with an odd
+ * number of nodes is carried up to the next level unchanged. The tree of no chunks has no leaves,
+ * and its root is the hash of no bytes.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * @since 32.1.3
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class MerkleTree {
+  private static final byte LEAF_PREFIX = 0x00;
+  private static final byte NODE_PREFIX = 0x01;
+
+  private final HashFunction hashFunction;
+
+  /**
+   * The hashes of the nodes, level by level from the leaves to the root. The tree of no leaves has
+   * one empty level.
+   */
+  private final HashCode[][] levels;
+
+  private final HashCode root;
+
+  private MerkleTree(HashFunction hashFunction, HashCode[][] levels, HashCode root) {
+    this.hashFunction = hashFunction;
+    this.levels = levels;
+    this.root = root;
+  }
+
+  /**
+   * Returns a new hasher that computes the hash of a leaf, once it is given the bytes of the leaf's
+   * chunk.
+   */
+  public static Hasher newLeafHasher(HashFunction hashFunction) {
+    return hashFunction.newHasher().putByte(LEAF_PREFIX);
+  }
+
+  /**
+   * Returns the tree with the given leaves, in order.
+   *
+   * @param hashFunction the hash function that computed {@code leafHashes}, and that is used to
+   *     hash the interior nodes
+   * @param leafHashes the hashes of the leaves, as computed by hashers returned by {@link
+   *     #newLeafHasher}
+   * @throws IllegalArgumentException if a leaf hash does not have the number of bits of {@code
+   *     hashFunction}
+   */
+  public static MerkleTree create(HashFunction hashFunction, List<HashCode> leafHashes) {
+    checkNotNull(hashFunction);
+    HashCode[] level = leafHashes.toArray(new HashCode[0]);
+    for (HashCode leaf : level) {
+      checkArgument(
+          leaf.bits() == hashFunction.bits(),
+          "leaf hash %s does not have the %s bits of %s",
+          leaf,
+          hashFunction.bits(),
+          hashFunction);
+    }
+    if (level.length == 0) {
+      return new MerkleTree(
+          hashFunction, new HashCode[][] {level}, hashFunction.hashBytes(new byte[0]));
+    }
+    List<HashCode[]> levels = new ArrayList<>();
+    levels.add(level);
+    while (level.length > 1) {
+      HashCode[] parents = new HashCode[(level.length + 1) / 2];
+      for (int i = 0; i + 1 < level.length; i += 2) {
+        parents[i / 2] =
+            hashFunction
+                .newHasher()
+                .putByte(NODE_PREFIX)
+                .putBytes(level[i].getBytesInternal())
+                .putBytes(level[i + 1].getBytesInternal())
+                .hash();
+      }
+      if (level.length % 2 == 1) {
+        parents[parents.length - 1] = level[level.length - 1];
+      }
+      level = parents;
+      levels.add(level);
+    }
+    return new MerkleTree(hashFunction, levels.toArray(new HashCode[0][]), level[0]);
+  }
+
+  /** Returns the hash function of this tree. */
+  public HashFunction hashFunction() {
+    return hashFunction;
+  }
+
+  /** Returns the hash of the root of this tree, which identifies all of its chunks. */
+  public HashCode root() {
+    return root;
+  }
+
+  /** Returns the number of leaves of this tree, which is the number of its chunks. */
+  public int leafCount() {
+    return levels[0].length;
+  }
+
+  /**
+   * Returns the number of levels of this tree, including the leaves and the root. A tree of at
+   * most one leaf has one level.
+   */
+  public int levelCount() {
+    return levels.length;
+  }
+
+  /**
+   * Returns the hashes of the nodes of the given level, from left to right, where level 0 has the
+   * leaves and level {@code levelCount() - 1} has only the root (unless the tree has no leaves).
+   */
+  public List<HashCode> level(int level) {
+    checkElementIndex(level, levels.length, "level");
+    return Collections.unmodifiableList(Arrays.asList(levels[level]));
+  }
+
+  /**
+   * Returns the indexes of the leaves whose hashes differ between this tree and {@code other}, in
+   * increasing order, descending only into the subtrees whose hashes differ. If one tree has more
+   * leaves than the other, its extra leaves are included.
+   *
+   * @throws IllegalArgumentException if the trees do not have equal hash functions
+   */
+  public List<Integer> differingLeaves(MerkleTree other) {
+    checkArgument(
+        hashFunction.equals(other.hashFunction),
+        "MerkleTrees must have equal hash functions (%s != %s)",
+        hashFunction,
+        other.hashFunction);
+    List<Integer> differences = new ArrayList<>();
+    if (leafCount() != other.leafCount()) {
+      // the shapes of the trees differ, so the subtrees cannot be compared
+      int common = Math.min(leafCount(), other.leafCount());
+      for (int i = 0; i < Math.max(leafCount(), other.leafCount()); i++) {
+        if (i >= common || !levels[0][i].equals(other.levels[0][i])) {
+          differences.add(i);
+        }
+      }
+      return differences;
+    }
+    if (leafCount() > 0) {
+      collectDifferences(other, levels.length - 1, 0, differences);
+    }
+    return differences;
+  }
+
+  private void collectDifferences(MerkleTree other, int level, int index, List<Integer> out) {
+    if (levels[level][index].equals(other.levels[level][index])) {
+      return;
+    }
+    if (level == 0) {
+      out.add(index);
+      return;
+    }
+    // a node that was carried up unchanged has only one child
+    int child = 2 * index;
+    collectDifferences(other, level - 1, child, out);
+    if (child + 1 < levels[level - 1].length) {
+      collectDifferences(other, level - 1, child + 1, out);
+    }
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof MerkleTree) {
+      MerkleTree that = (MerkleTree) object;
+      return hashFunction.equals(that.hashFunction) && root.equals(that.root);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return root.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "MerkleTree{leaves=" + leafCount() + ", root=" + root + "}";
+  }
+}
@@ -25,6 +25,9 @@
 
 package page.foliage.guava.common.hash;
 
+import static page.foliage.guava.common.base.Preconditions.checkPositionIndexes;
+import static page.foliage.guava.common.hash.LittleEndianByteArray.load64;
+import static page.foliage.guava.common.hash.LittleEndianByteArray.load64Safely;
 import static page.foliage.guava.common.primitives.UnsignedBytes.toInt;
 
 import java.io.Serializable;
@@ -33,6 +36,8 @@ import java.nio.ByteOrder;
 
 import javax.annotation.CheckForNull;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import com.google.errorprone.annotations.Immutable;
 
 /**
@@ -86,6 +91,76 @@ final class Murmur3_128HashFunction extends AbstractHashFunction implements Seri
     return getClass().hashCode() ^ seed;
   }
 
+  /**
+   * Hashes the remaining bytes of {@code input} in place, with absolute long-wise loads, rather
+   * than copying them through the buffer of a {@link Murmur3_128Hasher}. For a direct or
+   * memory-mapped buffer, this avoids copying its contents to the heap.
+   */
+  @Override
+  public HashCode hashBytes(ByteBuffer input) {
+    ByteBuffer bb = input.slice().order(ByteOrder.LITTLE_ENDIAN);
+    Java8Compatibility.position(input, input.limit());
+    Murmur3_128Hasher hasher = new Murmur3_128Hasher(seed);
+    int len = bb.remaining();
+    int bodyLength = len - len % Murmur3_128Hasher.CHUNK_SIZE;
+    for (int i = 0; i < bodyLength; i += Murmur3_128Hasher.CHUNK_SIZE) {
+      hasher.bmix64(bb.getLong(i), bb.getLong(i + 8));
+    }
+    hasher.length = bodyLength;
+    if (len > bodyLength) {
+      Java8Compatibility.position(bb, bodyLength);
+      hasher.processRemaining(bb.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+    return hasher.makeHash();
+  }
+
+  @Override
+  public void hashLongs(long[] input, long[] output) {
+    hashLongsAsBytes(input, output);
+  }
+
+  @Override
+  public <T extends @Nullable Object> int hashAll(
+      Iterable<? extends T> inputs, Funnel<? super T> funnel, long[] output) {
+    return hashAllAsBytes(inputs, funnel, output);
+  }
+
+  /**
+   * Returns the first 64 bits of the hash of the given bytes, computed as a {@link
+   * Murmur3_128Hasher} would but without allocating it, its buffer or the {@link HashCode}.
+   */
+  @Override
+  long hashBytesToLong(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    long h1 = seed;
+    long h2 = seed;
+    int end = off + len;
+    int bodyEnd = end - len % Murmur3_128Hasher.CHUNK_SIZE;
+    for (int i = off; i < bodyEnd; i += Murmur3_128Hasher.CHUNK_SIZE) {
+      h1 ^= Murmur3_128Hasher.mixK1(load64(input, i));
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      h2 ^= Murmur3_128Hasher.mixK2(load64(input, i + 8));
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+    // mixing a zero k1 or k2 is a no-op, so a short or empty tail needs no special case
+    int tailLength = end - bodyEnd;
+    h1 ^= Murmur3_128Hasher.mixK1(load64Safely(input, bodyEnd, tailLength));
+    h2 ^= Murmur3_128Hasher.mixK2(load64Safely(input, bodyEnd + 8, tailLength - 8));
+
+    h1 ^= len;
+    h2 ^= len;
+    h1 += h2;
+    h2 += h1;
+    h1 = Murmur3_128Hasher.fmix64(h1);
+    h2 = Murmur3_128Hasher.fmix64(h2);
+    return h1 + h2;
+  }
+
   private static final class Murmur3_128Hasher extends AbstractStreamingHasher {
     private static final int CHUNK_SIZE = 16;
     private static final long C1 = 0x87c37b91114253d5L;
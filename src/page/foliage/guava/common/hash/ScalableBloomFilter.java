@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkArgument;
+import static page.foliage.guava.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.CheckForNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import page.foliage.guava.common.annotations.Beta;
+import page.foliage.guava.common.base.Predicate;
+import page.foliage.guava.common.math.LongMath;
+
+/**
+ * A Bloom filter for instances of {@code T} that grows to accommodate any number of elements while
+ * keeping its false positive probability below the one it was created with, as described in
+ * "Scalable Bloom Filters" by Paulo Sérgio Almeida, Carlos Baquero, Nuno Preguiça and David
+ * Hutchison.
+ *
+ * <p>A scalable Bloom filter is a chain of {@link BloomFilter}s. Elements are put in the most
+ * recent filter until it holds as many elements as it was created for; then a new filter is added
+ * to the chain, with {@value #GROWTH_FACTOR} times the expected insertions and {@value
+ * #TIGHTENING_RATIO} times the false positive probability of the previous one. An element might be
+ * contained if any filter in the chain might contain it, so the false positive probabilities of the
+ * filters form a geometric series whose sum is at most that of the scalable filter. The cost is
+ * that a query hashes the element once for each filter in the chain, which grows logarithmically
+ * with the number of elements.
+ *
+ * <p>This class is thread-safe. Queries and insertions are lock-free, except that the insertion
+ * that fills a filter briefly takes a lock to add the next one. Concurrent insertions may put a few
+ * more elements than expected in a filter before the next one is added.
+ *
+ * @param <T> the type of instances that the {@code ScalableBloomFilter} accepts
+ * @since 32.1.3
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class ScalableBloomFilter<T extends @Nullable Object> implements Predicate<T> {
+  /** The factor by which the expected insertions grow from one filter to the next. */
+  static final int GROWTH_FACTOR = 2;
+
+  /** The factor by which the false positive probability shrinks from one filter to the next. */
+  static final double TIGHTENING_RATIO = 0.8;
+
+  private final Funnel<? super T> funnel;
+
+  /** The most recently added stage, which new elements are put in. */
+  private volatile Stage<T> current;
+
+  private ScalableBloomFilter(Funnel<? super T> funnel, Stage<T> current) {
+    this.funnel = funnel;
+    this.current = current;
+  }
+
+  /**
+   * Creates a {@link ScalableBloomFilter} with the expected number of insertions for its first
+   * filter, and the false positive probability that it will keep below however many elements are
+   * put in it.
+   *
+   * @param funnel the funnel of T's that the constructed {@code ScalableBloomFilter} will use
+   * @param initialExpectedInsertions the number of expected insertions to the first filter of the
+   *     constructed {@code ScalableBloomFilter}; must be positive
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   * @return a {@code ScalableBloomFilter}
+   */
+  public static <T extends @Nullable Object> ScalableBloomFilter<T> create(
+      Funnel<? super T> funnel, long initialExpectedInsertions, double fpp) {
+    checkNotNull(funnel);
+    checkArgument(
+        initialExpectedInsertions > 0,
+        "Initial expected insertions (%s) must be > 0",
+        initialExpectedInsertions);
+    checkArgument(fpp > 0.0, "False positive probability (%s) must be > 0.0", fpp);
+    checkArgument(fpp < 1.0, "False positive probability (%s) must be < 1.0", fpp);
+    // the sum of fpp * (1 - r) * r^i over all i is fpp
+    double initialFpp = fpp * (1 - TIGHTENING_RATIO);
+    return new ScalableBloomFilter<T>(
+        funnel, new Stage<T>(null, funnel, initialExpectedInsertions, initialFpp));
+  }
+
+  /**
+   * Creates a {@link ScalableBloomFilter} with the expected number of insertions for its first
+   * filter, and a default false positive probability of 3%.
+   *
+   * @param funnel the funnel of T's that the constructed {@code ScalableBloomFilter} will use
+   * @param initialExpectedInsertions the number of expected insertions to the first filter of the
+   *     constructed {@code ScalableBloomFilter}; must be positive
+   * @return a {@code ScalableBloomFilter}
+   */
+  public static <T extends @Nullable Object> ScalableBloomFilter<T> create(
+      Funnel<? super T> funnel, long initialExpectedInsertions) {
+    return create(funnel, initialExpectedInsertions, 0.03);
+  }
+
+  /**
+   * Creates a new {@code ScalableBloomFilter} that's a copy of this instance. The new instance
+   * holds copies of the filters of this instance, and shares no mutable state with it.
+   */
+  public ScalableBloomFilter<T> copy() {
+    return new ScalableBloomFilter<T>(funnel, current.copy());
+  }
+
+  /**
+   * Returns {@code true} if the element <i>might</i> have been put in this Bloom filter, {@code
+   * false} if this is <i>definitely</i> not the case.
+   */
+  public boolean mightContain(@ParametricNullness T object) {
+    for (Stage<T> stage = current; stage != null; stage = stage.previous) {
+      if (stage.filter.mightContain(object)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @deprecated Provided only to satisfy the {@link Predicate} interface; use {@link #mightContain}
+   *     instead.
+   */
+  @Deprecated
+  @Override
+  public boolean apply(@ParametricNullness T input) {
+    return mightContain(input);
+  }
+
+  /**
+   * Puts an element into this {@code ScalableBloomFilter}, unless it might already contain it.
+   * Ensures that subsequent invocations of {@link #mightContain(Object)} with the same element will
+   * always return {@code true}.
+   *
+   * @return true if the element was put in the most recent filter. If so, this is
+   *     <i>definitely</i> the first time {@code object} has been added to the filter. If not, this
+   *     <i>might</i> be the first time {@code object} has been added to the filter.
+   */
+  @CanIgnoreReturnValue
+  public boolean put(@ParametricNullness T object) {
+    Stage<T> stage = current;
+    if (mightContain(object) || !stage.filter.put(object)) {
+      return false;
+    }
+    if (stage.insertions.incrementAndGet() == stage.expectedInsertions) {
+      grow(stage);
+    }
+    return true;
+  }
+
+  /** Adds a stage after {@code full}, unless one was already added. */
+  private synchronized void grow(Stage<T> full) {
+    if (current == full) {
+      current =
+          new Stage<T>(
+              full,
+              funnel,
+              LongMath.saturatedMultiply(full.expectedInsertions, GROWTH_FACTOR),
+              full.fpp * TIGHTENING_RATIO);
+    }
+  }
+
+  /**
+   * Returns the probability that {@linkplain #mightContain(Object)} will erroneously return {@code
+   * true} for an object that has not actually been put in the {@code ScalableBloomFilter}.
+   */
+  public double expectedFpp() {
+    double trueNegativeProbability = 1.0;
+    for (Stage<T> stage = current; stage != null; stage = stage.previous) {
+      trueNegativeProbability *= 1.0 - stage.filter.expectedFpp();
+    }
+    return 1.0 - trueNegativeProbability;
+  }
+
+  /**
+   * Returns an estimate for the total number of distinct elements that have been added to this
+   * Bloom filter, the sum of the {@linkplain BloomFilter#approximateElementCount estimates} of its
+   * filters.
+   */
+  public long approximateElementCount() {
+    long count = 0;
+    for (Stage<T> stage = current; stage != null; stage = stage.previous) {
+      count = LongMath.saturatedAdd(count, stage.filter.approximateElementCount());
+    }
+    return count;
+  }
+
+  /** Returns the number of filters in the chain. */
+  int stageCount() {
+    int count = 0;
+    for (Stage<T> stage = current; stage != null; stage = stage.previous) {
+      count++;
+    }
+    return count;
+  }
+
+  /** A filter in the chain, and the number of elements that have been put in it. */
+  private static final class Stage<T extends @Nullable Object> {
+    @CheckForNull final Stage<T> previous;
+    final BloomFilter<T> filter;
+    final long expectedInsertions;
+    final double fpp;
+    final AtomicLong insertions;
+
+    Stage(
+        @CheckForNull Stage<T> previous,
+        Funnel<? super T> funnel,
+        long expectedInsertions,
+        double fpp) {
+      this(
+          previous,
+          BloomFilter.<T>create(funnel, expectedInsertions, fpp),
+          expectedInsertions,
+          fpp,
+          0);
+    }
+
+    private Stage(
+        @CheckForNull Stage<T> previous,
+        BloomFilter<T> filter,
+        long expectedInsertions,
+        double fpp,
+        long insertions) {
+      this.previous = previous;
+      this.filter = filter;
+      this.expectedInsertions = expectedInsertions;
+      this.fpp = fpp;
+      this.insertions = new AtomicLong(insertions);
+    }
+
+    Stage<T> copy() {
+      return new Stage<T>(
+          previous == null ? null : previous.copy(),
+          filter.copy(),
+          expectedInsertions,
+          fpp,
+          insertions.get());
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+/*
+ * wyhash was written by Wang Yi, and is released into the public domain.
+ *
+ * Source:
+ * https://github.com/wangyi-fudan/wyhash/blob/wyhash_final4/wyhash.h
+ * (Modified to adapt to Guava coding conventions and to use the HashFunction interface)
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkPositionIndexes;
+import static page.foliage.guava.common.hash.LittleEndianByteArray.load32;
+import static page.foliage.guava.common.hash.LittleEndianByteArray.load64;
+import static page.foliage.guava.common.hash.Xxh3HashFunction.multiplyHigh;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.Immutable;
+
+/**
+ * Implementation of wyhash (64 hash bits), as of its "final4" version with the default secret. The
+ * hash values are the same as those of {@code wyhash(key, len, seed, _wyp)}.
+ *
+ * @author Wang Yi
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+final class WyHashFunction extends AbstractHashFunction implements Serializable {
+  static final HashFunction WYHASH = new WyHashFunction(0);
+
+  private static final long SECRET0 = 0xa0761d6478bd642fL;
+  private static final long SECRET1 = 0xe7037ed1a0b428dbL;
+  private static final long SECRET2 = 0x8ebc6af09c88c6e3L;
+  private static final long SECRET3 = 0x589965cc75374cc3L;
+
+  private static final int BLOCK_SIZE = 48;
+
+  private final long seed;
+
+  WyHashFunction(long seed) {
+    this.seed = seed;
+  }
+
+  @Override
+  public int bits() {
+    return 64;
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    return HashCode.fromLong(hash(input, off, len, seed));
+  }
+
+  @Override
+  public Hasher newHasher() {
+    return new WyHasher(seed);
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.wyhash(" + seed + ")";
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof WyHashFunction) {
+      WyHashFunction other = (WyHashFunction) object;
+      return seed == other.seed;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode() ^ Long.hashCode(seed);
+  }
+
+  private static long hash(byte[] input, int off, int len, long seed) {
+    seed = initialState(seed);
+    if (len <= 16) {
+      long a;
+      long b;
+      if (len >= 4) {
+        int quarter = (len >> 3) << 2;
+        a = (unsignedLoad32(input, off) << 32) | unsignedLoad32(input, off + quarter);
+        int last = off + len - 4;
+        b = (unsignedLoad32(input, last) << 32) | unsignedLoad32(input, last - quarter);
+      } else if (len > 0) {
+        a =
+            ((input[off] & 0xFFL) << 16)
+                | ((input[off + (len >> 1)] & 0xFFL) << 8)
+                | (input[off + len - 1] & 0xFFL);
+        b = 0;
+      } else {
+        a = 0;
+        b = 0;
+      }
+      return finish(a, b, seed, len);
+    }
+    int end = off + len;
+    if (len > BLOCK_SIZE) {
+      long see1 = seed;
+      long see2 = seed;
+      do {
+        seed = mix(load64(input, off) ^ SECRET1, load64(input, off + 8) ^ seed);
+        see1 = mix(load64(input, off + 16) ^ SECRET2, load64(input, off + 24) ^ see1);
+        see2 = mix(load64(input, off + 32) ^ SECRET3, load64(input, off + 40) ^ see2);
+        off += BLOCK_SIZE;
+      } while (end - off > BLOCK_SIZE);
+      seed ^= see1 ^ see2;
+    }
+    return finishTail(input, off, end, seed, len);
+  }
+
+  /** Hashes the last {@code 1..48} bytes, which end at {@code end} and are preceded by 16 more. */
+  private static long finishTail(byte[] input, int off, int end, long seed, long len) {
+    while (end - off > 16) {
+      seed = mix(load64(input, off) ^ SECRET1, load64(input, off + 8) ^ seed);
+      off += 16;
+    }
+    return finish(load64(input, end - 16), load64(input, end - 8), seed, len);
+  }
+
+  private static long initialState(long seed) {
+    return seed ^ mix(seed ^ SECRET0, SECRET1);
+  }
+
+  private static long finish(long a, long b, long seed, long len) {
+    a ^= SECRET1;
+    b ^= seed;
+    long low = a * b;
+    long high = multiplyHigh(a, b);
+    return mix(low ^ SECRET0 ^ len, high ^ SECRET1);
+  }
+
+  private static long mix(long a, long b) {
+    return (a * b) ^ multiplyHigh(a, b);
+  }
+
+  private static long unsignedLoad32(byte[] source, int offset) {
+    return load32(source, offset) & 0xFFFFFFFFL;
+  }
+
+  /**
+   * A streaming wyhash hasher. The last bytes of an input are hashed differently from its blocks,
+   * so the most recent block is only hashed once another one follows; inputs that turn out to have
+   * no more than two blocks are hashed in one shot.
+   */
+  private static final class WyHasher extends AbstractStreamingHasher {
+    private final long seed;
+    private final byte[] pending = new byte[BLOCK_SIZE];
+    private boolean hasPending;
+    private byte[] remaining = new byte[0];
+    private boolean started;
+    private long state;
+    private long see1;
+    private long see2;
+    private long hashed;
+
+    WyHasher(long seed) {
+      super(BLOCK_SIZE);
+      this.seed = seed;
+    }
+
+    @Override
+    protected void process(ByteBuffer bb) {
+      if (hasPending) {
+        processPending();
+      }
+      bb.get(pending);
+      hasPending = true;
+    }
+
+    private void processPending() {
+      if (!started) {
+        state = see1 = see2 = initialState(seed);
+        started = true;
+      }
+      state = mix(load64(pending, 0) ^ SECRET1, load64(pending, 8) ^ state);
+      see1 = mix(load64(pending, 16) ^ SECRET2, load64(pending, 24) ^ see1);
+      see2 = mix(load64(pending, 32) ^ SECRET3, load64(pending, 40) ^ see2);
+      hashed += BLOCK_SIZE;
+    }
+
+    @Override
+    protected void processRemaining(ByteBuffer bb) {
+      remaining = new byte[bb.remaining()];
+      bb.get(remaining);
+    }
+
+    @Override
+    protected HashCode makeHash() {
+      int pendingLength = hasPending ? BLOCK_SIZE : 0;
+      byte[] tail = new byte[pendingLength + remaining.length];
+      System.arraycopy(pending, 0, tail, 0, pendingLength);
+      System.arraycopy(remaining, 0, tail, pendingLength, remaining.length);
+      if (!started) {
+        return HashCode.fromLong(WyHashFunction.hash(tail, 0, tail.length, seed));
+      }
+      int off = 0;
+      if (remaining.length > 0) {
+        // the pending block is followed by more bytes, so it is a block rather than the tail
+        processPending();
+        off = BLOCK_SIZE;
+      }
+      long len = hashed + tail.length - off;
+      return HashCode.fromLong(finishTail(tail, off, tail.length, state ^ see1 ^ see2, len));
+    }
+  }
+
+  private static final long serialVersionUID = 0L;
+}
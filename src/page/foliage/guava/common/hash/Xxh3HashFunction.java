@@ -0,0 +1,622 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+/*
+ * XXH3 was written by Yann Collet, and is released under the BSD 2-Clause License.
+ *
+ * Source:
+ * https://github.com/Cyan4973/xxHash/blob/v0.8.1/xxhash.h
+ * (Modified to adapt to Guava coding conventions and to use the HashFunction interface)
+ */
+
+package page.foliage.guava.common.hash;
+
+import static page.foliage.guava.common.base.Preconditions.checkPositionIndexes;
+import static page.foliage.guava.common.hash.LittleEndianByteArray.load32;
+import static page.foliage.guava.common.hash.LittleEndianByteArray.load64;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import javax.annotation.CheckForNull;
+
+import com.google.errorprone.annotations.Immutable;
+
+/**
+ * Implementation of XXH3, the 64 and 128-bit variants of xxHash, as of version 0.8.1. The hash
+ * values are the same as those of {@code XXH3_64bits_withSeed} and {@code XXH3_128bits_withSeed}.
+ *
+ * <p>Inputs of up to 240 bytes are hashed by a few multiplications specialized by length, and
+ * longer inputs by "stripes" of 64 bytes, each mixed into eight independent 64-bit accumulators
+ * with a 32x32-bit multiplication per lane, which the JIT compiler is free to unroll and pipeline.
+ *
+ * @author Yann Collet
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+final class Xxh3HashFunction extends AbstractHashFunction implements Serializable {
+  private static final long PRIME32_1 = 0x9E3779B1L;
+  private static final long PRIME32_2 = 0x85EBCA77L;
+  private static final long PRIME32_3 = 0xC2B2AE3DL;
+  private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME64_3 = 0x165667B19E3779F9L;
+  private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+  private static final long PRIME_MX1 = 0x165667919E3779F9L;
+  private static final long PRIME_MX2 = 0x9FB21C651E98DF25L;
+
+  private static final int STRIPE_LENGTH = 64;
+  private static final int SECRET_SIZE = 192;
+  private static final int STRIPES_PER_BLOCK = (SECRET_SIZE - STRIPE_LENGTH) / 8;
+  private static final int MIDSIZE_MAX = 240;
+  private static final int MIDSIZE_START_OFFSET = 3;
+  private static final int MIDSIZE_LAST_OFFSET = 17;
+  private static final int SECRET_SIZE_MIN = 136;
+  private static final int LAST_STRIPE_SECRET_OFFSET = SECRET_SIZE - STRIPE_LENGTH - 7;
+  private static final int MERGE_SECRET_OFFSET = 11;
+
+  /** The 192-byte default secret, {@code XXH3_kSecret}. */
+  @SuppressWarnings("Immutable") // array is never modified
+  private static final byte[] DEFAULT_SECRET = {
+    (byte) 0xb8, (byte) 0xfe, (byte) 0x6c, (byte) 0x39, (byte) 0x23, (byte) 0xa4, (byte) 0x4b,
+    (byte) 0xbe, (byte) 0x7c, (byte) 0x01, (byte) 0x81, (byte) 0x2c, (byte) 0xf7, (byte) 0x21,
+    (byte) 0xad, (byte) 0x1c, (byte) 0xde, (byte) 0xd4, (byte) 0x6d, (byte) 0xe9, (byte) 0x83,
+    (byte) 0x90, (byte) 0x97, (byte) 0xdb, (byte) 0x72, (byte) 0x40, (byte) 0xa4, (byte) 0xa4,
+    (byte) 0xb7, (byte) 0xb3, (byte) 0x67, (byte) 0x1f, (byte) 0xcb, (byte) 0x79, (byte) 0xe6,
+    (byte) 0x4e, (byte) 0xcc, (byte) 0xc0, (byte) 0xe5, (byte) 0x78, (byte) 0x82, (byte) 0x5a,
+    (byte) 0xd0, (byte) 0x7d, (byte) 0xcc, (byte) 0xff, (byte) 0x72, (byte) 0x21, (byte) 0xb8,
+    (byte) 0x08, (byte) 0x46, (byte) 0x74, (byte) 0xf7, (byte) 0x43, (byte) 0x24, (byte) 0x8e,
+    (byte) 0xe0, (byte) 0x35, (byte) 0x90, (byte) 0xe6, (byte) 0x81, (byte) 0x3a, (byte) 0x26,
+    (byte) 0x4c, (byte) 0x3c, (byte) 0x28, (byte) 0x52, (byte) 0xbb, (byte) 0x91, (byte) 0xc3,
+    (byte) 0x00, (byte) 0xcb, (byte) 0x88, (byte) 0xd0, (byte) 0x65, (byte) 0x8b, (byte) 0x1b,
+    (byte) 0x53, (byte) 0x2e, (byte) 0xa3, (byte) 0x71, (byte) 0x64, (byte) 0x48, (byte) 0x97,
+    (byte) 0xa2, (byte) 0x0d, (byte) 0xf9, (byte) 0x4e, (byte) 0x38, (byte) 0x19, (byte) 0xef,
+    (byte) 0x46, (byte) 0xa9, (byte) 0xde, (byte) 0xac, (byte) 0xd8, (byte) 0xa8, (byte) 0xfa,
+    (byte) 0x76, (byte) 0x3f, (byte) 0xe3, (byte) 0x9c, (byte) 0x34, (byte) 0x3f, (byte) 0xf9,
+    (byte) 0xdc, (byte) 0xbb, (byte) 0xc7, (byte) 0xc7, (byte) 0x0b, (byte) 0x4f, (byte) 0x1d,
+    (byte) 0x8a, (byte) 0x51, (byte) 0xe0, (byte) 0x4b, (byte) 0xcd, (byte) 0xb4, (byte) 0x59,
+    (byte) 0x31, (byte) 0xc8, (byte) 0x9f, (byte) 0x7e, (byte) 0xc9, (byte) 0xd9, (byte) 0x78,
+    (byte) 0x73, (byte) 0x64, (byte) 0xea, (byte) 0xc5, (byte) 0xac, (byte) 0x83, (byte) 0x34,
+    (byte) 0xd3, (byte) 0xeb, (byte) 0xc3, (byte) 0xc5, (byte) 0x81, (byte) 0xa0, (byte) 0xff,
+    (byte) 0xfa, (byte) 0x13, (byte) 0x63, (byte) 0xeb, (byte) 0x17, (byte) 0x0d, (byte) 0xdd,
+    (byte) 0x51, (byte) 0xb7, (byte) 0xf0, (byte) 0xda, (byte) 0x49, (byte) 0xd3, (byte) 0x16,
+    (byte) 0x55, (byte) 0x26, (byte) 0x29, (byte) 0xd4, (byte) 0x68, (byte) 0x9e, (byte) 0x2b,
+    (byte) 0x16, (byte) 0xbe, (byte) 0x58, (byte) 0x7d, (byte) 0x47, (byte) 0xa1, (byte) 0xfc,
+    (byte) 0x8f, (byte) 0xf8, (byte) 0xb8, (byte) 0xd1, (byte) 0x7a, (byte) 0xd0, (byte) 0x31,
+    (byte) 0xce, (byte) 0x45, (byte) 0xcb, (byte) 0x3a, (byte) 0x8f, (byte) 0x95, (byte) 0x16,
+    (byte) 0x04, (byte) 0x28, (byte) 0xaf, (byte) 0xd7, (byte) 0xfb, (byte) 0xca, (byte) 0xbb,
+    (byte) 0x4b, (byte) 0x40, (byte) 0x7e,
+  };
+
+  // must follow DEFAULT_SECRET, which the constructor reads
+  static final HashFunction XXH3_64 = new Xxh3HashFunction(64, 0);
+
+  static final HashFunction XXH3_128 = new Xxh3HashFunction(128, 0);
+
+  private final int bits;
+  private final long seed;
+
+  /** The secret used for inputs longer than {@value #MIDSIZE_MAX} bytes. */
+  @SuppressWarnings("Immutable") // array is never modified
+  private final byte[] secret;
+
+  /** The first {@code SECRET_SIZE / 8} little-endian longs of {@link #secret}. */
+  @SuppressWarnings("Immutable") // array is never modified
+  private final long[] secretWords;
+
+  Xxh3HashFunction(int bits, long seed) {
+    this.bits = bits;
+    this.seed = seed;
+    this.secret = (seed == 0) ? DEFAULT_SECRET : customSecret(seed);
+    this.secretWords = new long[SECRET_SIZE / 8];
+    for (int i = 0; i < secretWords.length; i++) {
+      secretWords[i] = load64(secret, 8 * i);
+    }
+  }
+
+  /** Derives a secret from {@code seed}, as {@code XXH3_initCustomSecret} does. */
+  private static byte[] customSecret(long seed) {
+    byte[] secret = new byte[SECRET_SIZE];
+    for (int i = 0; i < SECRET_SIZE; i += 16) {
+      LittleEndianByteArray.store64(secret, i, load64(DEFAULT_SECRET, i) + seed);
+      LittleEndianByteArray.store64(secret, i + 8, load64(DEFAULT_SECRET, i + 8) - seed);
+    }
+    return secret;
+  }
+
+  @Override
+  public int bits() {
+    return bits;
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    return hash(input, off, len);
+  }
+
+  @Override
+  public Hasher newHasher() {
+    return new Xxh3Hasher(this);
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.xxh3_" + bits + "(" + seed + ")";
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof Xxh3HashFunction) {
+      Xxh3HashFunction other = (Xxh3HashFunction) object;
+      return bits == other.bits && seed == other.seed;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode() ^ bits ^ Long.hashCode(seed);
+  }
+
+  private HashCode hash(byte[] input, int off, int len) {
+    if (bits == 64) {
+      long hash;
+      if (len <= 16) {
+        hash = hash64Len0To16(input, off, len, seed);
+      } else if (len <= 128) {
+        hash = hash64Len17To128(input, off, len, seed);
+      } else if (len <= MIDSIZE_MAX) {
+        hash = hash64Len129To240(input, off, len, seed);
+      } else {
+        long[] acc = hashLong(input, off, len);
+        hash = mergeAccumulators(acc, secret, MERGE_SECRET_OFFSET, len * PRIME64_1);
+      }
+      return HashCode.fromLong(hash);
+    }
+    if (len <= 16) {
+      return hash128Len0To16(input, off, len, seed);
+    } else if (len <= 128) {
+      return hash128Len17To128(input, off, len, seed);
+    } else if (len <= MIDSIZE_MAX) {
+      return hash128Len129To240(input, off, len, seed);
+    } else {
+      return merge128(hashLong(input, off, len), secret, len);
+    }
+  }
+
+  // Inputs of up to 240 bytes
+
+  private static long hash64Len0To16(byte[] input, int off, int len, long seed) {
+    if (len > 8) {
+      long bitflip1 = (load64(DEFAULT_SECRET, 24) ^ load64(DEFAULT_SECRET, 32)) + seed;
+      long bitflip2 = (load64(DEFAULT_SECRET, 40) ^ load64(DEFAULT_SECRET, 48)) - seed;
+      long lo = load64(input, off) ^ bitflip1;
+      long hi = load64(input, off + len - 8) ^ bitflip2;
+      long acc = len + Long.reverseBytes(lo) + hi + multiplyFold64(lo, hi);
+      return avalanche(acc);
+    }
+    if (len >= 4) {
+      seed ^= (long) Integer.reverseBytes((int) seed) << 32;
+      long input1 = load32(input, off) & 0xFFFFFFFFL;
+      long input2 = load32(input, off + len - 4) & 0xFFFFFFFFL;
+      long bitflip = (load64(DEFAULT_SECRET, 8) ^ load64(DEFAULT_SECRET, 16)) - seed;
+      return rrmxmx((input2 + (input1 << 32)) ^ bitflip, len);
+    }
+    if (len > 0) {
+      long combined = combine1To3(input, off, len);
+      long bitflip = (unsignedLoad32(DEFAULT_SECRET, 0) ^ unsignedLoad32(DEFAULT_SECRET, 4)) + seed;
+      return xxh64Avalanche(combined ^ bitflip);
+    }
+    return xxh64Avalanche(seed ^ load64(DEFAULT_SECRET, 56) ^ load64(DEFAULT_SECRET, 64));
+  }
+
+  private static long hash64Len17To128(byte[] input, int off, int len, long seed) {
+    long acc = len * PRIME64_1;
+    if (len > 32) {
+      if (len > 64) {
+        if (len > 96) {
+          acc += mix16(input, off + 48, DEFAULT_SECRET, 96, seed);
+          acc += mix16(input, off + len - 64, DEFAULT_SECRET, 112, seed);
+        }
+        acc += mix16(input, off + 32, DEFAULT_SECRET, 64, seed);
+        acc += mix16(input, off + len - 48, DEFAULT_SECRET, 80, seed);
+      }
+      acc += mix16(input, off + 16, DEFAULT_SECRET, 32, seed);
+      acc += mix16(input, off + len - 32, DEFAULT_SECRET, 48, seed);
+    }
+    acc += mix16(input, off, DEFAULT_SECRET, 0, seed);
+    acc += mix16(input, off + len - 16, DEFAULT_SECRET, 16, seed);
+    return avalanche(acc);
+  }
+
+  private static long hash64Len129To240(byte[] input, int off, int len, long seed) {
+    long acc = len * PRIME64_1;
+    int rounds = len / 16;
+    for (int i = 0; i < 8; i++) {
+      acc += mix16(input, off + 16 * i, DEFAULT_SECRET, 16 * i, seed);
+    }
+    acc = avalanche(acc);
+    for (int i = 8; i < rounds; i++) {
+      acc += mix16(input, off + 16 * i, DEFAULT_SECRET, 16 * (i - 8) + MIDSIZE_START_OFFSET, seed);
+    }
+    acc +=
+        mix16(
+            input, off + len - 16, DEFAULT_SECRET, SECRET_SIZE_MIN - MIDSIZE_LAST_OFFSET, seed);
+    return avalanche(acc);
+  }
+
+  private static HashCode hash128Len0To16(byte[] input, int off, int len, long seed) {
+    if (len > 8) {
+      long bitflipLow = (load64(DEFAULT_SECRET, 32) ^ load64(DEFAULT_SECRET, 40)) - seed;
+      long bitflipHigh = (load64(DEFAULT_SECRET, 48) ^ load64(DEFAULT_SECRET, 56)) + seed;
+      long inputLow = load64(input, off);
+      long inputHigh = load64(input, off + len - 8);
+      long mulLow = (inputLow ^ inputHigh ^ bitflipLow) * PRIME64_1;
+      long mulHigh = multiplyHigh(inputLow ^ inputHigh ^ bitflipLow, PRIME64_1);
+      mulLow += (long) (len - 1) << 54;
+      inputHigh ^= bitflipHigh;
+      mulHigh += inputHigh + (inputHigh & 0xFFFFFFFFL) * (PRIME32_2 - 1);
+      mulLow ^= Long.reverseBytes(mulHigh);
+      long low = mulLow * PRIME64_2;
+      long high = multiplyHigh(mulLow, PRIME64_2) + mulHigh * PRIME64_2;
+      return hashCode128(avalanche(low), avalanche(high));
+    }
+    if (len >= 4) {
+      seed ^= (long) Integer.reverseBytes((int) seed) << 32;
+      long inputLow = load32(input, off) & 0xFFFFFFFFL;
+      long inputHigh = load32(input, off + len - 4) & 0xFFFFFFFFL;
+      long bitflip = (load64(DEFAULT_SECRET, 16) ^ load64(DEFAULT_SECRET, 24)) + seed;
+      long keyed = (inputLow + (inputHigh << 32)) ^ bitflip;
+      long multiplier = PRIME64_1 + (len << 2);
+      long low = keyed * multiplier;
+      long high = multiplyHigh(keyed, multiplier);
+      high += low << 1;
+      low ^= high >>> 3;
+      low ^= low >>> 35;
+      low *= PRIME_MX2;
+      low ^= low >>> 28;
+      return hashCode128(low, avalanche(high));
+    }
+    if (len > 0) {
+      long combinedLow = combine1To3(input, off, len);
+      long combinedHigh =
+          Integer.rotateLeft(Integer.reverseBytes((int) combinedLow), 13) & 0xFFFFFFFFL;
+      long bitflipLow =
+          (unsignedLoad32(DEFAULT_SECRET, 0) ^ unsignedLoad32(DEFAULT_SECRET, 4)) + seed;
+      long bitflipHigh =
+          (unsignedLoad32(DEFAULT_SECRET, 8) ^ unsignedLoad32(DEFAULT_SECRET, 12)) - seed;
+      return hashCode128(
+          xxh64Avalanche(combinedLow ^ bitflipLow), xxh64Avalanche(combinedHigh ^ bitflipHigh));
+    }
+    return hashCode128(
+        xxh64Avalanche(seed ^ load64(DEFAULT_SECRET, 64) ^ load64(DEFAULT_SECRET, 72)),
+        xxh64Avalanche(seed ^ load64(DEFAULT_SECRET, 80) ^ load64(DEFAULT_SECRET, 88)));
+  }
+
+  private static HashCode hash128Len17To128(byte[] input, int off, int len, long seed) {
+    long[] acc = {len * PRIME64_1, 0};
+    if (len > 32) {
+      if (len > 64) {
+        if (len > 96) {
+          mix32(acc, input, off + 48, off + len - 64, 96, seed);
+        }
+        mix32(acc, input, off + 32, off + len - 48, 64, seed);
+      }
+      mix32(acc, input, off + 16, off + len - 32, 32, seed);
+    }
+    mix32(acc, input, off, off + len - 16, 0, seed);
+    return finish128(acc, len, seed);
+  }
+
+  private static HashCode hash128Len129To240(byte[] input, int off, int len, long seed) {
+    long[] acc = {len * PRIME64_1, 0};
+    int rounds = len / 32;
+    for (int i = 0; i < 4; i++) {
+      mix32(acc, input, off + 32 * i, off + 32 * i + 16, 32 * i, seed);
+    }
+    acc[0] = avalanche(acc[0]);
+    acc[1] = avalanche(acc[1]);
+    for (int i = 4; i < rounds; i++) {
+      mix32(
+          acc, input, off + 32 * i, off + 32 * i + 16, MIDSIZE_START_OFFSET + 32 * (i - 4), seed);
+    }
+    mix32(
+        acc,
+        input,
+        off + len - 16,
+        off + len - 32,
+        SECRET_SIZE_MIN - MIDSIZE_LAST_OFFSET - 16,
+        -seed);
+    return finish128(acc, len, seed);
+  }
+
+  private static HashCode finish128(long[] acc, int len, long seed) {
+    long low = acc[0] + acc[1];
+    long high = acc[0] * PRIME64_1 + acc[1] * PRIME64_4 + (len - seed) * PRIME64_2;
+    return hashCode128(avalanche(low), -avalanche(high));
+  }
+
+  private static long combine1To3(byte[] input, int off, int len) {
+    int c1 = input[off] & 0xFF;
+    int c2 = input[off + (len >> 1)] & 0xFF;
+    int c3 = input[off + len - 1] & 0xFF;
+    return ((c1 << 16) | (c2 << 24) | c3 | (len << 8)) & 0xFFFFFFFFL;
+  }
+
+  private static long mix16(byte[] input, int off, byte[] secret, int secretOff, long seed) {
+    long low = load64(input, off) ^ (load64(secret, secretOff) + seed);
+    long high = load64(input, off + 8) ^ (load64(secret, secretOff + 8) - seed);
+    return multiplyFold64(low, high);
+  }
+
+  private static void mix32(
+      long[] acc, byte[] input, int off1, int off2, int secretOff, long seed) {
+    acc[0] += mix16(input, off1, DEFAULT_SECRET, secretOff, seed);
+    acc[0] ^= load64(input, off2) + load64(input, off2 + 8);
+    acc[1] += mix16(input, off2, DEFAULT_SECRET, secretOff + 16, seed);
+    acc[1] ^= load64(input, off1) + load64(input, off1 + 8);
+  }
+
+  // Inputs of more than 240 bytes
+
+  private static long[] initialAccumulators() {
+    return new long[] {
+      PRIME32_3, PRIME64_1, PRIME64_2, PRIME64_3, PRIME64_4, PRIME32_2, PRIME64_5, PRIME32_1
+    };
+  }
+
+  /**
+   * Returns the accumulators after hashing {@code len > 240} bytes of {@code input}. This is {@link
+   * #accumulate} with the accumulators in local variables, which is several times faster.
+   */
+  private long[] hashLong(byte[] input, int off, int len) {
+    long[] key = secretWords;
+    long acc0 = PRIME32_3;
+    long acc1 = PRIME64_1;
+    long acc2 = PRIME64_2;
+    long acc3 = PRIME64_3;
+    long acc4 = PRIME64_4;
+    long acc5 = PRIME32_2;
+    long acc6 = PRIME64_5;
+    long acc7 = PRIME32_1;
+    int stripes = (len - 1) / STRIPE_LENGTH;
+    for (int stripe = 0, k = 0; stripe < stripes; stripe++) {
+      int p = off + stripe * STRIPE_LENGTH;
+      long data0 = load64(input, p);
+      long data1 = load64(input, p + 8);
+      long data2 = load64(input, p + 16);
+      long data3 = load64(input, p + 24);
+      long data4 = load64(input, p + 32);
+      long data5 = load64(input, p + 40);
+      long data6 = load64(input, p + 48);
+      long data7 = load64(input, p + 56);
+      long key0 = data0 ^ key[k];
+      long key1 = data1 ^ key[k + 1];
+      long key2 = data2 ^ key[k + 2];
+      long key3 = data3 ^ key[k + 3];
+      long key4 = data4 ^ key[k + 4];
+      long key5 = data5 ^ key[k + 5];
+      long key6 = data6 ^ key[k + 6];
+      long key7 = data7 ^ key[k + 7];
+      acc0 += data1 + (key0 & 0xFFFFFFFFL) * (key0 >>> 32);
+      acc1 += data0 + (key1 & 0xFFFFFFFFL) * (key1 >>> 32);
+      acc2 += data3 + (key2 & 0xFFFFFFFFL) * (key2 >>> 32);
+      acc3 += data2 + (key3 & 0xFFFFFFFFL) * (key3 >>> 32);
+      acc4 += data5 + (key4 & 0xFFFFFFFFL) * (key4 >>> 32);
+      acc5 += data4 + (key5 & 0xFFFFFFFFL) * (key5 >>> 32);
+      acc6 += data7 + (key6 & 0xFFFFFFFFL) * (key6 >>> 32);
+      acc7 += data6 + (key7 & 0xFFFFFFFFL) * (key7 >>> 32);
+      if (++k == STRIPES_PER_BLOCK) {
+        int s = STRIPES_PER_BLOCK;
+        acc0 = (acc0 ^ (acc0 >>> 47) ^ key[s]) * PRIME32_1;
+        acc1 = (acc1 ^ (acc1 >>> 47) ^ key[s + 1]) * PRIME32_1;
+        acc2 = (acc2 ^ (acc2 >>> 47) ^ key[s + 2]) * PRIME32_1;
+        acc3 = (acc3 ^ (acc3 >>> 47) ^ key[s + 3]) * PRIME32_1;
+        acc4 = (acc4 ^ (acc4 >>> 47) ^ key[s + 4]) * PRIME32_1;
+        acc5 = (acc5 ^ (acc5 >>> 47) ^ key[s + 5]) * PRIME32_1;
+        acc6 = (acc6 ^ (acc6 >>> 47) ^ key[s + 6]) * PRIME32_1;
+        acc7 = (acc7 ^ (acc7 >>> 47) ^ key[s + 7]) * PRIME32_1;
+        k = 0;
+      }
+    }
+    long[] acc = {acc0, acc1, acc2, acc3, acc4, acc5, acc6, acc7};
+    accumulateStripe(acc, input, off + len - STRIPE_LENGTH, secret, LAST_STRIPE_SECRET_OFFSET);
+    return acc;
+  }
+
+  /**
+   * Accumulates {@code stripes} consecutive stripes of {@code input}, the first of which is stripe
+   * {@code stripeInBlock} of its block, scrambling the accumulators after each block, and returns
+   * the index in its block of the stripe that follows the last one.
+   */
+  private static int accumulate(
+      long[] acc, int stripeInBlock, byte[] input, int off, int stripes, byte[] secret) {
+    for (int i = 0; i < stripes; i++) {
+      accumulateStripe(acc, input, off + i * STRIPE_LENGTH, secret, stripeInBlock * 8);
+      if (++stripeInBlock == STRIPES_PER_BLOCK) {
+        scramble(acc, secret);
+        stripeInBlock = 0;
+      }
+    }
+    return stripeInBlock;
+  }
+
+  private static void accumulateStripe(
+      long[] acc, byte[] input, int off, byte[] secret, int secretOff) {
+    for (int i = 0; i < 8; i++) {
+      long data = load64(input, off + 8 * i);
+      long key = data ^ load64(secret, secretOff + 8 * i);
+      acc[i ^ 1] += data;
+      acc[i] += (key & 0xFFFFFFFFL) * (key >>> 32);
+    }
+  }
+
+  private static void scramble(long[] acc, byte[] secret) {
+    for (int i = 0; i < 8; i++) {
+      long value = acc[i];
+      value ^= value >>> 47;
+      value ^= load64(secret, SECRET_SIZE - STRIPE_LENGTH + 8 * i);
+      acc[i] = value * PRIME32_1;
+    }
+  }
+
+  private static long mergeAccumulators(long[] acc, byte[] secret, int secretOff, long start) {
+    long result = start;
+    for (int i = 0; i < 4; i++) {
+      result +=
+          multiplyFold64(
+              acc[2 * i] ^ load64(secret, secretOff + 16 * i),
+              acc[2 * i + 1] ^ load64(secret, secretOff + 16 * i + 8));
+    }
+    return avalanche(result);
+  }
+
+  private static HashCode merge128(long[] acc, byte[] secret, long len) {
+    return hashCode128(
+        mergeAccumulators(acc, secret, MERGE_SECRET_OFFSET, len * PRIME64_1),
+        mergeAccumulators(
+            acc,
+            secret,
+            SECRET_SIZE - STRIPE_LENGTH - MERGE_SECRET_OFFSET,
+            ~(len * PRIME64_2)));
+  }
+
+  // Mixing functions
+
+  private static long avalanche(long h) {
+    h ^= h >>> 37;
+    h *= PRIME_MX1;
+    return h ^ (h >>> 32);
+  }
+
+  private static long xxh64Avalanche(long h) {
+    h ^= h >>> 33;
+    h *= PRIME64_2;
+    h ^= h >>> 29;
+    h *= PRIME64_3;
+    return h ^ (h >>> 32);
+  }
+
+  private static long rrmxmx(long h, int len) {
+    h ^= Long.rotateLeft(h, 49) ^ Long.rotateLeft(h, 24);
+    h *= PRIME_MX2;
+    h ^= (h >>> 35) + len;
+    h *= PRIME_MX2;
+    return h ^ (h >>> 28);
+  }
+
+  /** Returns the 64-bit xor-fold of the 128-bit product of {@code a} and {@code b}. */
+  private static long multiplyFold64(long a, long b) {
+    return (a * b) ^ multiplyHigh(a, b);
+  }
+
+  /**
+   * Returns the high 64 bits of the unsigned 128-bit product of {@code a} and {@code b}. This is
+   * {@code Math.unsignedMultiplyHigh} of Java 18, which we can't use yet.
+   */
+  static long multiplyHigh(long a, long b) {
+    long aLow = a & 0xFFFFFFFFL;
+    long aHigh = a >>> 32;
+    long bLow = b & 0xFFFFFFFFL;
+    long bHigh = b >>> 32;
+    long lowLow = aLow * bLow;
+    long highLow = aHigh * bLow;
+    // cannot overflow: the largest possible value is 2^64 - 1
+    long cross = (lowLow >>> 32) + (highLow & 0xFFFFFFFFL) + aLow * bHigh;
+    return (highLow >>> 32) + (cross >>> 32) + aHigh * bHigh;
+  }
+
+  private static long unsignedLoad32(byte[] source, int offset) {
+    return load32(source, offset) & 0xFFFFFFFFL;
+  }
+
+  /**
+   * Returns a 128-bit hash code of the given halves, encoded so that {@link HashCode#asLong}
+   * returns the low half.
+   */
+  private static HashCode hashCode128(long low, long high) {
+    byte[] bytes = new byte[16];
+    LittleEndianByteArray.store64(bytes, 0, low);
+    LittleEndianByteArray.store64(bytes, 8, high);
+    return HashCode.fromBytesNoCopy(bytes);
+  }
+
+  /**
+   * A streaming XXH3 hasher. The last stripe of a long input overlaps the stripes before it, so the
+   * most recent chunk is only accumulated once another one follows; inputs that turn out to have no
+   * more than two chunks are hashed in one shot.
+   */
+  private static final class Xxh3Hasher extends AbstractStreamingHasher {
+    private static final int CHUNK_SIZE = 4 * STRIPE_LENGTH;
+
+    private final Xxh3HashFunction function;
+    private final byte[] pending = new byte[CHUNK_SIZE];
+    private boolean hasPending;
+    private byte[] remaining = new byte[0];
+    @CheckForNull private long[] acc;
+    private int stripeInBlock;
+    private long accumulated;
+
+    Xxh3Hasher(Xxh3HashFunction function) {
+      super(CHUNK_SIZE);
+      this.function = function;
+    }
+
+    @Override
+    protected void process(ByteBuffer bb) {
+      if (hasPending) {
+        if (acc == null) {
+          acc = initialAccumulators();
+        }
+        stripeInBlock =
+            accumulate(acc, stripeInBlock, pending, 0, CHUNK_SIZE / STRIPE_LENGTH, function.secret);
+        accumulated += CHUNK_SIZE;
+      }
+      bb.get(pending);
+      hasPending = true;
+    }
+
+    @Override
+    protected void processRemaining(ByteBuffer bb) {
+      remaining = new byte[bb.remaining()];
+      bb.get(remaining);
+    }
+
+    @Override
+    protected HashCode makeHash() {
+      int pendingLength = hasPending ? CHUNK_SIZE : 0;
+      byte[] tail = new byte[pendingLength + remaining.length];
+      System.arraycopy(pending, 0, tail, 0, pendingLength);
+      System.arraycopy(remaining, 0, tail, pendingLength, remaining.length);
+      long[] acc = this.acc;
+      if (acc == null) {
+        return function.hash(tail, 0, tail.length);
+      }
+      byte[] secret = function.secret;
+      long len = accumulated + tail.length;
+      int stripes = (int) ((len - 1) / STRIPE_LENGTH - accumulated / STRIPE_LENGTH);
+      accumulate(acc, stripeInBlock, tail, 0, stripes, secret);
+      accumulateStripe(acc, tail, tail.length - STRIPE_LENGTH, secret, LAST_STRIPE_SECRET_OFFSET);
+      if (function.bits == 64) {
+        return HashCode.fromLong(
+            mergeAccumulators(acc, secret, MERGE_SECRET_OFFSET, len * PRIME64_1));
+      }
+      return merge128(acc, secret, len);
+    }
+  }
+
+  private static final long serialVersionUID = 0L;
+}
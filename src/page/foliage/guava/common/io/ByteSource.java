@@ -24,26 +24,37 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.math.RoundingMode;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 
+import page.foliage.guava.common.annotations.Beta;
 import page.foliage.guava.common.annotations.GwtIncompatible;
 import page.foliage.guava.common.annotations.J2ktIncompatible;
 import page.foliage.guava.common.base.Ascii;
 import page.foliage.guava.common.base.Optional;
+import page.foliage.guava.common.base.Throwables;
 import page.foliage.guava.common.collect.ImmutableList;
 import page.foliage.guava.common.hash.Funnels;
 import page.foliage.guava.common.hash.HashCode;
 import page.foliage.guava.common.hash.HashFunction;
 import page.foliage.guava.common.hash.Hasher;
+import page.foliage.guava.common.hash.MerkleTree;
+import page.foliage.guava.common.math.LongMath;
 
 /**
  * A readable source of bytes, such as a file. Unlike an {@link InputStream}, a {@code ByteSource}
@@ -344,6 +355,72 @@ public abstract class ByteSource {
     return hasher.hash();
   }
 
+  /**
+   * Hashes the contents of this byte source as a {@link MerkleTree}, whose leaves are consecutive
+   * chunks of {@code chunkSize} bytes (the last of which may be shorter), by hashing the chunks in
+   * parallel on the given executor. Each chunk is read from its own {@linkplain #slice slice} of
+   * this source, so the source must support being read by several streams at once. Sources of files
+   * instead map each chunk into memory and hash it in place.
+   *
+   * <p>The number of chunks is determined up front by calling {@link #size}, which may read the
+   * entire source if its size is not known.
+   *
+   * @throws IOException if an I/O error occurs while reading from this source, or if the calling
+   *     thread is interrupted while waiting for the chunks to be hashed
+   * @throws IllegalArgumentException if {@code chunkSize} is not positive, or if the source has
+   *     more than {@code Integer.MAX_VALUE} chunks
+   * @since 32.1.3
+   */
+  @Beta
+  public MerkleTree treeHash(HashFunction hashFunction, int chunkSize, Executor executor)
+      throws IOException {
+    checkNotNull(hashFunction);
+    checkNotNull(executor);
+    checkArgument(chunkSize > 0, "chunkSize (%s) must be positive", chunkSize);
+    long size = size();
+    long chunkCount = LongMath.divide(size, chunkSize, RoundingMode.CEILING);
+    checkArgument(chunkCount <= Integer.MAX_VALUE, "too many chunks: %s", chunkCount);
+    List<FutureTask<HashCode>> tasks = new ArrayList<>((int) chunkCount);
+    try {
+      for (long offset = 0; offset < size; offset += chunkSize) {
+        long chunkOffset = offset;
+        long chunkLength = Math.min(chunkSize, size - offset);
+        FutureTask<HashCode> task =
+            new FutureTask<>(() -> hashChunk(hashFunction, chunkOffset, chunkLength));
+        tasks.add(task);
+        executor.execute(task);
+      }
+      List<HashCode> leaves = new ArrayList<>(tasks.size());
+      for (FutureTask<HashCode> task : tasks) {
+        leaves.add(task.get());
+      }
+      return MerkleTree.create(hashFunction, leaves);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while hashing " + this);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfInstanceOf(cause, IOException.class);
+      Throwables.throwIfUnchecked(cause);
+      throw new AssertionError(cause);
+    } finally {
+      // stops the chunks that have not started yet, if any chunk failed
+      for (FutureTask<HashCode> task : tasks) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Hashes {@code length} bytes of this source, starting at {@code offset}, as a leaf of a {@link
+   * MerkleTree}. Sources that can read a range of bytes faster than through a slice override this.
+   */
+  HashCode hashChunk(HashFunction hashFunction, long offset, long length) throws IOException {
+    Hasher hasher = MerkleTree.newLeafHasher(hashFunction);
+    slice(offset, length).copyTo(Funnels.asOutputStream(hasher));
+    return hasher.hash();
+  }
+
   /**
    * Checks that the contents of this byte source are equal to the contents of the given byte
    * source.
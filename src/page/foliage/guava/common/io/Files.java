@@ -61,6 +61,8 @@ import page.foliage.guava.common.graph.SuccessorsFunction;
 import page.foliage.guava.common.graph.Traverser;
 import page.foliage.guava.common.hash.HashCode;
 import page.foliage.guava.common.hash.HashFunction;
+import page.foliage.guava.common.hash.Hasher;
+import page.foliage.guava.common.hash.MerkleTree;
 
 /**
  * Provides utility methods for working with {@linkplain File files}.
@@ -168,6 +170,27 @@ public final class Files {
       }
     }
 
+    /** Maps the chunk into memory and hashes it in place, rather than streaming it to the heap. */
+    @Override
+    HashCode hashChunk(HashFunction hashFunction, long offset, long length) throws IOException {
+      Hasher hasher = MerkleTree.newLeafHasher(hashFunction);
+      Closer closer = Closer.create();
+      try {
+        RandomAccessFile raf = closer.register(new RandomAccessFile(file, "r"));
+        FileChannel channel = closer.register(raf.getChannel());
+        // like a slice, a chunk past the end of a file that has shrunk is cut short
+        long available = Math.max(0, Math.min(length, channel.size() - offset));
+        if (available > 0) {
+          hasher.putBytes(channel.map(MapMode.READ_ONLY, offset, available));
+        }
+      } catch (Throwable e) {
+        throw closer.rethrow(e);
+      } finally {
+        closer.close();
+      }
+      return hasher.hash();
+    }
+
     @Override
     public String toString() {
       return "Files.asByteSource(" + file + ")";